@@ -14,6 +14,9 @@ plugins {
     // Only needed when you want to apply the OpenRewriteBestPractices recipe to your recipes through
     // ./gradlew rewriteRun -Drewrite.activeRecipe=org.openrewrite.recipes.OpenRewriteBestPractices
     id("org.openrewrite.rewrite") version "latest.release"
+
+    // Benchmarks under src/jmh/java, run with ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 // Set as appropriate for your organization
@@ -30,6 +33,8 @@ dependencies {
     implementation(platform("org.openrewrite.recipe:rewrite-recipe-bom:latest.release"))
 
     implementation("org.openrewrite:rewrite-java")
+    implementation("org.openrewrite:rewrite-properties")
+    implementation("org.openrewrite:rewrite-xml")
     implementation("org.openrewrite.recipe:rewrite-java-dependencies")
     runtimeOnly("org.openrewrite:rewrite-java-8")
     runtimeOnly("org.openrewrite:rewrite-java-17")
@@ -50,10 +55,20 @@ dependencies {
     rewrite("org.openrewrite.recipe:rewrite-recommendations:latest.release")
 
     // ↓ Dependencies specific to this project
-    testRuntimeOnly("org.testng:testng:7.5.1") {
+    // The assertion templates are compiled against both assertion APIs, and templates are attributed against the
+    // recipe's own runtime classpath, which doesn't include the dependencies of the migrated project
+    compileOnly("org.testng:testng:7.5.1") {
         because("7.5.x is the last Java 8 compatible version: https://github.com/testng-team/testng/issues/2775")
     }
-    testRuntimeOnly("org.junit.jupiter:junit-jupiter-api:latest.release")
+    runtimeOnly("org.testng:testng:7.5.1")
+    compileOnly("org.junit.jupiter:junit-jupiter-api:latest.release")
+    runtimeOnly("org.junit.jupiter:junit-jupiter-api:latest.release")
+    runtimeOnly("org.junit.jupiter:junit-jupiter-params:latest.release") {
+        because("Data provider consumers are migrated to @ParameterizedTest and @MethodSource")
+    }
+    testImplementation("org.testng:testng:7.5.1")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:latest.release")
+    testImplementation("org.junit.jupiter:junit-jupiter-params:latest.release")
     testImplementation("org.apiguardian:apiguardian-api:latest.release") {
         because("Non-essential annotations on JUnit 5 implementations, provided here to avoid 'unknown enum constant Status.STABLE' warning on gradle CI build")
     }
@@ -61,6 +76,33 @@ dependencies {
         because("Provides essential recipes for usage in this project's recipe list")
         exclude("org.testcontainers", "testcontainers")
     }
+
+    jmh("org.testng:testng:7.5.1") {
+        because("Benchmark fixtures are parsed against the TestNG annotations")
+    }
+    jmh("org.junit.jupiter:junit-jupiter-api:latest.release")
+    jmh("org.junit.jupiter:junit-jupiter-params:latest.release")
+    jmh("org.openrewrite.recipe:rewrite-testing-frameworks:latest.release") {
+        because("The MigrateToJunit5 composite benchmark runs the full recipe list")
+        exclude("org.testcontainers", "testcontainers")
+    }
+}
+
+tasks.test {
+    // for RuntimeClasspathTest, which attributes the templates without the test dependencies
+    systemProperty("runtime.classpath", sourceSets["main"].runtimeClasspath.asPath)
+}
+
+tasks.register<JavaExec>("migrate") {
+    description = "Runs the standalone parallel migration, e.g. ./gradlew migrate --args=\"--patch migration.patch /path/to/repo\""
+    // The test runtime classpath also provides rewrite-testing-frameworks and TestNG for type attribution
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("org.philzen.oss.cli.Migrate")
+}
+
+jmh {
+    // gc.alloc.rate.norm is reported per migrated method, as benchmarks declare @OperationsPerInvocation
+    profilers.add("gc")
 }
 
 signing {
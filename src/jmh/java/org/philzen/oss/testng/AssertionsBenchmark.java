@@ -0,0 +1,89 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.philzen.oss.engine.Dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to migrate a file full of <code>org.testng.Assert</code> calls with {@link AssertToAssertionsStep}, which offers
+ * each invocation to the generated recipes of its method name only, compared to running all recipes generated from
+ * {@link AssertToAssertions} one after the other (as <code>AssertToAssertionsRecipes</code> does).
+ * <br>
+ * Every test method has a few more ordinary method invocations than assertions, which no recipe must change.
+ * Both variants keep the compiled templates across invocations (the step in a shared execution context, the recipes
+ * are run with a shared root cursor), so that matching rather than compiling templates is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AssertionsBenchmark {
+
+    public enum Rules { BUCKETS, ALL }
+
+    private static final int METHODS = 20;
+
+    @Param
+    Rules rules;
+
+    J.CompilationUnit cu;
+
+    final Cursor templates = new Cursor(null, Cursor.ROOT_VALUE);
+
+    /**
+     * Shared by all invocations like by the files of a recipe run, holding the templates the step compiles
+     */
+    final ExecutionContext ctx = new InMemoryExecutionContext();
+
+    @Setup
+    public void parse() {
+        final StringBuilder sb = new StringBuilder("package org.philzen.oss.benchmark;\n\n")
+            .append("import org.testng.Assert;\n\n")
+            .append("public class AssertionsTest {\n");
+        for (int i = 0; i < METHODS; i++) {
+            sb.append("    public void test").append(i).append("() {\n")
+                .append("        String value = String.valueOf(").append(i).append(");\n")
+                .append("        double ratio = Math.abs(").append(i).append(" / 3.0);\n")
+                .append("        Assert.assertNotNull(value.trim());\n")
+                .append("        Assert.assertEquals(value.length(), ").append(String.valueOf(i).length()).append(");\n")
+                .append("        Assert.assertEquals(ratio, ").append(i / 3.0).append(", 0.001, \"ratio\");\n")
+                .append("        Assert.assertTrue(value.startsWith(\"").append(i).append("\"));\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+
+        cu = (J.CompilationUnit) JavaParser.fromJavaVersion().classpath("testng").build()
+            .parse(new InMemoryExecutionContext(Throwable::printStackTrace), sb.toString())
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public Tree migrate() {
+        if (rules == Rules.BUCKETS) {
+            return Dispatcher.of(new AssertToAssertionsStep()).visit(cu, ctx);
+        }
+
+        final List<TreeVisitor<?, ExecutionContext>> visitors = new ArrayList<>();
+        for (Recipe recipe : new AssertToAssertionsRecipes().getRecipeList()) {
+            visitors.add(recipe.getVisitor());
+        }
+        Tree tree = cu;
+        for (TreeVisitor<?, ExecutionContext> visitor : visitors) {
+            tree = visitor.visit(tree, ctx, templates);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,66 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to migrate a class with one <code>@DataProvider</code> per ten <code>@Test(dataProvider = …)</code> consumers,
+ * depending on the number of consumers.
+ * <br>
+ * The providers are indexed once per class (see {@link DataProviders}), so the time per consumer should stay
+ * about the same across the sizes, rather than growing with the size of the class as searching the class for
+ * the provider of each consumer would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataProviderBenchmark {
+
+    @Param({"10", "100", "1000", "3000"})
+    int consumers;
+
+    J.CompilationUnit cu;
+
+    @Setup
+    public void parse() {
+        final StringBuilder sb = new StringBuilder("package org.philzen.oss.benchmark;\n\n")
+            .append("import org.testng.annotations.DataProvider;\n")
+            .append("import org.testng.annotations.Test;\n\n")
+            .append("public class DataProviderTest {\n");
+        for (int i = 0; i < consumers; i++) {
+            if (i % 10 == 0) {
+                sb.append('\n')
+                    .append("    @DataProvider(name = \"provider").append(i / 10).append("\")\n")
+                    .append("    public static Object[][] provide").append(i / 10).append("() {\n")
+                    .append("        return new Object[][] {{").append(i).append("}};\n")
+                    .append("    }\n");
+            }
+            sb.append('\n')
+                .append("    @Test(dataProvider = \"provider").append(i / 10).append("\")\n")
+                .append("    public void test").append(i).append("(int value) {\n")
+                .append("        if (value < 0) {\n")
+                .append("            throw new IllegalStateException(\"boom \" + value);\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+
+        cu = (J.CompilationUnit) JavaParser.fromJavaVersion().classpath("testng").build()
+            .parse(new InMemoryExecutionContext(Throwable::printStackTrace), sb.append("}\n").toString())
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public Tree migrate() {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        return new UpdateTestAnnotationToJunit5().getVisitor().visit(cu, ctx);
+    }
+}
@@ -0,0 +1,58 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per file of a run of {@link EstimateTestAnnotationMigration} compared to a run of the migration it estimates
+ * (both including the scanning phase), on the fixtures of all migration paths.
+ * <br>
+ * The estimate only looks at the annotations of class and method declarations and doesn't change anything, so it
+ * should take a fraction of the time and allocate next to nothing (see <code>gc.alloc.rate.norm</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EstimateBenchmark {
+
+    private static final int FILES = 9;
+
+    List<SourceFile> sources;
+
+    @Setup
+    public void parse() {
+        sources = Collections.unmodifiableList(Fixture.parseAll());
+        if (sources.size() != FILES) {
+            throw new IllegalStateException("Update FILES to match the number of fixtures");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILES)
+    public RecipeRun migrate() {
+        return run(new UpdateTestAnnotationToJunit5());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILES)
+    public RecipeRun estimate() {
+        return run(new EstimateTestAnnotationMigration());
+    }
+
+    private RecipeRun run(Recipe recipe) {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        return recipe.run(new InMemoryLargeSourceSet(sources), ctx);
+    }
+}
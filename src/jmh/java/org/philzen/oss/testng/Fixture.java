@@ -0,0 +1,102 @@
+package org.philzen.oss.testng;
+
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Generated TestNG test classes, one per migration path of {@link UpdateTestAnnotationToJunit5}
+ */
+public enum Fixture {
+
+    METHOD("@Test"),
+    CLASS(null),
+    DESCRIPTION("@Test(description = \"Does stuff\")"),
+    ENABLED("@Test(enabled = false)"),
+    EXPECTED_EXCEPTIONS("@Test(expectedExceptions = IllegalArgumentException.class)"),
+    EXPECTED_EXCEPTIONS_MSG_REG_EXP(
+        "@Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = \"boom.*\")"
+    ),
+    GROUPS("@Test(groups = {\"unit\", \"fast\"})"),
+    TIMEOUT("@Test(timeOut = 500)"),
+    MISFIT("@Test(threadPoolSize = 8)");
+
+    /**
+     * Number of test methods in every generated class, to be used for <code>@OperationsPerInvocation</code>
+     * so that ops/s and gc.alloc.rate.norm are reported per migrated method
+     */
+    public static final int METHODS_PER_CLASS = 20;
+
+    /**
+     * The method-level annotation or <code>null</code>, if <code>@Test</code> is declared on the class
+     */
+    private final String annotation;
+
+    Fixture(String annotation) {
+        this.annotation = annotation;
+    }
+
+    public String source() {
+        return source(METHODS_PER_CLASS);
+    }
+
+    public String source(int methods) {
+        final StringBuilder sb = new StringBuilder("package org.philzen.oss.benchmark;\n\n")
+            .append("import org.testng.annotations.Test;\n\n")
+            .append(annotation == null ? "@Test\n" : "")
+            .append("public class ").append(className()).append(" {\n");
+
+        for (int i = 0; i < methods; i++) {
+            sb.append('\n');
+            if (annotation != null) {
+                sb.append("    ").append(annotation).append('\n');
+            }
+            sb.append("    public void test").append(i).append("() {\n")
+                .append("        String value = \"").append(i).append("\";\n")
+                .append("        throw new IllegalArgumentException(\"boom \" + value);\n")
+                .append("    }\n");
+        }
+
+        return sb.append("}\n").toString();
+    }
+
+    public String className() {
+        final StringBuilder sb = new StringBuilder();
+        for (String part : name().split("_")) {
+            sb.append(part.charAt(0)).append(part.substring(1).toLowerCase());
+        }
+        return sb.append("Test").toString();
+    }
+
+    public J.CompilationUnit parse() {
+        return parse(METHODS_PER_CLASS);
+    }
+
+    public J.CompilationUnit parse(int methods) {
+        return (J.CompilationUnit) parser().build()
+            .parse(new InMemoryExecutionContext(Throwable::printStackTrace), source(methods))
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    /**
+     * Parses the fixtures of all paths in one go, so that they share the same type cache
+     */
+    public static List<J.CompilationUnit> parseAll() {
+        final String[] sources = new String[values().length];
+        for (Fixture fixture : values()) {
+            sources[fixture.ordinal()] = fixture.source();
+        }
+
+        return parser().build()
+            .parse(new InMemoryExecutionContext(Throwable::printStackTrace), sources)
+            .map(J.CompilationUnit.class::cast)
+            .collect(Collectors.toList());
+    }
+
+    private static JavaParser.Builder<?, ?> parser() {
+        return JavaParser.fromJavaVersion().classpath("testng");
+    }
+}
@@ -0,0 +1,115 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.TypeUtils;
+import org.philzen.oss.engine.Dispatcher;
+import org.philzen.oss.engine.MigrationStep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per file of a growing number of migration steps, either fused into a single {@link Dispatcher}
+ * or chained, i.e. each step in its own traversal like the recipes of a composite recipe.
+ * <br>
+ * The first two steps are the <code>@Test</code> migration and {@link AddMissingNestedStep}, any further
+ * ones stand in for future sub-recipes by checking every method invocation and identifier. The fixtures are
+ * migrated once during setup, so that the cost of the traversals is measured rather than that of the rewrites.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FusedMigrationBenchmark {
+
+    public enum Pipeline { CHAINED, FUSED }
+
+    private static final int FILES = 9;
+
+    @Param({"1", "2", "4", "8"})
+    int steps;
+
+    @Param
+    Pipeline pipeline;
+
+    List<J> sources;
+
+    @Setup
+    public void migrateFixtures() {
+        final List<J.CompilationUnit> fixtures = Fixture.parseAll();
+        if (fixtures.size() != FILES) {
+            throw new IllegalStateException("Update FILES to match the number of fixtures");
+        }
+
+        sources = new ArrayList<>(FILES);
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        for (J.CompilationUnit cu : fixtures) {
+            sources.add(Dispatcher.of(new UpdateTestAnnotationToJunit5().step()).visit(cu, ctx));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILES)
+    public List<J> migrate() {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        final List<J> migrated = new ArrayList<>(FILES);
+        if (pipeline == Pipeline.FUSED) {
+            final Dispatcher dispatcher = new Dispatcher(steps());
+            for (J source : sources) {
+                migrated.add(dispatcher.visit(source, ctx));
+            }
+            return migrated;
+        }
+
+        final List<Dispatcher> chain = new ArrayList<>(steps);
+        for (MigrationStep step : steps()) {
+            chain.add(Dispatcher.of(step));
+        }
+        for (J source : sources) {
+            J j = source;
+            for (Dispatcher dispatcher : chain) {
+                j = dispatcher.visit(j, ctx);
+            }
+            migrated.add(j);
+        }
+        return migrated;
+    }
+
+    private List<MigrationStep> steps() {
+        final List<MigrationStep> list = new ArrayList<>(steps);
+        list.add(new UpdateTestAnnotationToJunit5().step());
+        if (steps > 1) {
+            list.add(new AddMissingNestedStep());
+        }
+        for (int i = 2; i < steps; i++) {
+            list.add(probe("org.testng.Assert" + i));
+        }
+        return list;
+    }
+
+    /**
+     * A step that looks for calls into and references to a type, without changing anything
+     */
+    private static MigrationStep probe(String type) {
+        return dispatcher -> {
+            dispatcher.exit(J.MethodInvocation.class, (method, ctx) -> {
+                if (method.getMethodType() != null && TypeUtils.isOfClassType(method.getMethodType().getDeclaringType(), type)) {
+                    dispatcher.getCursor().putMessage(type, true);
+                }
+                return method;
+            });
+            dispatcher.exit(J.Identifier.class, (identifier, ctx) -> {
+                if (TypeUtils.isOfClassType(identifier.getType(), type)) {
+                    dispatcher.getCursor().putMessage(type, true);
+                }
+                return identifier;
+            });
+        };
+    }
+}
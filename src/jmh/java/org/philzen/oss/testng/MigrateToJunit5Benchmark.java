@@ -0,0 +1,46 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.*;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the full <code>org.philzen.oss.testng.MigrateToJunit5</code> composite recipe
+ * over the fixtures of all migration paths, per migrated method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MigrateToJunit5Benchmark {
+
+    private static final int MIGRATED_METHODS = Fixture.METHODS_PER_CLASS * 9;
+
+    Recipe recipe;
+
+    List<SourceFile> sources;
+
+    @Setup
+    public void setup() {
+        if (Fixture.values().length * Fixture.METHODS_PER_CLASS != MIGRATED_METHODS) {
+            throw new IllegalStateException("Update MIGRATED_METHODS to match the number of fixtures");
+        }
+
+        recipe = Environment.builder().scanRuntimeClasspath().build()
+            .activateRecipes("org.philzen.oss.testng.MigrateToJunit5");
+        sources = new ArrayList<>(Fixture.parseAll());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MIGRATED_METHODS)
+    public RecipeRun migrate() {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        return recipe.run(new InMemoryLargeSourceSet(sources), ctx);
+    }
+}
@@ -0,0 +1,78 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to migrate a class with <code>@Test</code> annotations on the class and on one method,
+ * depending on the number of other (non-test) methods in the class.
+ * <br>
+ * Formatting is limited to the declarations the misfits are added to, so the difference between
+ * {@link Annotations#MISFIT} and {@link Annotations#PLAIN} should only grow with the size of the class
+ * by detecting the line break style once per file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MisfitBenchmark {
+
+    public enum Annotations {
+        PLAIN("@Test", "@Test"),
+        MISFIT("@Test(singleThreaded = true)", "@Test(threadPoolSize = 8)");
+
+        final String onClass, onMethod;
+
+        Annotations(String onClass, String onMethod) {
+            this.onClass = onClass;
+            this.onMethod = onMethod;
+        }
+    }
+
+    @Param
+    Annotations annotations;
+
+    @Param({"10", "100", "1000"})
+    int helpers;
+
+    J.CompilationUnit cu;
+
+    @Setup
+    public void parse() {
+        final StringBuilder sb = new StringBuilder("package org.philzen.oss.benchmark;\n\n")
+            .append("import org.testng.annotations.Test;\n\n")
+            .append(annotations.onClass).append('\n')
+            .append("public class MisfitTest {\n\n")
+            .append("    ").append(annotations.onMethod).append('\n')
+            .append("    public void test() {\n")
+            .append("        helper0();\n")
+            .append("    }\n");
+        for (int i = 0; i < helpers; i++) {
+            sb.append('\n')
+                .append("    private void helper").append(i).append("() {\n")
+                .append("        String value = \"").append(i).append("\";\n")
+                .append("        if (value.isEmpty()) {\n")
+                .append("            throw new IllegalStateException(\"boom \" + value);\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+
+        cu = (J.CompilationUnit) JavaParser.fromJavaVersion().classpath("testng").build()
+            .parse(new InMemoryExecutionContext(Throwable::printStackTrace), sb.append("}\n").toString())
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public Tree migrate() {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        return new UpdateTestAnnotationToJunit5().getVisitor().visit(cu, ctx);
+    }
+}
@@ -0,0 +1,89 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Statement;
+import org.philzen.oss.utils.Method;
+import org.philzen.oss.utils.Name;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The shape-based predicates of {@link Method} and {@link Name} against the former checks,
+ * which printed modifiers and annotations with <code>toString()</code> and compared the text.
+ * <br>
+ * Every invocation checks all methods of a {@link Fixture#METHOD} class, reported per method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PredicateBenchmark {
+
+    List<J.MethodDeclaration> methods;
+
+    J.Annotation classAnnotation;
+
+    @Setup
+    public void parse() {
+        methods = new ArrayList<>();
+        for (Statement statement : Fixture.METHOD.parse().getClasses().get(0).getBody().getStatements()) {
+            methods.add((J.MethodDeclaration) statement);
+        }
+        classAnnotation = Fixture.CLASS.parse().getClasses().get(0).getLeadingAnnotations().get(0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixture.METHODS_PER_CLASS)
+    public int isPublic_printed() {
+        int matches = 0;
+        for (J.MethodDeclaration method : methods) {
+            matches += method.getModifiers().stream().anyMatch(mod -> mod.toString().equals("public")) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixture.METHODS_PER_CLASS)
+    public int isPublic() {
+        int matches = 0;
+        for (J.MethodDeclaration method : methods) {
+            matches += Method.isPublic(method) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixture.METHODS_PER_CLASS)
+    public int hasAnnotation_printed() {
+        int matches = 0;
+        for (J.MethodDeclaration method : methods) {
+            matches += method.getLeadingAnnotations().stream().anyMatch(a -> a.toString().equals("@Test")) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixture.METHODS_PER_CLASS)
+    public int hasAnnotation() {
+        int matches = 0;
+        for (J.MethodDeclaration method : methods) {
+            matches += Method.hasAnnotation(method, "Test") ? 1 : 0;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public boolean isQualified_printed() {
+        return classAnnotation.toString().contains(".");
+    }
+
+    @Benchmark
+    public boolean isQualified() {
+        return Name.isQualified(classAnnotation.getAnnotationType());
+    }
+}
@@ -0,0 +1,47 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.ChangeType;
+import org.openrewrite.java.tree.J;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single LST walk of {@link UpdateTestAnnotationToJunit5} against the former setup, which
+ * followed up with a separate {@link ChangeType} traversal over every affected compilation unit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SinglePassBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int methods;
+
+    J.CompilationUnit cu;
+
+    @Setup
+    public void parse() {
+        cu = Fixture.METHOD.parse(methods);
+    }
+
+    @Benchmark
+    public Tree singlePass() {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        return new UpdateTestAnnotationToJunit5().getVisitor().visit(cu, ctx);
+    }
+
+    @Benchmark
+    public Tree withSeparateChangeTypePass() {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        final Tree migrated = new UpdateTestAnnotationToJunit5().getVisitor().visit(cu, ctx);
+        return new ChangeType(UpdateTestAnnotationToJunit5.TESTNG_TYPE, UpdateTestAnnotationToJunit5.JUPITER_TYPE, true)
+            .getVisitor().visit(migrated, ctx);
+    }
+}
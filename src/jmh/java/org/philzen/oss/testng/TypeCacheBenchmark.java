@@ -0,0 +1,90 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.internal.JavaTypeCache;
+import org.philzen.oss.utils.Parser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attribution of the Jupiter annotations by a newly built parser, as the parser pool builds one per concurrent unit of
+ * work. Without a cache, every parser maps the types into a {@link JavaTypeCache} of its own. With the map-based cache,
+ * all parsers share one that earlier parsers have already filled, i.e. the best case of any type cache, as nothing has
+ * to be read from disk. For reference, a reused parser is {@link JavaParser#reset() reset} between parses, as the pool
+ * does, and keeps both its type cache and the symbols javac has read.
+ * <br>
+ * The disk-persisted type cache was dropped as it made the first migrated file in a fresh JVM slower: reading the
+ * cache took longer than the type mapping it saved. A shared in-memory cache would also need to be made thread-safe,
+ * which {@link JavaTypeCache} is not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TypeCacheBenchmark {
+
+    public enum Cache { OFF, MAP, REUSED }
+
+    // language=java
+    private static final String STUB = "import java.util.concurrent.TimeUnit;\n"
+        + "import org.junit.jupiter.api.*;\n"
+        + "import org.junit.jupiter.params.ParameterizedTest;\n"
+        + "import org.junit.jupiter.params.provider.MethodSource;\n"
+        + "class Prototypes {\n"
+        + "    @Test @Disabled @DisplayName(\"\") @Tag(\"\") @Timeout(value = 0, unit = TimeUnit.MILLISECONDS)\n"
+        + "    void simple() {}\n"
+        + "    @Nested\n"
+        + "    class Inner {}\n"
+        + "    @BeforeEach @AfterEach @BeforeAll @AfterAll\n"
+        + "    void lifecycle() {}\n"
+        + "    @TestInstance(TestInstance.Lifecycle.PER_CLASS)\n"
+        + "    class PerClass {}\n"
+        + "    @ParameterizedTest @MethodSource(\"\")\n"
+        + "    void parameterized() {}\n"
+        + "    void throwing() { Assertions.assertThrows(IllegalStateException.class, () -> {}); }\n"
+        + "}";
+
+    @Param
+    Cache cache;
+
+    /**
+     * Shared by all parsers built with the {@link Cache#MAP} cache
+     */
+    JavaTypeCache shared;
+
+    /**
+     * The parser of the {@link Cache#REUSED} variant
+     */
+    JavaParser reused;
+
+    @Setup
+    public void prepare() {
+        shared = new JavaTypeCache();
+        reused = Parser.jupiter().typeCache(cache == Cache.MAP ? shared : new JavaTypeCache()).build();
+        // fills the shared cache, and loads javac and the jars' classes likewise for all variants
+        parse(reused);
+    }
+
+    @Benchmark
+    public SourceFile attribute() {
+        switch (cache) {
+            case MAP:
+                return parse(Parser.jupiter().typeCache(shared).build());
+            case REUSED:
+                reused.reset();
+                return parse(reused);
+            default:
+                return parse(Parser.jupiter().build());
+        }
+    }
+
+    private static SourceFile parse(JavaParser parser) {
+        return parser.parse(new InMemoryExecutionContext(), STUB)
+            .findFirst().orElseThrow(() -> new IllegalStateException("Could not parse Jupiter stub"));
+    }
+}
@@ -0,0 +1,41 @@
+package org.philzen.oss.testng;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.tree.J;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link UpdateTestAnnotationToJunit5#getVisitor()} on an already parsed LST, per migrated method.
+ * <br>
+ * Run with the gc profiler (the default of both the gradle and the maven setup) to get
+ * <code>gc.alloc.rate.norm</code>, i.e. bytes allocated per migrated method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UpdateTestAnnotationToJunit5Benchmark {
+
+    @Param
+    Fixture fixture;
+
+    J.CompilationUnit cu;
+
+    @Setup
+    public void parse() {
+        cu = fixture.parse();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixture.METHODS_PER_CLASS)
+    public Tree migrate() {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        return new UpdateTestAnnotationToJunit5().getVisitor().visit(cu, ctx);
+    }
+}
@@ -0,0 +1,479 @@
+package org.philzen.oss.cli;
+
+import lombok.Value;
+import org.openrewrite.*;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.xml.XmlParser;
+import org.philzen.oss.testng.MigrateSuiteParallelism;
+import org.philzen.oss.utils.Prefilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Standalone command line entry point, running <code>org.philzen.oss.testng.MigrateToJunit5</code> on all modules
+ * below a root directory in parallel.
+ * <br><br>
+ * Every module (a directory containing Maven/Gradle style <code>src/&lt;set&gt;/java</code> source sets) is parsed
+ * and migrated as one unit of work on a {@link ForkJoinPool}, so that test sources see the types of the main sources.
+ * Besides the Java sources, a module's parallel TestNG suites (any XML file with a <code>&lt;suite&gt;</code> root
+ * element, whatever its name) and JUnit platform configuration (<code>junit-platform.properties</code>) are parsed,
+ * for their parallelism to be migrated.
+ * Dependencies are not resolved, they must be on the CLI's own classpath or given with <code>--classpath</code>.
+ * <br><br>
+ * With <code>--stream</code>, files are rather migrated one at a time by the {@link StreamingMigration}, which keeps
+ * the memory bounded regardless of the size of the modules. Only Java sources are migrated then, as a suite would
+ * never be seen together with the platform configuration of its module.
+ */
+public class Migrate {
+
+    public static final String RECIPE = "org.philzen.oss.testng.MigrateToJunit5";
+
+    static final String USAGE = "Usage: Migrate [options] <root directory>\n"
+        + "  --patch <file>        write a unified diff instead of changing files in place\n"
+        + "  --classpath <paths>   additional classpath for type attribution (path separated)\n"
+        + "  --parallelism <n>     number of modules (or with --stream: files per stage) processed at once (default: number of cores)\n"
+        + "  --prefilter           only parse files referencing org.testng and the types they reference\n"
+        + "  --cache <file>        serve modules (or with --stream: files) unchanged since a previous run from this cache\n"
+        + "  --recipe <name>       recipe to run (default: " + RECIPE + ")\n"
+        + "  --stream              parse, migrate and write one file at a time, in bounded memory\n"
+        + "  --heap-limit <n>      percentage of the max heap above which --stream admits no further files (default: "
+        + StreamingMigration.DEFAULT_HEAP_LIMIT + ")\n";
+
+    private static final Set<String> SKIPPED_DIRECTORIES = new HashSet<>(Arrays.asList(
+        ".git", ".gradle", ".idea", "build", "node_modules", "out", "target"
+    ));
+
+    @Value
+    static class Options {
+        Path root;
+        @Nullable Path patch;
+        List<Path> classpath;
+        int parallelism;
+        boolean prefilter;
+        String recipe;
+        @Nullable Path cache;
+        boolean stream;
+        int heapLimit;
+
+        static Options parse(String... args) {
+            Path root = null, patch = null, cache = null;
+            List<Path> classpath = new ArrayList<>();
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            boolean prefilter = false, stream = false;
+            String recipe = RECIPE;
+            int heapLimit = StreamingMigration.DEFAULT_HEAP_LIMIT;
+
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--patch":
+                        patch = Paths.get(value(args, ++i));
+                        break;
+                    case "--classpath":
+                        for (String entry : value(args, ++i).split(File.pathSeparator)) {
+                            classpath.add(Paths.get(entry));
+                        }
+                        break;
+                    case "--parallelism":
+                        parallelism = Integer.parseInt(value(args, ++i));
+                        break;
+                    case "--prefilter":
+                        prefilter = true;
+                        break;
+                    case "--recipe":
+                        recipe = value(args, ++i);
+                        break;
+                    case "--cache":
+                        cache = Paths.get(value(args, ++i));
+                        break;
+                    case "--stream":
+                        stream = true;
+                        break;
+                    case "--heap-limit":
+                        heapLimit = Integer.parseInt(value(args, ++i));
+                        if (heapLimit < 1 || heapLimit > 100) {
+                            throw new IllegalArgumentException("--heap-limit must be a percentage between 1 and 100");
+                        }
+                        break;
+                    default:
+                        if (args[i].startsWith("--") || root != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        root = Paths.get(args[i]);
+                }
+            }
+
+            if (root == null) {
+                throw new IllegalArgumentException("Missing root directory");
+            }
+            return new Options(
+                root.toAbsolutePath().normalize(), patch, classpath, parallelism, prefilter, recipe, cache, stream, heapLimit
+            );
+        }
+
+        private static String value(String[] args, int i) {
+            if (i >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+            }
+            return args[i];
+        }
+    }
+
+    /**
+     * A changed file, either from a recipe {@link Result} or from the {@link ResultCache}
+     */
+    @Value
+    static class Change {
+        /**
+         * Relative to the root directory
+         */
+        Path path;
+        String before;
+        @Nullable String after;
+
+        String diff() {
+            return Result.diff(before, after == null ? "" : after, path);
+        }
+    }
+
+    @Value
+    static class Report {
+        int modules;
+        int files;
+        int cached;
+        int parsed;
+        /**
+         * Paths of the changed files, relative to the root directory
+         */
+        List<Path> changes;
+        List<Throwable> errors;
+        long nanos;
+
+        double seconds() {
+            return nanos / 1e9;
+        }
+
+        String summary() {
+            return String.format(Locale.ROOT,
+                "%d modules, %d files, %d cached, %d parsed, %d changed, %d errors in %.2fs (%.1f files/s)",
+                modules, files, cached, parsed, changes.size(), errors.size(), seconds(), files / Math.max(seconds(), 1e-9)
+            );
+        }
+    }
+
+    public static void main(String[] args) {
+        final Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        final Report report = run(options, System.err);
+        System.out.println(report.summary());
+        System.exit(report.getErrors().isEmpty() ? 0 : 1);
+    }
+
+    static Report run(Options options, PrintStream log) {
+        final long start = System.nanoTime();
+        final Recipe recipe = Environment.builder().scanRuntimeClasspath().build().activateRecipes(options.recipe);
+        final List<Path> classpath = new ArrayList<>(JavaParser.runtimeClasspath());
+        classpath.addAll(options.classpath);
+
+        final Map<Path, List<Path>> modules = modules(options.root);
+        if (options.stream) {
+            final Map<Path, List<Path>> javaSources = new TreeMap<>();
+            modules.forEach((module, sources) -> javaSources.put(module, sources.stream()
+                .filter(Migrate::isJava)
+                .collect(Collectors.toList())
+            ));
+            return new StreamingMigration(recipe, classpath, options).run(javaSources, log, start);
+        }
+        final Collection<Throwable> errors = new ConcurrentLinkedQueue<>();
+        final List<ModuleResult> moduleResults;
+        final ForkJoinPool pool = new ForkJoinPool(options.parallelism);
+        try (ResultCache cache = options.cache == null ? null : ResultCache.open(options.cache, recipeKey(options))) {
+            moduleResults = pool.submit(() -> modules.values().parallelStream()
+                .map(sources -> migrate(recipe, classpath, options, cache, sources, errors))
+                .collect(Collectors.toList())
+            ).get();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        final List<Change> changes = moduleResults.stream()
+            .flatMap(m -> m.changes.stream())
+            .sorted(Comparator.comparing(Change::getPath))
+            .collect(Collectors.toList());
+        write(options, changes);
+        errors.forEach(e -> log.println(e.getMessage()));
+
+        return new Report(
+            modules.size(),
+            modules.values().stream().mapToInt(List::size).sum(),
+            moduleResults.stream().mapToInt(m -> m.cached).sum(),
+            moduleResults.stream().mapToInt(m -> m.parsed).sum(),
+            changes.stream().map(Change::getPath).collect(Collectors.toList()),
+            new ArrayList<>(errors),
+            System.nanoTime() - start
+        );
+    }
+
+    /**
+     * Identifies everything besides the source text that determines the result of a file's migration
+     */
+    static String recipeKey(Options options) {
+        final Package pkg = Migrate.class.getPackage();
+        String version = pkg == null ? null : pkg.getImplementationVersion();
+        if (version == null) {
+            // not running from a released jar, so key by the build time of the recipe classes instead
+            try {
+                final URL recipeClass = Migrate.class.getResource("/org/philzen/oss/testng/UpdateTestAnnotationToJunit5.class");
+                version = "dev-" + (recipeClass == null ? 0 : recipeClass.openConnection().getLastModified());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return String.join("|",
+            options.recipe,
+            version,
+            // files are migrated on their own in stream mode, and in the context of their module otherwise
+            options.stream ? "stream" : "module",
+            String.valueOf(options.prefilter),
+            options.classpath.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator))
+        );
+    }
+
+    @Value
+    private static class ModuleResult {
+        int cached;
+        int parsed;
+        List<Change> changes;
+    }
+
+    private static ModuleResult migrate(
+        Recipe recipe, List<Path> classpath, Options options, @Nullable ResultCache cache,
+        List<Path> sources, Collection<Throwable> errors
+    ) {
+        final List<Change> changes = new ArrayList<>();
+        final Map<Path, byte[]> keys = new HashMap<>();
+        if (cache != null) {
+            // a file's result depends on the types and data providers of the whole module,
+            // so the module is either served from the cache as a whole or migrated as a whole
+            final Map<Path, byte[]> texts = new LinkedHashMap<>();
+            try {
+                for (Path source : sources) {
+                    texts.put(source, Files.readAllBytes(source));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            final byte[] module = ResultCache.digest(options.root, texts);
+            boolean hit = true;
+            for (Map.Entry<Path, byte[]> text : texts.entrySet()) {
+                final Path path = options.root.relativize(text.getKey());
+                final byte[] key = cache.key(module, text.getValue());
+                keys.put(path, key);
+                final ResultCache.Entry entry = hit ? cache.get(key) : null;
+                if (entry == null) {
+                    hit = false;
+                } else if (entry.status != ResultCache.Status.UNCHANGED) {
+                    changes.add(new Change(path, new String(text.getValue(), StandardCharsets.UTF_8), entry.text));
+                }
+            }
+            if (hit) {
+                return new ModuleResult(sources.size(), 0, changes);
+            }
+            changes.clear();
+        }
+
+        final List<Throwable> moduleErrors = new ArrayList<>();
+        final ExecutionContext ctx = new InMemoryExecutionContext(moduleErrors::add);
+        final List<Path> javaSources = new ArrayList<>(sources.size());
+        final List<Path> suites = new ArrayList<>(1), platformProperties = new ArrayList<>(1);
+        for (Path source : sources) {
+            (isJava(source) ? javaSources : source.toString().endsWith(".xml") ? suites : platformProperties).add(source);
+        }
+        final JavaParser parser = JavaParser.fromJavaVersion().classpath(classpath).build();
+        final List<SourceFile> parsed = Stream.of(
+            options.prefilter
+                ? parser.parseInputs(Prefilter.scan(javaSources).inputs(), options.root, ctx)
+                : parser.parse(javaSources, options.root, ctx),
+            XmlParser.builder().build().parse(suites, options.root, ctx),
+            PropertiesParser.builder().build().parse(platformProperties, options.root, ctx)
+        ).flatMap(files -> files).collect(Collectors.toList());
+
+        final List<Result> results = recipe.run(new InMemoryLargeSourceSet(parsed), ctx).getChangeset().getAllResults();
+        // only the results of existing files are recorded, so a module that creates files must always be migrated
+        final boolean cacheable = cache != null && moduleErrors.isEmpty() && results.stream().allMatch(r -> r.getBefore() != null);
+        for (Result result : results) {
+            final SourceFile before = result.getBefore(), after = result.getAfter();
+            final Path path = (before != null ? before : after).getSourcePath();
+            if (before != null && after != null && !after.getSourcePath().equals(path)) {
+                changes.add(new Change(path, before.printAll(), null));
+                changes.add(new Change(after.getSourcePath(), "", after.printAll()));
+            } else {
+                changes.add(new Change(path, before == null ? "" : before.printAll(), after == null ? null : after.printAll()));
+            }
+
+            final byte[] key = keys.remove(path);
+            if (cacheable && key != null && (after == null || after.getSourcePath().equals(path))) {
+                record(cache, key, after == null ? ResultCache.Status.DELETED : ResultCache.Status.CHANGED, after);
+            }
+        }
+        if (cacheable) {
+            // whatever has not been changed (or not even been parsed due to the prefilter) stays as it is
+            keys.values().forEach(key -> record(cache, key, ResultCache.Status.UNCHANGED, null));
+        }
+
+        errors.addAll(moduleErrors);
+        return new ModuleResult(0, parsed.size(), changes);
+    }
+
+    static void record(ResultCache cache, byte[] key, ResultCache.Status status, @Nullable SourceFile after) {
+        try {
+            cache.put(key, status, after == null ? null : after.printAll());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Source files of all modules below the root, keyed by module directory (sorted for a stable output).
+     * If there is no <code>src/&lt;set&gt;/java</code> directory at all, the root is treated as a single source set.
+     * TestNG suites and JUnit platform configurations belong to the innermost module containing them, or to the root.
+     * Suites are recognized by their root element, which is all that is read of any XML file.
+     */
+    static Map<Path, List<Path>> modules(Path root) {
+        final Map<Path, List<Path>> modules = new TreeMap<>();
+        final List<Path> resources = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    final String name = file.getFileName().toString();
+                    if (attrs.isRegularFile()
+                        && (name.equals("junit-platform.properties") || name.endsWith(".xml") && isParallelSuite(file))) {
+                        resources.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root) && SKIPPED_DIRECTORIES.contains(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (isSourceSet(dir)) {
+                        modules.computeIfAbsent(dir.getParent().getParent().getParent(), m -> new ArrayList<>())
+                            .addAll(javaFiles(dir));
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (modules.isEmpty()) {
+            final List<Path> files = javaFiles(root);
+            if (!files.isEmpty()) {
+                modules.put(root, files);
+            }
+        }
+
+        Collections.sort(resources);
+        for (Path resource : resources) {
+            Path module = resource.getParent();
+            while (!module.equals(root) && !modules.containsKey(module)) {
+                module = module.getParent();
+            }
+            modules.computeIfAbsent(module, m -> new ArrayList<>()).add(resource);
+        }
+        return modules;
+    }
+
+    static boolean isJava(Path source) {
+        return source.toString().endsWith(".java");
+    }
+
+    private static boolean isSourceSet(Path dir) {
+        final int count = dir.getNameCount();
+        return count >= 3
+            && dir.getFileName().toString().equals("java")
+            && dir.getName(count - 3).toString().equals("src");
+    }
+
+    private static boolean isParallelSuite(Path file) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return MigrateSuiteParallelism.isParallelSuite(reader);
+        } catch (IOException e) {
+            return false; // unreadable, so it can't be parsed either
+        }
+    }
+
+    private static List<Path> javaFiles(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(f -> f.toString().endsWith(".java") && Files.isRegularFile(f))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(Options options, List<Change> changes) {
+        try {
+            if (options.patch != null) {
+                final StringBuilder patch = new StringBuilder();
+                changes.forEach(change -> patch.append(change.diff()));
+                Files.write(options.patch, patch.toString().getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            for (Change change : changes) {
+                final Path file = options.root.resolve(change.path);
+                if (change.after == null) {
+                    Files.delete(file);
+                } else {
+                    if (file.getParent() != null && !Files.exists(file)) {
+                        Files.createDirectories(file.getParent());
+                    }
+                    Files.write(file, change.after.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.philzen.oss.cli;
+
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persistent, append-only cache of migration results, keyed by the SHA-256 of a recipe key and the source text
+ * (and, if the result depends on the other files of a module, the {@link #digest(Path, Map) digest} of the module).
+ * <br><br>
+ * Records are <code>[32 byte key][1 byte status][4 byte length][length bytes of migrated UTF-8 text]</code>.
+ * The file is memory-mapped on {@link #open(Path, String) open} and indexed once; records appended later are
+ * written through the channel and become visible on the next open. A record that was cut short (e.g. by a
+ * crash) ends the index and is overwritten by the next append. For repeated keys the last record wins.
+ */
+class ResultCache implements Closeable {
+
+    static final byte[] MAGIC = "TNGRC\u0001".getBytes(StandardCharsets.US_ASCII);
+
+    static final int KEY_LENGTH = 32;
+
+    private static final int HEADER_LENGTH = KEY_LENGTH + 1 + 4;
+
+    enum Status {
+        UNCHANGED, CHANGED, DELETED
+    }
+
+    /**
+     * A cached result: <code>text</code> is only set for {@link Status#CHANGED}
+     */
+    static final class Entry {
+        final Status status;
+        @Nullable final String text;
+
+        Entry(Status status, @Nullable String text) {
+            this.status = status;
+            this.text = text;
+        }
+    }
+
+    private final byte[] recipeKey;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer mapped;
+
+    /**
+     * Offset of each record's status byte, by key
+     */
+    private final Map<ByteBuffer, Integer> index = new HashMap<>();
+
+    private long end;
+
+    private ResultCache(byte[] recipeKey, FileChannel channel) throws IOException {
+        this.recipeKey = recipeKey;
+        this.channel = channel;
+        this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        if (mapped.limit() < MAGIC.length) {
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(MAGIC), 0);
+            end = MAGIC.length;
+            return;
+        }
+
+        final byte[] magic = new byte[MAGIC.length];
+        mapped.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a result cache file (or written by an incompatible version)");
+        }
+
+        int position = MAGIC.length;
+        while (position + HEADER_LENGTH <= mapped.limit()) {
+            final int length = mapped.getInt(position + KEY_LENGTH + 1);
+            if (length < 0 || position + HEADER_LENGTH + (long) length > mapped.limit()) {
+                break;
+            }
+
+            final byte[] key = new byte[KEY_LENGTH];
+            for (int i = 0; i < KEY_LENGTH; i++) {
+                key[i] = mapped.get(position + i);
+            }
+            index.put(ByteBuffer.wrap(key), position + KEY_LENGTH);
+            position += HEADER_LENGTH + length;
+        }
+        end = position;
+    }
+
+    /**
+     * Open (or create) the cache file for results of the recipe identified by <code>recipeKey</code>,
+     * which should change whenever the recipe may produce a different result for the same source
+     */
+    static ResultCache open(Path file, String recipeKey) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return new ResultCache(
+            recipeKey.getBytes(StandardCharsets.UTF_8),
+            FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+        );
+    }
+
+    /**
+     * Key of the result of a file whose migration only depends on its own text
+     */
+    byte[] key(byte[] source) {
+        final MessageDigest digest = sha256();
+        digest.update(recipeKey);
+        digest.update((byte) 0);
+        return digest.digest(source);
+    }
+
+    /**
+     * Key of the result of a file whose migration also depends on the other files of its module,
+     * given by their {@link #digest(Path, Map)}
+     */
+    byte[] key(byte[] module, byte[] source) {
+        final MessageDigest digest = sha256();
+        digest.update(recipeKey);
+        digest.update((byte) 1);
+        digest.update(module);
+        return digest.digest(source);
+    }
+
+    /**
+     * Digest of the paths (relative to the root) and texts of all files of a module, in iteration order
+     */
+    static byte[] digest(Path root, Map<Path, byte[]> sources) {
+        final MessageDigest digest = sha256();
+        final ByteBuffer length = ByteBuffer.allocate(4);
+        for (Map.Entry<Path, byte[]> source : sources.entrySet()) {
+            final byte[] path = root.relativize(source.getKey()).toString().getBytes(StandardCharsets.UTF_8);
+            digest.update(length.putInt(0, path.length).array());
+            digest.update(path);
+            digest.update(length.putInt(0, source.getValue().length).array());
+            digest.update(source.getValue());
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nullable
+    Entry get(byte[] key) {
+        final Integer offset = index.get(ByteBuffer.wrap(key));
+        if (offset == null) {
+            return null;
+        }
+
+        final ByteBuffer record = mapped.duplicate();
+        final Status status = Status.values()[record.get(offset)];
+        if (status != Status.CHANGED) {
+            return new Entry(status, null);
+        }
+
+        final byte[] text = new byte[record.getInt(offset + 1)];
+        record.position(offset + 5);
+        record.get(text);
+        return new Entry(status, new String(text, StandardCharsets.UTF_8));
+    }
+
+    synchronized void put(byte[] key, Status status, @Nullable String text) throws IOException {
+        final byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer record = ByteBuffer.allocate(HEADER_LENGTH + bytes.length)
+            .put(key)
+            .put((byte) status.ordinal())
+            .putInt(bytes.length)
+            .put(bytes);
+        record.flip();
+
+        while (record.hasRemaining()) {
+            end += channel.write(record, end);
+        }
+    }
+
+    /**
+     * Number of records that have been indexed on open
+     */
+    int size() {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.size() > end) {
+            // drop the rest of a record that was cut short before this run
+            channel.truncate(end);
+        }
+        channel.close();
+    }
+}
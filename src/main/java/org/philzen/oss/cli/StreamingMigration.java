@@ -0,0 +1,392 @@
+package org.philzen.oss.cli;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaParser;
+import org.philzen.oss.testng.AssertToAssertionsStep;
+import org.philzen.oss.utils.Prefilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Migrates one file at a time, in a pipeline of parse, visit, print and write stages connected by bounded queues,
+ * so that the memory needed depends on the number of workers rather than on the size of the repository.
+ * <br><br>
+ * A single feeder admits the files in order, each taking a permit of the {@link HeapThrottle}, which stops admitting
+ * files while the heap is fuller than <code>--heap-limit</code> (unless nothing is in flight at all). A file's LST is
+ * dropped by the visit stage as soon as the recipe has run, its results once they are printed, and the permit is
+ * returned when the writer is done with the file. The writer restores the order of admission, so that a patch is
+ * the same as in the module-wise mode.
+ * <br><br>
+ * Every file is parsed on its own, so types declared in other files of the repository are only attributed if their
+ * compiled classes are given with <code>--classpath</code>, and recipes that scan the whole repository only see the
+ * file at hand (e.g. a <code>dataProviderClass</code> declared in another file is left for manual review).
+ */
+final class StreamingMigration {
+
+    static final int DEFAULT_HEAP_LIMIT = 70;
+
+    /**
+     * Files in flight (i.e. admitted but not yet written) per worker, at most
+     */
+    private static final int IN_FLIGHT_PER_WORKER = 4;
+
+    private final Recipe recipe;
+
+    private final List<Path> classpath;
+
+    private final Migrate.Options options;
+
+    private final Collection<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger cached = new AtomicInteger();
+
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private final HeapThrottle throttle;
+
+    StreamingMigration(Recipe recipe, List<Path> classpath, Migrate.Options options) {
+        this.recipe = recipe;
+        this.classpath = classpath;
+        this.options = options;
+        this.throttle = new HeapThrottle(
+            ManagementFactory.getMemoryMXBean(), options.getHeapLimit(), IN_FLIGHT_PER_WORKER * options.getParallelism()
+        );
+    }
+
+    /**
+     * A file on its way through the pipeline, holding on to no more than the current stage needs
+     */
+    private static final class Item {
+
+        static final Item END = new Item(-1, null);
+
+        final long sequence;
+
+        final Path path;
+
+        final List<Throwable> errors = new ArrayList<>(0);
+
+        /**
+         * The key of the file's entry in the {@link ResultCache}, if a result is to be recorded
+         */
+        @Nullable
+        byte[] key;
+
+        @Nullable
+        SourceFile source;
+
+        @Nullable
+        List<Result> results;
+
+        List<Migrate.Change> changes = Collections.emptyList();
+
+        Item(long sequence, Path path) {
+            this.sequence = sequence;
+            this.path = path;
+        }
+    }
+
+    Migrate.Report run(Map<Path, List<Path>> modules, PrintStream log, long start) {
+        final int workers = options.getParallelism();
+        final BlockingQueue<Item> admitted = new ArrayBlockingQueue<>(workers);
+        final BlockingQueue<Item> parsedItems = new ArrayBlockingQueue<>(workers);
+        final BlockingQueue<Item> visited = new ArrayBlockingQueue<>(workers);
+        final BlockingQueue<Item> printed = new ArrayBlockingQueue<>(workers);
+        final List<Path> changed = new ArrayList<>();
+
+        try (ResultCache cache = options.getCache() == null ? null : ResultCache.open(options.getCache(), Migrate.recipeKey(options));
+             Writer patch = options.getPatch() == null ? null : Files.newBufferedWriter(options.getPatch(), StandardCharsets.UTF_8)) {
+            start("feed", 1, () -> feed(modules.values(), admitted));
+            stage("parse", workers, admitted, parsedItems, () -> parser(cache));
+            stage("visit", workers, parsedItems, visited, this::visitor);
+            stage("print", workers, visited, printed, () -> StreamingMigration::print);
+
+            // the writer takes the files in any order and writes them in the order of admission
+            final Map<Long, Item> pending = new HashMap<>();
+            long next = 0;
+            for (Item item = printed.take(); item != Item.END; item = printed.take()) {
+                pending.put(item.sequence, item);
+                for (Item ready = pending.remove(next); ready != null; ready = pending.remove(++next)) {
+                    write(ready, cache, patch, changed);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+
+        errors.forEach(e -> log.println(e.getMessage()));
+        if (throttle.getThrottled() > 0) {
+            log.println("Heap above " + options.getHeapLimit() + "%, admission of files was throttled "
+                + throttle.getThrottled() + " times");
+        }
+
+        Collections.sort(changed);
+        return new Migrate.Report(
+            modules.size(),
+            modules.values().stream().mapToInt(List::size).sum(),
+            cached.get(),
+            parsed.get(),
+            changed,
+            new ArrayList<>(errors),
+            System.nanoTime() - start
+        );
+    }
+
+    private void feed(Collection<List<Path>> modules, BlockingQueue<Item> admitted) throws InterruptedException {
+        long sequence = 0;
+        for (List<Path> sources : modules) {
+            for (Path source : sources) {
+                // taken in order of admission, so that the files in flight are always the next ones to be written
+                throttle.acquire();
+                admitted.put(new Item(sequence++, source));
+            }
+        }
+        admitted.put(Item.END);
+    }
+
+    /**
+     * Parse stage of a worker, which serves the file from the cache (or skips it due to the prefilter) if possible
+     */
+    private UnaryOperator<Item> parser(@Nullable ResultCache cache) {
+        final JavaParser parser = JavaParser.fromJavaVersion().classpath(classpath).build();
+        return item -> {
+            final byte[] text;
+            try {
+                text = Files.readAllBytes(item.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            if (cache != null) {
+                final byte[] key = cache.key(text);
+                final ResultCache.Entry entry = cache.get(key);
+                if (entry != null) {
+                    cached.incrementAndGet();
+                    if (entry.status != ResultCache.Status.UNCHANGED) {
+                        item.changes = Collections.singletonList(new Migrate.Change(
+                            options.getRoot().relativize(item.path), new String(text, StandardCharsets.UTF_8), entry.text
+                        ));
+                    }
+                    return item;
+                }
+                item.key = key;
+            }
+            if (options.isPrefilter() && !Prefilter.contains(ByteBuffer.wrap(text), Prefilter.TESTNG)) {
+                return item;
+            }
+
+            parsed.incrementAndGet();
+            final ExecutionContext ctx = new InMemoryExecutionContext(item.errors::add);
+            item.source = parser.parseInputs(
+                Collections.singletonList(new Parser.Input(item.path, () -> new ByteArrayInputStream(text))),
+                options.getRoot(),
+                ctx
+            ).findFirst().orElse(null);
+            // so that the compiler doesn't retain anything of the file
+            parser.reset();
+            return item;
+        };
+    }
+
+    /**
+     * Visit stage of a worker, which runs the recipe on one file at a time, each in an execution context of its own.
+     * Only the templates that the assertion rules compile are passed on from one file to the next.
+     */
+    private UnaryOperator<Item> visitor() {
+        final Object[] templates = new Object[1];
+        return item -> {
+            final SourceFile source = item.source;
+            if (source != null) {
+                item.source = null;
+                final ExecutionContext ctx = new InMemoryExecutionContext(item.errors::add);
+                if (templates[0] != null) {
+                    ctx.putMessage(AssertToAssertionsStep.TEMPLATES, templates[0]);
+                }
+                item.results = recipe.run(new InMemoryLargeSourceSet(Collections.singletonList(source)), ctx)
+                    .getChangeset().getAllResults();
+                templates[0] = ctx.getMessage(AssertToAssertionsStep.TEMPLATES);
+            }
+            return item;
+        };
+    }
+
+    private static Item print(Item item) {
+        final List<Result> results = item.results;
+        if (results == null || results.isEmpty()) {
+            return item;
+        }
+
+        item.results = null;
+        item.changes = new ArrayList<>(results.size());
+        for (Result result : results) {
+            final SourceFile before = result.getBefore(), after = result.getAfter();
+            final Path path = (before != null ? before : after).getSourcePath();
+            if (before != null && after != null && !after.getSourcePath().equals(path)) {
+                item.changes.add(new Migrate.Change(path, before.printAll(), null));
+                item.changes.add(new Migrate.Change(after.getSourcePath(), "", after.printAll()));
+            } else {
+                item.changes.add(new Migrate.Change(path, before == null ? "" : before.printAll(), after == null ? null : after.printAll()));
+            }
+        }
+        return item;
+    }
+
+    private void write(Item item, @Nullable ResultCache cache, @Nullable Writer patch, List<Path> changed) throws IOException {
+        try {
+            final Path path = options.getRoot().relativize(item.path);
+            ResultCache.Status status = ResultCache.Status.UNCHANGED;
+            String after = null;
+            for (Migrate.Change change : item.changes) {
+                changed.add(change.getPath());
+                if (patch != null) {
+                    patch.write(change.diff());
+                } else if (change.getAfter() == null) {
+                    Files.delete(options.getRoot().resolve(change.getPath()));
+                } else {
+                    Files.write(options.getRoot().resolve(change.getPath()), change.getAfter().getBytes(StandardCharsets.UTF_8));
+                }
+
+                if (status != null && change.getPath().equals(path)) {
+                    status = change.getAfter() == null ? ResultCache.Status.DELETED : ResultCache.Status.CHANGED;
+                    after = change.getAfter();
+                } else {
+                    status = null; // moved, or created another file
+                }
+            }
+
+            errors.addAll(item.errors);
+            if (cache != null && item.key != null && status != null && item.errors.isEmpty()) {
+                cache.put(item.key, status, after);
+            }
+        } finally {
+            throttle.release();
+        }
+    }
+
+    /**
+     * Starts the workers of a stage, passing on each item after it has been worked on (or failed). The end of the
+     * input is passed on after the last worker of the stage is done.
+     */
+    private void stage(
+        String name, int threads, BlockingQueue<Item> in, BlockingQueue<Item> out, Supplier<UnaryOperator<Item>> worker
+    ) {
+        final AtomicInteger running = new AtomicInteger(threads);
+        start(name, threads, () -> {
+            final UnaryOperator<Item> work = worker.get();
+            for (Item item = in.take(); item != Item.END; item = in.take()) {
+                try {
+                    work.apply(item);
+                } catch (Throwable t) {
+                    item.source = null;
+                    item.results = null;
+                    item.errors.add(t);
+                }
+                out.put(item);
+            }
+
+            in.put(Item.END); // for the other workers of the stage
+            if (running.decrementAndGet() == 0) {
+                out.put(Item.END);
+            }
+        });
+    }
+
+    private interface Work {
+        void run() throws InterruptedException;
+    }
+
+    private static void start(String name, int threads, Work work) {
+        for (int i = 0; i < threads; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    work.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "migrate-" + name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Admits files into the pipeline as long as the used heap, as reported by the {@link MemoryMXBean}, is below
+     * the limit and no more than the maximum number of files is in flight. A file is always admitted if none is in
+     * flight, so that the migration makes progress even if the heap is filled by something else.
+     */
+    static final class HeapThrottle {
+
+        /**
+         * Interval to check the heap again at while it's above the limit, as no one notifies about garbage collections
+         */
+        private static final long POLL_MILLIS = 10;
+
+        private final MemoryMXBean memory;
+
+        private final long limit;
+
+        private final int maxInFlight;
+
+        private int inFlight;
+
+        private int throttled;
+
+        HeapThrottle(MemoryMXBean memory, int percent, int maxInFlight) {
+            final long max = memory.getHeapMemoryUsage().getMax();
+            this.memory = memory;
+            this.limit = (max > 0 ? max : Runtime.getRuntime().maxMemory()) / 100 * percent;
+            this.maxInFlight = maxInFlight;
+        }
+
+        synchronized void acquire() throws InterruptedException {
+            boolean counted = false;
+            while (inFlight >= maxInFlight || inFlight > 0 && memory.getHeapMemoryUsage().getUsed() > limit) {
+                if (!counted && inFlight < maxInFlight) {
+                    throttled++;
+                    counted = true;
+                }
+                wait(POLL_MILLIS);
+            }
+            inFlight++;
+        }
+
+        synchronized void release() {
+            inFlight--;
+            notifyAll();
+        }
+
+        /**
+         * Number of files whose admission has been delayed because the heap was above the limit
+         */
+        synchronized int getThrottled() {
+            return throttled;
+        }
+    }
+}
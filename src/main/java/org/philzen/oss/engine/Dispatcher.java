@@ -0,0 +1,130 @@
+package org.philzen.oss.engine;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.*;
+
+/**
+ * Runs the handlers of any number of {@link MigrationStep}s in a single traversal of each compilation unit,
+ * instead of one traversal per recipe.
+ * <br><br>
+ * Handlers are registered per node kind, i.e. the exact LST class such as {@link J.ClassDeclaration}, and run either
+ * on {@link #enter entering} a node (before its children are visited) or on {@link #exit exiting} it. Handlers of the
+ * same kind run in the order the steps were given, each one getting the result of the previous one. A handler must
+ * return a node of the same kind. An enter handler may call {@link #stopAfterPreVisit()}, which keeps all steps
+ * out of the children of that node and skips its exit handlers.
+ * <br><br>
+ * The traversal of a compilation unit is skipped entirely if no step {@link MigrationStep#isApplicable applies} to it.
+ */
+@NonNullApi
+public class Dispatcher extends JavaVisitor<ExecutionContext> {
+
+    @FunctionalInterface
+    public interface Handler<T extends J> {
+        T handle(T tree, ExecutionContext ctx);
+    }
+
+    private static final class Registration {
+        final int step;
+        final Handler<J> handler;
+
+        Registration(int step, Handler<J> handler) {
+            this.step = step;
+            this.handler = handler;
+        }
+    }
+
+    private static final Registration[] NONE = new Registration[0];
+
+    private final List<MigrationStep> steps;
+
+    /**
+     * Whether the step at the same index applies to the visited compilation unit
+     */
+    private final boolean[] active;
+
+    private final Map<Class<?>, Registration[]> enter = new HashMap<>();
+
+    private final Map<Class<?>, Registration[]> exit = new HashMap<>();
+
+    private int registering;
+
+    public Dispatcher(List<? extends MigrationStep> steps) {
+        this.steps = new ArrayList<>(steps);
+        this.active = new boolean[steps.size()];
+        for (registering = 0; registering < steps.size(); registering++) {
+            steps.get(registering).register(this);
+        }
+    }
+
+    public static Dispatcher of(MigrationStep... steps) {
+        return new Dispatcher(Arrays.asList(steps));
+    }
+
+    /**
+     * Run the handler for every node of the given kind, before its children are visited
+     */
+    public <T extends J> void enter(Class<T> kind, Handler<T> handler) {
+        add(enter, kind, handler);
+    }
+
+    /**
+     * Run the handler for every node of the given kind, after its children have been visited
+     */
+    public <T extends J> void exit(Class<T> kind, Handler<T> handler) {
+        add(exit, kind, handler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(Map<Class<?>, Registration[]> handlers, Class<?> kind, Handler<?> handler) {
+        if (registering >= steps.size()) {
+            throw new IllegalStateException("Handlers can only be registered by the steps of this dispatcher");
+        }
+
+        final Registration[] registered = handlers.getOrDefault(kind, NONE);
+        final Registration[] extended = Arrays.copyOf(registered, registered.length + 1);
+        extended[registered.length] = new Registration(registering, (Handler<J>) handler);
+        handlers.put(kind, extended);
+    }
+
+    @Override
+    public J preVisit(J tree, ExecutionContext ctx) {
+        if (tree instanceof J.CompilationUnit && !activate((J.CompilationUnit) tree, ctx)) {
+            stopAfterPreVisit();
+            return tree;
+        }
+        return dispatch(enter, tree, ctx);
+    }
+
+    @Override
+    public J postVisit(J tree, ExecutionContext ctx) {
+        return dispatch(exit, tree, ctx);
+    }
+
+    private boolean activate(J.CompilationUnit cu, ExecutionContext ctx) {
+        boolean any = false;
+        for (int i = 0; i < active.length; i++) {
+            active[i] = steps.get(i).isApplicable(cu, ctx);
+            any |= active[i];
+        }
+        return any;
+    }
+
+    private J dispatch(Map<Class<?>, Registration[]> handlers, J tree, ExecutionContext ctx) {
+        final Registration[] registrations = handlers.get(tree.getClass());
+        if (registrations == null) {
+            return tree;
+        }
+
+        J j = tree;
+        for (Registration registration : registrations) {
+            if (active[registration.step]) {
+                j = registration.handler.handle(j, ctx);
+            }
+        }
+        return j;
+    }
+}
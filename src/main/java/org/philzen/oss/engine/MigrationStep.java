@@ -0,0 +1,27 @@
+package org.philzen.oss.engine;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.java.tree.J;
+
+/**
+ * One part of a migration that is run by a {@link Dispatcher}, together with any other steps, in a single traversal.
+ * <br><br>
+ * A step instance is registered with exactly one dispatcher, so it may keep the state of the visited
+ * compilation unit in fields (resetting it in a {@link J.CompilationUnit} enter handler).
+ */
+@NonNullApi
+public interface MigrationStep {
+
+    /**
+     * Register the handlers of this step, see {@link Dispatcher#enter} and {@link Dispatcher#exit}
+     */
+    void register(Dispatcher dispatcher);
+
+    /**
+     * Whether the handlers of this step are to be run on the compilation unit at all, decided once before visiting it
+     */
+    default boolean isApplicable(J.CompilationUnit cu, ExecutionContext ctx) {
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package org.philzen.oss.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.lang.NonNullApi;
+
+/**
+ * The TestNG <code>@Test</code> annotations of a source file and how their attributes would be migrated, for sizing
+ * a migration before running it.
+ */
+@NonNullApi
+public class MigrationEstimate extends DataTable<MigrationEstimate.Row> {
+
+    public MigrationEstimate(Recipe recipe) {
+        super(recipe, "Migration estimate", "TestNG `@Test` annotations and their attributes per source file.");
+    }
+
+    @Value
+    public static class Row {
+
+        @Column(displayName = "Source path", description = "The path of the source file.")
+        String sourcePath;
+
+        @Column(displayName = "Class-level @Test", description = "Number of classes annotated with `@Test`.")
+        long classAnnotations;
+
+        @Column(displayName = "Method-level @Test", description = "Number of methods annotated with `@Test`.")
+        long methodAnnotations;
+
+        @Column(displayName = "description", description = "Number of `description` attributes to be migrated.")
+        long description;
+
+        @Column(displayName = "enabled", description = "Number of `enabled` attributes to be migrated.")
+        long enabled;
+
+        @Column(displayName = "expectedExceptions", description = "Number of `expectedExceptions` attributes to be migrated.")
+        long expectedExceptions;
+
+        @Column(displayName = "expectedExceptionsMessageRegExp", description = "Number of `expectedExceptionsMessageRegExp` attributes to be migrated.")
+        long expectedExceptionsMessageRegExp;
+
+        @Column(displayName = "groups", description = "Number of `groups` attributes to be migrated.")
+        long groups;
+
+        @Column(displayName = "timeOut", description = "Number of `timeOut` attributes to be migrated.")
+        long timeOut;
+
+        @Column(displayName = "dataProvider", description = "Number of `dataProvider` attributes to be migrated.")
+        long dataProvider;
+
+        @Column(displayName = "dataProviderClass", description = "Number of `dataProviderClass` attributes to be migrated.")
+        long dataProviderClass;
+
+        @Column(displayName = "Misfit attributes", description = "Number of attributes that would be retained for manual review.")
+        long misfitAttributes;
+
+        @Column(displayName = "Misfits", description = "Number of `@Test` annotations that would be retained for manual review.")
+        long misfits;
+    }
+}
@@ -0,0 +1,104 @@
+package org.philzen.oss.table;
+
+import lombok.Value;
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.lang.NonNullApi;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-file wall time and counters of a migration, for finding the files that make a recipe slow.
+ * <br><br>
+ * Rows are only inserted when profiling has been enabled by the <code>profile</code> option of the recipe.
+ */
+@NonNullApi
+public class MigrationProfile extends DataTable<MigrationProfile.Row> {
+
+    public MigrationProfile(Recipe recipe) {
+        super(recipe, "Migration profile", "Wall time and work done per migrated source file.");
+    }
+
+    public enum Counter {
+        METHODS, DISPLAY_NAME, DISABLED, TAG, TIMEOUT, ASSERT_THROWS, MISFITS
+    }
+
+    /**
+     * Collects the counters of one source file.
+     * <br>
+     * Backed by {@link LongAdder}s, so that it stays cheap even when it's shared by visitors on multiple threads.
+     */
+    public static class Recorder {
+
+        private final long start = System.nanoTime();
+
+        private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+        public Recorder() {
+            for (Counter counter : Counter.values()) {
+                counters.put(counter, new LongAdder());
+            }
+        }
+
+        public void increment(Counter counter) {
+            counters.get(counter).increment();
+        }
+
+        public long get(Counter counter) {
+            return counters.get(counter).sum();
+        }
+
+        public void insertRow(MigrationProfile table, ExecutionContext ctx, String sourcePath, boolean typesChanged) {
+            table.insertRow(ctx, new Row(
+                sourcePath,
+                (System.nanoTime() - start) / 1000,
+                get(Counter.METHODS),
+                get(Counter.DISPLAY_NAME),
+                get(Counter.DISABLED),
+                get(Counter.TAG),
+                get(Counter.TIMEOUT),
+                get(Counter.ASSERT_THROWS),
+                get(Counter.MISFITS),
+                typesChanged
+            ));
+        }
+    }
+
+    @Value
+    public static class Row {
+
+        @Column(displayName = "Source path", description = "The path of the migrated source file.")
+        String sourcePath;
+
+        @Column(displayName = "Wall time (µs)", description = "Time spent migrating the file, in microseconds.")
+        long wallTimeMicros;
+
+        @Column(displayName = "Methods", description = "Number of method declarations visited.")
+        long methods;
+
+        @Column(displayName = "@DisplayName", description = "Number of `@DisplayName` annotations added.")
+        long displayNames;
+
+        @Column(displayName = "@Disabled", description = "Number of `@Disabled` annotations added.")
+        long disabled;
+
+        @Column(displayName = "@Tag", description = "Number of `@Tag` annotations added.")
+        long tags;
+
+        @Column(displayName = "@Timeout", description = "Number of `@Timeout` annotations added.")
+        long timeouts;
+
+        @Column(displayName = "assertThrows", description = "Number of method bodies wrapped in `assertThrows`.")
+        long assertThrows;
+
+        @Column(displayName = "Misfits", description = "Number of `@Test` annotations retained for manual review.")
+        long misfits;
+
+        @Column(displayName = "Types changed", description = "Whether TestNG `@Test` type references were changed to JUnit 5.")
+        boolean typesChanged;
+    }
+}
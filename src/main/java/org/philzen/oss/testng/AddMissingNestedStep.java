@@ -0,0 +1,151 @@
+package org.philzen.oss.testng;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.style.GeneralFormatStyle;
+import org.philzen.oss.engine.Dispatcher;
+import org.philzen.oss.engine.MigrationStep;
+import org.philzen.oss.utils.Annotation;
+import org.philzen.oss.utils.Format;
+import org.philzen.oss.utils.Sort;
+import org.philzen.oss.utils.Usage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Adds <code>@Nested</code> to inner classes that contain JUnit 5 tests and drops their <code>static</code> modifier,
+ * the same as <code>org.openrewrite.java.testing.junit5.AddMissingNested</code> does.
+ * <br><br>
+ * Instead of searching every inner class for test annotations, a test method is noted on the cursor of its class
+ * when it is exited, and a class passes the note on to the enclosing class when it is exited itself. Handlers of
+ * steps registered before this one have thus already run on all methods of a class when it is checked.
+ */
+@NonNullApi
+public class AddMissingNestedStep implements MigrationStep {
+
+    static final String NESTED = "org.junit.jupiter.api.Nested";
+
+    static final Set<String> TEST_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "org.junit.jupiter.api.Test",
+        "org.junit.jupiter.api.TestTemplate",
+        "org.junit.jupiter.api.RepeatedTest",
+        "org.junit.jupiter.api.TestFactory",
+        "org.junit.jupiter.params.ParameterizedTest"
+    )));
+
+    private static final String HAS_TESTS = "HAS_TESTS";
+
+    @SuppressWarnings("NotNullFieldNotInitialized") // set on registration
+    private Dispatcher dispatcher;
+
+    /**
+     * Line break style of the visited compilation unit, detected when the first annotation is added
+     */
+    @Nullable
+    private GeneralFormatStyle lineBreaks;
+
+    @Override
+    public void register(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        dispatcher.enter(J.CompilationUnit.class, (cu, ctx) -> {
+            lineBreaks = null;
+            return cu;
+        });
+        dispatcher.exit(J.MethodDeclaration.class, this::exitMethodDeclaration);
+        dispatcher.exit(J.ClassDeclaration.class, this::exitClassDeclaration);
+    }
+
+    /**
+     * Compilation units with JUnit 5 tests, or TestNG tests that a step registered before this one may migrate
+     */
+    @Override
+    public boolean isApplicable(J.CompilationUnit cu, ExecutionContext ctx) {
+        if (Usage.summarize(cu, ctx).uses(UpdateTestAnnotationToJunit5.TESTNG_TYPE)) {
+            return true;
+        }
+
+        for (JavaType type : cu.getTypesInUse().getTypesInUse()) {
+            final JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+            if (fullyQualified != null && TEST_ANNOTATIONS.contains(fullyQualified.getFullyQualifiedName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private J.MethodDeclaration exitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+        for (J.Annotation annotation : method.getLeadingAnnotations()) {
+            final JavaType.FullyQualified type = TypeUtils.asFullyQualified(annotation.getType());
+            if (type != null && TEST_ANNOTATIONS.contains(type.getFullyQualifiedName())) {
+                final Cursor enclosingClass = enclosingClass(dispatcher.getCursor());
+                if (enclosingClass != null) {
+                    enclosingClass.putMessage(HAS_TESTS, true);
+                }
+                break;
+            }
+        }
+        return method;
+    }
+
+    private J.ClassDeclaration exitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+        final Cursor cursor = dispatcher.getCursor();
+        if (cursor.getMessage(HAS_TESTS) == null) {
+            return classDecl;
+        }
+
+        final Cursor enclosingClass = enclosingClass(cursor);
+        if (enclosingClass != null) {
+            enclosingClass.putMessage(HAS_TESTS, true);
+        }
+
+        final Cursor parent = cursor.getParentTreeCursor();
+        if (!(parent.getValue() instanceof J.Block) || !(parent.getParentTreeCursor().getValue() instanceof J.ClassDeclaration)
+            || classDecl.getKind() != J.ClassDeclaration.Kind.Type.Class || isNested(classDecl)) {
+            return classDecl;
+        }
+
+        dispatcher.maybeAddImport(NESTED);
+        if (lineBreaks == null) {
+            lineBreaks = Format.lineBreaks(cursor.firstEnclosingOrThrow(J.CompilationUnit.class));
+        }
+
+        // only the declaration up to the name is formatted, the members are detached meanwhile
+        final J.Block body = classDecl.getBody();
+        return Format.autoFormat(
+            classDecl.withLeadingAnnotations(ListUtils.insertInOrder(classDecl.getLeadingAnnotations(), Annotation.nested(), Sort.ABOVE))
+                .withModifiers(ListUtils.map(classDecl.getModifiers(), m -> m.getType() == J.Modifier.Type.Static ? null : m))
+                .withBody(body.withStatements(Collections.emptyList())),
+            classDecl.getName(),
+            lineBreaks,
+            cursor.getParentOrThrow()
+        ).withBody(body);
+    }
+
+    private static boolean isNested(J.ClassDeclaration classDecl) {
+        for (J.Annotation annotation : classDecl.getLeadingAnnotations()) {
+            if (TypeUtils.isOfClassType(annotation.getType(), NESTED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Cursor enclosingClass(Cursor cursor) {
+        for (Cursor c = cursor.getParent(); c != null; c = c.getParent()) {
+            if (c.getValue() instanceof J.ClassDeclaration) {
+                return c;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,737 @@
+package org.philzen.oss.testng;
+
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import org.junit.jupiter.api.Assertions;
+import org.openrewrite.java.template.Matcher;
+import org.openrewrite.java.template.NotMatches;
+import org.openrewrite.java.template.RecipeDescriptor;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.testng.Assert;
+
+import java.util.Set;
+
+/**
+ * Refaster templates for the <code>org.testng.Assert</code> methods that have a JUnit 5 equivalent. The
+ * <code>rewrite-templating</code> annotation processor compiles every nested template into a recipe of
+ * <code>AssertToAssertionsRecipes</code>, which {@link AssertToAssertionsStep} dispatches to by method name.
+ * <br><br>
+ * TestNG takes the <code>actual</code> value first and JUnit 5 the <code>expected</code> one, so all comparing
+ * assertions swap their first two arguments. The <code>Object</code> templates also match arrays, sets, iterables
+ * and numbers, and the <code>double</code> ones also match <code>float</code> values, so the more specific templates
+ * have to be tried first. Each primitive type has a template of its own, so that the migrated call is attributed to
+ * the matching <code>Assertions</code> overload.
+ */
+@RecipeDescriptor(
+    name = "Migrate TestNG assertions to JUnit 5",
+    description = "Replaces `org.testng.Assert` calls with their `org.junit.jupiter.api.Assertions` equivalent, "
+        + "swapping the order of the actual and expected arguments."
+)
+public class AssertToAssertions {
+
+    /**
+     * Arguments that TestNG compares element by element, where <code>equals()</code> may give a different result:
+     * arrays, iterators and iterables that are neither lists nor sets
+     */
+    public static class IsComparedByElements implements Matcher<Expression> {
+        @Override
+        public boolean matches(Expression expression) {
+            final JavaType type = expression.getType();
+            return type instanceof JavaType.Array
+                || TypeUtils.isAssignableTo("java.util.Iterator", type)
+                || TypeUtils.isAssignableTo("java.lang.Iterable", type)
+                    && !TypeUtils.isAssignableTo("java.util.List", type) && !TypeUtils.isAssignableTo("java.util.Set", type);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertTrue`", description = "Replace `Assert.assertTrue(condition)`.")
+    public static class AssertTrue {
+        @BeforeTemplate
+        void before(boolean condition) {
+            Assert.assertTrue(condition);
+        }
+
+        @AfterTemplate
+        void after(boolean condition) {
+            Assertions.assertTrue(condition);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertTrue` with message", description = "Replace `Assert.assertTrue(condition, message)`.")
+    public static class AssertTrueWithMessage {
+        @BeforeTemplate
+        void before(boolean condition, String message) {
+            Assert.assertTrue(condition, message);
+        }
+
+        @AfterTemplate
+        void after(boolean condition, String message) {
+            Assertions.assertTrue(condition, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertFalse`", description = "Replace `Assert.assertFalse(condition)`.")
+    public static class AssertFalse {
+        @BeforeTemplate
+        void before(boolean condition) {
+            Assert.assertFalse(condition);
+        }
+
+        @AfterTemplate
+        void after(boolean condition) {
+            Assertions.assertFalse(condition);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertFalse` with message", description = "Replace `Assert.assertFalse(condition, message)`.")
+    public static class AssertFalseWithMessage {
+        @BeforeTemplate
+        void before(boolean condition, String message) {
+            Assert.assertFalse(condition, message);
+        }
+
+        @AfterTemplate
+        void after(boolean condition, String message) {
+            Assertions.assertFalse(condition, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNull`", description = "Replace `Assert.assertNull(actual)`.")
+    public static class AssertNull {
+        @BeforeTemplate
+        void before(Object actual) {
+            Assert.assertNull(actual);
+        }
+
+        @AfterTemplate
+        void after(Object actual) {
+            Assertions.assertNull(actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNull` with message", description = "Replace `Assert.assertNull(actual, message)`.")
+    public static class AssertNullWithMessage {
+        @BeforeTemplate
+        void before(Object actual, String message) {
+            Assert.assertNull(actual, message);
+        }
+
+        @AfterTemplate
+        void after(Object actual, String message) {
+            Assertions.assertNull(actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotNull`", description = "Replace `Assert.assertNotNull(actual)`.")
+    public static class AssertNotNull {
+        @BeforeTemplate
+        void before(Object actual) {
+            Assert.assertNotNull(actual);
+        }
+
+        @AfterTemplate
+        void after(Object actual) {
+            Assertions.assertNotNull(actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotNull` with message", description = "Replace `Assert.assertNotNull(actual, message)`.")
+    public static class AssertNotNullWithMessage {
+        @BeforeTemplate
+        void before(Object actual, String message) {
+            Assert.assertNotNull(actual, message);
+        }
+
+        @AfterTemplate
+        void after(Object actual, String message) {
+            Assertions.assertNotNull(actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertSame`", description = "Replace `Assert.assertSame(actual, expected)`.")
+    public static class AssertSame {
+        @BeforeTemplate
+        void before(Object actual, Object expected) {
+            Assert.assertSame(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected) {
+            Assertions.assertSame(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertSame` with message", description = "Replace `Assert.assertSame(actual, expected, message)`.")
+    public static class AssertSameWithMessage {
+        @BeforeTemplate
+        void before(Object actual, Object expected, String message) {
+            Assert.assertSame(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected, String message) {
+            Assertions.assertSame(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotSame`", description = "Replace `Assert.assertNotSame(actual, expected)`.")
+    public static class AssertNotSame {
+        @BeforeTemplate
+        void before(Object actual, Object expected) {
+            Assert.assertNotSame(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected) {
+            Assertions.assertNotSame(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotSame` with message", description = "Replace `Assert.assertNotSame(actual, expected, message)`.")
+    public static class AssertNotSameWithMessage {
+        @BeforeTemplate
+        void before(Object actual, Object expected, String message) {
+            Assert.assertNotSame(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected, String message) {
+            Assertions.assertNotSame(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `Object[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `Object[]` with `assertArrayEquals`.")
+    public static class AssertArrayEquals {
+        @BeforeTemplate
+        void before(Object[] actual, Object[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(Object[] actual, Object[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `boolean[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `boolean[]` with `assertArrayEquals`.")
+    public static class AssertBooleanArrayEquals {
+        @BeforeTemplate
+        void before(boolean[] actual, boolean[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(boolean[] actual, boolean[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `byte[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `byte[]` with `assertArrayEquals`.")
+    public static class AssertByteArrayEquals {
+        @BeforeTemplate
+        void before(byte[] actual, byte[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(byte[] actual, byte[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `char[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `char[]` with `assertArrayEquals`.")
+    public static class AssertCharArrayEquals {
+        @BeforeTemplate
+        void before(char[] actual, char[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(char[] actual, char[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `short[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `short[]` with `assertArrayEquals`.")
+    public static class AssertShortArrayEquals {
+        @BeforeTemplate
+        void before(short[] actual, short[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(short[] actual, short[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `int[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `int[]` with `assertArrayEquals`.")
+    public static class AssertIntArrayEquals {
+        @BeforeTemplate
+        void before(int[] actual, int[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(int[] actual, int[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `long[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `long[]` with `assertArrayEquals`.")
+    public static class AssertLongArrayEquals {
+        @BeforeTemplate
+        void before(long[] actual, long[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(long[] actual, long[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `float[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `float[]` with `assertArrayEquals`.")
+    public static class AssertFloatArrayEquals {
+        @BeforeTemplate
+        void before(float[] actual, float[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(float[] actual, float[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `double[]`", description = "Replace `Assert.assertEquals(actual, expected)` on `double[]` with `assertArrayEquals`.")
+    public static class AssertDoubleArrayEquals {
+        @BeforeTemplate
+        void before(double[] actual, double[] expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(double[] actual, double[] expected) {
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `Object[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `Object[]` with `assertArrayEquals`.")
+    public static class AssertArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(Object[] actual, Object[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(Object[] actual, Object[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `boolean[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `boolean[]` with `assertArrayEquals`.")
+    public static class AssertBooleanArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(boolean[] actual, boolean[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(boolean[] actual, boolean[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `byte[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `byte[]` with `assertArrayEquals`.")
+    public static class AssertByteArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(byte[] actual, byte[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(byte[] actual, byte[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `char[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `char[]` with `assertArrayEquals`.")
+    public static class AssertCharArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(char[] actual, char[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(char[] actual, char[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `short[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `short[]` with `assertArrayEquals`.")
+    public static class AssertShortArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(short[] actual, short[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(short[] actual, short[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `int[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `int[]` with `assertArrayEquals`.")
+    public static class AssertIntArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(int[] actual, int[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(int[] actual, int[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `long[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `long[]` with `assertArrayEquals`.")
+    public static class AssertLongArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(long[] actual, long[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(long[] actual, long[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `float[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `float[]` with `assertArrayEquals`.")
+    public static class AssertFloatArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(float[] actual, float[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(float[] actual, float[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `double[]` with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on `double[]` with `assertArrayEquals`.")
+    public static class AssertDoubleArrayEqualsWithMessage {
+        @BeforeTemplate
+        void before(double[] actual, double[] expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(double[] actual, double[] expected, String message) {
+            Assertions.assertArrayEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `float[]` with delta", description = "Replace `Assert.assertEquals(actual, expected, delta)` on `float[]` with `assertArrayEquals`.")
+    public static class AssertFloatArrayEqualsWithDelta {
+        @BeforeTemplate
+        void before(float[] actual, float[] expected, float delta) {
+            Assert.assertEquals(actual, expected, delta);
+        }
+
+        @AfterTemplate
+        void after(float[] actual, float[] expected, float delta) {
+            Assertions.assertArrayEquals(expected, actual, delta);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `double[]` with delta", description = "Replace `Assert.assertEquals(actual, expected, delta)` on `double[]` with `assertArrayEquals`.")
+    public static class AssertDoubleArrayEqualsWithDelta {
+        @BeforeTemplate
+        void before(double[] actual, double[] expected, double delta) {
+            Assert.assertEquals(actual, expected, delta);
+        }
+
+        @AfterTemplate
+        void after(double[] actual, double[] expected, double delta) {
+            Assertions.assertArrayEquals(expected, actual, delta);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `float[]` with delta and message", description = "Replace `Assert.assertEquals(actual, expected, delta, message)` on `float[]` with `assertArrayEquals`.")
+    public static class AssertFloatArrayEqualsWithDeltaAndMessage {
+        @BeforeTemplate
+        void before(float[] actual, float[] expected, float delta, String message) {
+            Assert.assertEquals(actual, expected, delta, message);
+        }
+
+        @AfterTemplate
+        void after(float[] actual, float[] expected, float delta, String message) {
+            Assertions.assertArrayEquals(expected, actual, delta, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `double[]` with delta and message", description = "Replace `Assert.assertEquals(actual, expected, delta, message)` on `double[]` with `assertArrayEquals`.")
+    public static class AssertDoubleArrayEqualsWithDeltaAndMessage {
+        @BeforeTemplate
+        void before(double[] actual, double[] expected, double delta, String message) {
+            Assert.assertEquals(actual, expected, delta, message);
+        }
+
+        @AfterTemplate
+        void after(double[] actual, double[] expected, double delta, String message) {
+            Assertions.assertArrayEquals(expected, actual, delta, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `float` with delta", description = "Replace `Assert.assertEquals(actual, expected, delta)` on `float` values.")
+    public static class AssertFloatEqualsWithDelta {
+        @BeforeTemplate
+        void before(float actual, float expected, float delta) {
+            Assert.assertEquals(actual, expected, delta);
+        }
+
+        @AfterTemplate
+        void after(float actual, float expected, float delta) {
+            Assertions.assertEquals(expected, actual, delta);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `double` with delta", description = "Replace `Assert.assertEquals(actual, expected, delta)` on `double` values.")
+    public static class AssertEqualsWithDelta {
+        @BeforeTemplate
+        void before(double actual, double expected, double delta) {
+            Assert.assertEquals(actual, expected, delta);
+        }
+
+        @AfterTemplate
+        void after(double actual, double expected, double delta) {
+            Assertions.assertEquals(expected, actual, delta);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `float` with delta and message", description = "Replace `Assert.assertEquals(actual, expected, delta, message)` on `float` values.")
+    public static class AssertFloatEqualsWithDeltaAndMessage {
+        @BeforeTemplate
+        void before(float actual, float expected, float delta, String message) {
+            Assert.assertEquals(actual, expected, delta, message);
+        }
+
+        @AfterTemplate
+        void after(float actual, float expected, float delta, String message) {
+            Assertions.assertEquals(expected, actual, delta, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for `double` with delta and message", description = "Replace `Assert.assertEquals(actual, expected, delta, message)` on `double` values.")
+    public static class AssertEqualsWithDeltaAndMessage {
+        @BeforeTemplate
+        void before(double actual, double expected, double delta, String message) {
+            Assert.assertEquals(actual, expected, delta, message);
+        }
+
+        @AfterTemplate
+        void after(double actual, double expected, double delta, String message) {
+            Assertions.assertEquals(expected, actual, delta, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for sets", description = "Replace `Assert.assertEquals(actual, expected)` on sets, which TestNG compares regardless of order.")
+    public static class AssertSetEquals {
+        @BeforeTemplate
+        void before(Set<?> actual, Set<?> expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(Set<?> actual, Set<?> expected) {
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for sets with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on sets, which TestNG compares regardless of order.")
+    public static class AssertSetEqualsWithMessage {
+        @BeforeTemplate
+        void before(Set<?> actual, Set<?> expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(Set<?> actual, Set<?> expected, String message) {
+            Assertions.assertEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for iterables", description = "Replace `Assert.assertEquals(actual, expected)` on iterables with `assertIterableEquals`.")
+    public static class AssertIterableEquals {
+        @BeforeTemplate
+        void before(Iterable<?> actual, Iterable<?> expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(Iterable<?> actual, Iterable<?> expected) {
+            Assertions.assertIterableEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` for iterables with message", description = "Replace `Assert.assertEquals(actual, expected, message)` on iterables with `assertIterableEquals`.")
+    public static class AssertIterableEqualsWithMessage {
+        @BeforeTemplate
+        void before(Iterable<?> actual, Iterable<?> expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(Iterable<?> actual, Iterable<?> expected, String message) {
+            Assertions.assertIterableEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals`", description = "Replace `Assert.assertEquals(actual, expected)`.")
+    public static class AssertEquals {
+        @BeforeTemplate
+        void before(@NotMatches(IsComparedByElements.class) Object actual, Object expected) {
+            Assert.assertEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected) {
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertEquals` with message", description = "Replace `Assert.assertEquals(actual, expected, message)`.")
+    public static class AssertEqualsWithMessage {
+        @BeforeTemplate
+        void before(@NotMatches(IsComparedByElements.class) Object actual, Object expected, String message) {
+            Assert.assertEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected, String message) {
+            Assertions.assertEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotEquals` for `float` with delta", description = "Replace `Assert.assertNotEquals(actual, expected, delta)` on `float` values.")
+    public static class AssertFloatNotEqualsWithDelta {
+        @BeforeTemplate
+        void before(float actual, float expected, float delta) {
+            Assert.assertNotEquals(actual, expected, delta);
+        }
+
+        @AfterTemplate
+        void after(float actual, float expected, float delta) {
+            Assertions.assertNotEquals(expected, actual, delta);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotEquals` for `double` with delta", description = "Replace `Assert.assertNotEquals(actual, expected, delta)` on `double` values.")
+    public static class AssertNotEqualsWithDelta {
+        @BeforeTemplate
+        void before(double actual, double expected, double delta) {
+            Assert.assertNotEquals(actual, expected, delta);
+        }
+
+        @AfterTemplate
+        void after(double actual, double expected, double delta) {
+            Assertions.assertNotEquals(expected, actual, delta);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotEquals` for `float` with delta and message", description = "Replace `Assert.assertNotEquals(actual, expected, delta, message)` on `float` values.")
+    public static class AssertFloatNotEqualsWithDeltaAndMessage {
+        @BeforeTemplate
+        void before(float actual, float expected, float delta, String message) {
+            Assert.assertNotEquals(actual, expected, delta, message);
+        }
+
+        @AfterTemplate
+        void after(float actual, float expected, float delta, String message) {
+            Assertions.assertNotEquals(expected, actual, delta, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotEquals` for `double` with delta and message", description = "Replace `Assert.assertNotEquals(actual, expected, delta, message)` on `double` values.")
+    public static class AssertNotEqualsWithDeltaAndMessage {
+        @BeforeTemplate
+        void before(double actual, double expected, double delta, String message) {
+            Assert.assertNotEquals(actual, expected, delta, message);
+        }
+
+        @AfterTemplate
+        void after(double actual, double expected, double delta, String message) {
+            Assertions.assertNotEquals(expected, actual, delta, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotEquals`", description = "Replace `Assert.assertNotEquals(actual, expected)`.")
+    public static class AssertNotEquals {
+        @BeforeTemplate
+        void before(@NotMatches(IsComparedByElements.class) Object actual, Object expected) {
+            Assert.assertNotEquals(actual, expected);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected) {
+            Assertions.assertNotEquals(expected, actual);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `assertNotEquals` with message", description = "Replace `Assert.assertNotEquals(actual, expected, message)`.")
+    public static class AssertNotEqualsWithMessage {
+        @BeforeTemplate
+        void before(@NotMatches(IsComparedByElements.class) Object actual, Object expected, String message) {
+            Assert.assertNotEquals(actual, expected, message);
+        }
+
+        @AfterTemplate
+        void after(Object actual, Object expected, String message) {
+            Assertions.assertNotEquals(expected, actual, message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `fail` without message", description = "Replace `Assert.fail()`.")
+    public static class FailWithoutMessage {
+        @BeforeTemplate
+        void before() {
+            Assert.fail();
+        }
+
+        @AfterTemplate
+        void after() {
+            Assertions.fail();
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `fail`", description = "Replace `Assert.fail(message)`.")
+    public static class Fail {
+        @BeforeTemplate
+        void before(String message) {
+            Assert.fail(message);
+        }
+
+        @AfterTemplate
+        void after(String message) {
+            Assertions.fail(message);
+        }
+    }
+
+    @RecipeDescriptor(name = "Migrate `fail` with cause", description = "Replace `Assert.fail(message, cause)`.")
+    public static class FailWithCause {
+        @BeforeTemplate
+        void before(String message, Throwable cause) {
+            Assert.fail(message, cause);
+        }
+
+        @AfterTemplate
+        void after(String message, Throwable cause) {
+            Assertions.fail(message, cause);
+        }
+    }
+}
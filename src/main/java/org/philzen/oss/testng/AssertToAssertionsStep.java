@@ -0,0 +1,235 @@
+package org.philzen.oss.testng;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.style.NamedStyles;
+import org.philzen.oss.engine.Dispatcher;
+import org.philzen.oss.engine.MigrationStep;
+import org.philzen.oss.testng.AssertToAssertionsRecipes.*;
+import org.philzen.oss.utils.Format;
+import org.philzen.oss.utils.Usage;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Migrates <code>org.testng.Assert</code> calls with the recipes generated from the {@link AssertToAssertions}
+ * templates.
+ * <br><br>
+ * Instead of letting every generated recipe visit the whole compilation unit and try its matcher on every method
+ * invocation, the recipes are indexed by the name of the TestNG method they migrate and its number of arguments.
+ * An invocation of a TestNG assertion is only offered to the recipes of its bucket, in order, until one of them
+ * replaces it.
+ * <br><br>
+ * As the recipe visitors only ever see the invocation, the imports they would adjust after visiting a whole
+ * compilation unit are taken care of by this step instead.
+ * <br><br>
+ * A {@link org.openrewrite.java.JavaTemplate} caches the stubs it compiles on the root cursor, i.e. per compilation
+ * unit, and every miss builds a new parser on the runtime classpath. The rules are therefore run with a root cursor
+ * per thread that is kept in the {@link #TEMPLATES} message of the {@link ExecutionContext}, so that each template is
+ * only compiled once per thread and recipe run, and nothing is retained once the run is over.
+ * <br><br>
+ * Matching a template also formats it, and the formatter detects the line break style from the whole compilation
+ * unit on every call (see {@link Format}). The cursor handed to the rules thus holds a copy of the compilation unit
+ * without its classes, which carries the style detected once per compilation unit instead.
+ */
+@NonNullApi
+public class AssertToAssertionsStep implements MigrationStep {
+
+    public static final String TESTNG_ASSERT = "org.testng.Assert";
+
+    public static final String JUPITER_ASSERTIONS = "org.junit.jupiter.api.Assertions";
+
+    /**
+     * The generated recipes by TestNG method name and number of arguments (see {@link #key}),
+     * each bucket with the most specific rule first
+     */
+    static final Map<String, List<Recipe>> RULES;
+
+    static {
+        final Map<String, List<Recipe>> rules = new HashMap<>();
+        rules.put("assertTrue/1", Collections.singletonList(new AssertTrueRecipe()));
+        rules.put("assertTrue/2", Collections.singletonList(new AssertTrueWithMessageRecipe()));
+        rules.put("assertFalse/1", Collections.singletonList(new AssertFalseRecipe()));
+        rules.put("assertFalse/2", Collections.singletonList(new AssertFalseWithMessageRecipe()));
+        rules.put("assertNull/1", Collections.singletonList(new AssertNullRecipe()));
+        rules.put("assertNull/2", Collections.singletonList(new AssertNullWithMessageRecipe()));
+        rules.put("assertNotNull/1", Collections.singletonList(new AssertNotNullRecipe()));
+        rules.put("assertNotNull/2", Collections.singletonList(new AssertNotNullWithMessageRecipe()));
+        rules.put("assertSame/2", Collections.singletonList(new AssertSameRecipe()));
+        rules.put("assertSame/3", Collections.singletonList(new AssertSameWithMessageRecipe()));
+        rules.put("assertNotSame/2", Collections.singletonList(new AssertNotSameRecipe()));
+        rules.put("assertNotSame/3", Collections.singletonList(new AssertNotSameWithMessageRecipe()));
+        rules.put("assertEquals/2", Arrays.asList(
+            new AssertArrayEqualsRecipe(),
+            new AssertBooleanArrayEqualsRecipe(),
+            new AssertByteArrayEqualsRecipe(),
+            new AssertCharArrayEqualsRecipe(),
+            new AssertShortArrayEqualsRecipe(),
+            new AssertIntArrayEqualsRecipe(),
+            new AssertLongArrayEqualsRecipe(),
+            new AssertFloatArrayEqualsRecipe(),
+            new AssertDoubleArrayEqualsRecipe(),
+            new AssertSetEqualsRecipe(),
+            new AssertIterableEqualsRecipe(),
+            new AssertEqualsRecipe()
+        ));
+        rules.put("assertEquals/3", Arrays.asList(
+            new AssertArrayEqualsWithMessageRecipe(),
+            new AssertBooleanArrayEqualsWithMessageRecipe(),
+            new AssertByteArrayEqualsWithMessageRecipe(),
+            new AssertCharArrayEqualsWithMessageRecipe(),
+            new AssertShortArrayEqualsWithMessageRecipe(),
+            new AssertIntArrayEqualsWithMessageRecipe(),
+            new AssertLongArrayEqualsWithMessageRecipe(),
+            new AssertFloatArrayEqualsWithMessageRecipe(),
+            new AssertDoubleArrayEqualsWithMessageRecipe(),
+            new AssertFloatArrayEqualsWithDeltaRecipe(),
+            new AssertDoubleArrayEqualsWithDeltaRecipe(),
+            new AssertFloatEqualsWithDeltaRecipe(),
+            new AssertEqualsWithDeltaRecipe(),
+            new AssertSetEqualsWithMessageRecipe(),
+            new AssertIterableEqualsWithMessageRecipe(),
+            new AssertEqualsWithMessageRecipe()
+        ));
+        rules.put("assertEquals/4", Arrays.asList(
+            new AssertFloatArrayEqualsWithDeltaAndMessageRecipe(),
+            new AssertDoubleArrayEqualsWithDeltaAndMessageRecipe(),
+            new AssertFloatEqualsWithDeltaAndMessageRecipe(),
+            new AssertEqualsWithDeltaAndMessageRecipe()
+        ));
+        rules.put("assertNotEquals/2", Collections.singletonList(new AssertNotEqualsRecipe()));
+        rules.put("assertNotEquals/3", Arrays.asList(
+            new AssertFloatNotEqualsWithDeltaRecipe(),
+            new AssertNotEqualsWithDeltaRecipe(),
+            new AssertNotEqualsWithMessageRecipe()
+        ));
+        rules.put("assertNotEquals/4", Arrays.asList(new AssertFloatNotEqualsWithDeltaAndMessageRecipe(), new AssertNotEqualsWithDeltaAndMessageRecipe()));
+        rules.put("fail/0", Collections.singletonList(new FailWithoutMessageRecipe()));
+        rules.put("fail/1", Collections.singletonList(new FailRecipe()));
+        rules.put("fail/2", Collections.singletonList(new FailWithCauseRecipe()));
+        RULES = Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * Message on the {@link ExecutionContext} holding the roots of the cursors handed to the rules by thread id,
+     * each holding the templates the rules have compiled on that thread
+     */
+    public static final String TEMPLATES = AssertToAssertionsStep.class.getName() + ".TEMPLATES";
+
+    /**
+     * The visitors of the {@link #RULES}, by the same key (visitors are stateful, so they are not shared)
+     */
+    private final Map<String, List<TreeVisitor<?, ExecutionContext>>> visitors = new HashMap<>();
+
+    @SuppressWarnings("NotNullFieldNotInitialized") // set on registration
+    private Dispatcher dispatcher;
+
+    /**
+     * Cursor of the compilation unit copy the rules see, created when the first assertion is migrated
+     */
+    @Nullable
+    private Cursor compilationUnit;
+
+    public AssertToAssertionsStep() {
+        RULES.forEach((key, recipes) -> {
+            final List<TreeVisitor<?, ExecutionContext>> bucket = new ArrayList<>(recipes.size());
+            for (Recipe recipe : recipes) {
+                bucket.add(recipe.getVisitor());
+            }
+            visitors.put(key, bucket);
+        });
+    }
+
+    @Override
+    public void register(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        dispatcher.enter(J.CompilationUnit.class, (cu, ctx) -> {
+            compilationUnit = null;
+            return cu;
+        });
+        dispatcher.exit(J.MethodInvocation.class, this::exitMethodInvocation);
+    }
+
+    @Override
+    public boolean isApplicable(J.CompilationUnit cu, ExecutionContext ctx) {
+        return Usage.summarize(cu, ctx).uses(TESTNG_ASSERT);
+    }
+
+    private J.MethodInvocation exitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+        if (!isTestNgAssert(method.getMethodType())) {
+            return method;
+        }
+
+        final List<TreeVisitor<?, ExecutionContext>> bucket = visitors.get(key(method));
+        if (bucket == null) {
+            return method;
+        }
+
+        if (compilationUnit == null) {
+            final J.CompilationUnit cu = dispatcher.getCursor().firstEnclosingOrThrow(J.CompilationUnit.class);
+            final NamedStyles lineBreaks = new NamedStyles(Tree.randomId(), AssertToAssertionsStep.class.getName(),
+                "Detected line breaks", null, Collections.emptySet(), Collections.singletonList(Format.lineBreaks(cu)));
+            compilationUnit = new Cursor(templates(ctx),
+                cu.withClasses(Collections.emptyList()).withMarkers(cu.getMarkers().add(lineBreaks)));
+        }
+
+        final Cursor parent = reroot(dispatcher.getCursor().getParentOrThrow(), compilationUnit);
+        for (TreeVisitor<?, ExecutionContext> rule : bucket) {
+            final Tree migrated = rule.visit(method, ctx, parent);
+            if (migrated != method && migrated instanceof J.MethodInvocation) {
+                dispatcher.maybeRemoveImport(TESTNG_ASSERT);
+                dispatcher.maybeAddImport(JUPITER_ASSERTIONS);
+                return (J.MethodInvocation) migrated;
+            }
+        }
+        return method;
+    }
+
+    /**
+     * Root cursor of the {@link #TEMPLATES} for the current thread (the cache on a cursor is not thread-safe)
+     */
+    private static Cursor templates(ExecutionContext ctx) {
+        Map<Long, Cursor> byThread;
+        synchronized (ctx) {
+            byThread = ctx.getMessage(TEMPLATES);
+            if (byThread == null) {
+                byThread = new ConcurrentHashMap<>();
+                ctx.putMessage(TEMPLATES, byThread);
+            }
+        }
+        return byThread.computeIfAbsent(Thread.currentThread().getId(), t -> new Cursor(null, Cursor.ROOT_VALUE));
+    }
+
+    /**
+     * Key of the {@link #RULES} for the invocation, e.g. <code>assertEquals/3</code>
+     */
+    static String key(J.MethodInvocation method) {
+        final List<Expression> arguments = method.getArguments();
+        final int count = arguments.size() == 1 && arguments.get(0) instanceof J.Empty ? 0 : arguments.size();
+        return method.getSimpleName() + '/' + count;
+    }
+
+    /**
+     * Copy of the cursor path below the compilation unit, attached to <code>compilationUnit</code> instead
+     */
+    private static Cursor reroot(Cursor cursor, Cursor compilationUnit) {
+        if (cursor.getValue() instanceof J.CompilationUnit) {
+            return compilationUnit;
+        }
+        return new Cursor(reroot(cursor.getParentOrThrow(), compilationUnit), cursor.getValue());
+    }
+
+    private static boolean isTestNgAssert(@Nullable JavaType.Method methodType) {
+        return methodType != null && TypeUtils.isOfClassType(methodType.getDeclaringType(), TESTNG_ASSERT);
+    }
+}
@@ -0,0 +1,223 @@
+package org.philzen.oss.testng;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+import org.philzen.oss.utils.Usage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the static TestNG data providers of all classes of a repository, collected by the scanning phase of
+ * the migration recipes, so that <code>@Test(dataProvider = "…", dataProviderClass = ….class)</code> can be resolved
+ * to a <code>@MethodSource("fully.qualified.Class#method")</code> across files.
+ * <br><br>
+ * The index may have to cover 100k source files, so it holds on to nothing of the LSTs it was built from. Class,
+ * provider and method names are interned into <code>int</code> ids, and each provider is a single entry of an
+ * open addressing table of primitive <code>long</code> keys (class id in the upper, provider name id in the lower
+ * half) and <code>int</code> values (method name id). At a load factor between 1/4 and 1/2, a provider thus costs
+ * 12 bytes of table space two to four times over, plus its names when they haven't been interned before; see
+ * <code>DataProviderIndexTest</code> for the footprint of a large repository. The providers that tests reference
+ * by <code>dataProviderClass</code> are kept in a second table of the same keys, so that only those lose their
+ * <code>@DataProvider</code> annotation.
+ * <br><br>
+ * The index is only written by the scanning phase, which visits source files one after the other, and only read
+ * afterwards.
+ */
+@NonNullApi
+public class DataProviderIndex {
+
+    private static final long EMPTY = -1L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Ids of the interned names, by name
+     */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * The interned names, by id
+     */
+    private final List<String> names = new ArrayList<>();
+
+    private long[] keys = newKeys(INITIAL_CAPACITY);
+
+    private int[] values = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Keys of the providers that tests reference by <code>dataProviderClass</code>, whether indexed yet or not
+     */
+    private long[] consumed = newKeys(INITIAL_CAPACITY);
+
+    private int consumedSize;
+
+    /**
+     * Visitor for the scanning phase, indexing the providers of compilation units that use <code>@DataProvider</code>
+     * and the providers consumed by those that use TestNG's <code>@Test</code>, without traversing their statements
+     */
+    public TreeVisitor<?, ExecutionContext> scanner() {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                final Usage.Summary usage = tree instanceof J.CompilationUnit
+                    ? Usage.summarize((J.CompilationUnit) tree, ctx)
+                    : null;
+                if (usage != null
+                    && (usage.uses(DataProviders.DATA_PROVIDER) || usage.uses(UpdateTestAnnotationToJunit5.TESTNG_TYPE))) {
+                    for (J.ClassDeclaration classDecl : ((J.CompilationUnit) tree).getClasses()) {
+                        DataProviders.scan(classDecl, DataProviderIndex.this);
+                    }
+                }
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * Adds a provider, unless the class already declares one of the same name
+     */
+    public void add(String className, String providerName, String methodName) {
+        if (size + 1 > keys.length / 2) {
+            rehash(keys.length * 2);
+        }
+
+        final long key = key(intern(className), intern(providerName));
+        final int slot = slot(keys, key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            values[slot] = intern(methodName);
+            size++;
+        }
+    }
+
+    /**
+     * The name of the method declaring the provider, or <code>null</code> if the class has no such (static) provider
+     */
+    @Nullable
+    public String method(String className, String providerName) {
+        final Integer classId = ids.get(className);
+        final Integer providerId = classId == null ? null : ids.get(providerName);
+        if (providerId == null) {
+            return null;
+        }
+
+        final int slot = slot(keys, key(classId, providerId));
+        return keys[slot] == EMPTY ? null : names.get(values[slot]);
+    }
+
+    /**
+     * Marks the provider as consumed by a test that references it by <code>dataProviderClass</code>,
+     * regardless of whether it has been {@link #add added} yet
+     */
+    public void consume(String className, String providerName) {
+        if (consumedSize + 1 > consumed.length / 2) {
+            final long[] old = consumed;
+            consumed = newKeys(old.length * 2);
+            for (long key : old) {
+                if (key != EMPTY) {
+                    consumed[slot(consumed, key)] = key;
+                }
+            }
+        }
+
+        final long key = key(intern(className), intern(providerName));
+        final int slot = slot(consumed, key);
+        if (consumed[slot] == EMPTY) {
+            consumed[slot] = key;
+            consumedSize++;
+        }
+    }
+
+    /**
+     * Whether a test references the provider by <code>dataProviderClass</code>
+     */
+    public boolean isConsumed(String className, String providerName) {
+        final Integer classId = ids.get(className);
+        final Integer providerId = classId == null ? null : ids.get(providerName);
+        return providerId != null && consumed[slot(consumed, key(classId, providerId))] != EMPTY;
+    }
+
+    /**
+     * Number of indexed providers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes taken by the tables, i.e. their capacity times the size of an entry (without the interned names)
+     */
+    long tableBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES) + (long) consumed.length * Long.BYTES;
+    }
+
+    /**
+     * Number of interned class, provider and method names
+     */
+    int names() {
+        return names.size();
+    }
+
+    private int intern(String name) {
+        final Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        final int next = names.size();
+        names.add(name);
+        ids.put(name, next);
+        return next;
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = newKeys(capacity);
+        values = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                final int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static long key(int classId, int providerId) {
+        return ((long) classId << 32) | (providerId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The slot holding the key, or the empty slot it is to be put into (linear probing, capacity is a power of two)
+     */
+    private static int slot(long[] keys, long key) {
+        final int mask = keys.length - 1;
+        int slot = (int) (mix(key) & mask);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long mix(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static long[] newKeys(int capacity) {
+        final long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+}
@@ -0,0 +1,219 @@
+package org.philzen.oss.testng;
+
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TypeUtils;
+import org.philzen.oss.utils.Method;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the TestNG <code>@DataProvider</code> methods declared in a class, by provider name.
+ * <br><br>
+ * The index is built once per class from its direct members, so that each <code>@Test(dataProvider = "…")</code>
+ * is resolved with a single lookup rather than by searching the class for the provider, which would make the
+ * migration quadratic in the number of test methods.
+ * <br><br>
+ * Only providers that can serve as a JUnit 5 <code>@MethodSource</code> factory are indexed, i.e. those without
+ * parameters (TestNG may inject the test <code>Method</code> or <code>ITestContext</code>) and without any
+ * <code>@DataProvider</code> attribute but <code>name</code>. Consumers of other providers are left to the misfit
+ * handling.
+ * <br><br>
+ * Static providers of all classes are also collected into a {@link DataProviderIndex} by the scanning phase of the
+ * recipes, to resolve consumers that reference the class declaring the provider by <code>dataProviderClass</code>.
+ * <br><br>
+ * A provider only loses its <code>@DataProvider</code> annotation if a consumer is migrated to it, as other consumers
+ * (e.g. of a subclass, which TestNG resolves the inherited providers for) may still need it; see {@link #consumed}
+ * and {@link DataProviderIndex#isConsumed}.
+ */
+@NonNullApi
+enum DataProviders {;
+
+    static final String DATA_PROVIDER = "org.testng.annotations.DataProvider";
+
+    private static final AnnotationMatcher TESTNG_TEST = new AnnotationMatcher("@" + UpdateTestAnnotationToJunit5.TESTNG_TYPE);
+
+    /**
+     * The migratable providers of the class, as method name by provider name
+     */
+    static Map<String, String> index(J.ClassDeclaration classDecl) {
+        Map<String, String> index = null;
+        for (Statement statement : classDecl.getBody().getStatements()) {
+            if (!(statement instanceof J.MethodDeclaration)) {
+                continue;
+            }
+
+            final J.MethodDeclaration method = (J.MethodDeclaration) statement;
+            final String name = name(method);
+            if (name != null) {
+                if (index == null) {
+                    index = new HashMap<>();
+                }
+                index.putIfAbsent(name, method.getSimpleName());
+            }
+        }
+        return index == null ? Collections.emptyMap() : index;
+    }
+
+    /**
+     * The providers of the {@link #index} that test methods of the class consume without a
+     * <code>dataProviderClass</code>, i.e. those that become <code>@MethodSource</code> factories of the class
+     */
+    static Map<String, String> consumed(J.ClassDeclaration classDecl) {
+        final Map<String, String> index = index(classDecl);
+        if (index.isEmpty()) {
+            return index;
+        }
+
+        Map<String, String> consumed = null;
+        for (Statement statement : classDecl.getBody().getStatements()) {
+            final J.Annotation test = statement instanceof J.MethodDeclaration
+                ? Method.getAnnotation((J.MethodDeclaration) statement, TESTNG_TEST)
+                : null;
+            final List<Expression> arguments = test == null ? null : test.getArguments();
+            if (arguments == null || attribute(arguments, UpdateTestAnnotationToJunit5.DATA_PROVIDER_CLASS) != null) {
+                continue;
+            }
+
+            final String name = providerName(arguments);
+            final String method = name == null ? null : index.get(name);
+            if (method != null) {
+                if (consumed == null) {
+                    consumed = new HashMap<>();
+                }
+                consumed.put(name, method);
+            }
+        }
+        return consumed == null ? Collections.emptyMap() : consumed;
+    }
+
+    /**
+     * Adds the static providers of the class and its nested classes to the index of the repository
+     * (only static ones can be referenced from another class as <code>@MethodSource("Class#method")</code>),
+     * and marks the providers their test methods reference by <code>dataProviderClass</code> as consumed
+     */
+    static void scan(J.ClassDeclaration classDecl, DataProviderIndex index) {
+        final JavaType.FullyQualified type = classDecl.getType();
+        for (Statement statement : classDecl.getBody().getStatements()) {
+            if (statement instanceof J.ClassDeclaration) {
+                scan((J.ClassDeclaration) statement, index);
+            } else if (statement instanceof J.MethodDeclaration) {
+                final J.MethodDeclaration method = (J.MethodDeclaration) statement;
+                final String name = type != null && method.hasModifier(J.Modifier.Type.Static) ? name(method) : null;
+                if (name != null) {
+                    index.add(type.getFullyQualifiedName(), name, method.getSimpleName());
+                }
+                consume(method, index);
+            }
+        }
+    }
+
+    private static void consume(J.MethodDeclaration method, DataProviderIndex index) {
+        final J.Annotation test = Method.getAnnotation(method, TESTNG_TEST);
+        final List<Expression> arguments = test == null ? null : test.getArguments();
+        if (arguments == null) {
+            return;
+        }
+
+        final String name = providerName(arguments);
+        final Expression providerClass = attribute(arguments, UpdateTestAnnotationToJunit5.DATA_PROVIDER_CLASS);
+        final JavaType.FullyQualified type = providerClass == null ? null : type(providerClass);
+        if (name != null && type != null) {
+            index.consume(type.getFullyQualifiedName(), name);
+        }
+    }
+
+    /**
+     * The value of the attribute of a TestNG annotation, or <code>null</code> if it is not set
+     */
+    @Nullable
+    static Expression attribute(List<Expression> arguments, String attribute) {
+        for (Expression argument : arguments) {
+            if (argument instanceof J.Assignment && ((J.Assignment) argument).getVariable() instanceof J.Identifier
+                && attribute.equals(((J.Identifier) ((J.Assignment) argument).getVariable()).getSimpleName())) {
+                return ((J.Assignment) argument).getAssignment();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The provider name of the <code>dataProvider</code> attribute, if it is a string literal
+     */
+    @Nullable
+    static String providerName(List<Expression> arguments) {
+        final Expression name = attribute(arguments, UpdateTestAnnotationToJunit5.DATA_PROVIDER);
+        return name instanceof J.Literal && ((J.Literal) name).getValue() instanceof String
+            ? (String) ((J.Literal) name).getValue()
+            : null;
+    }
+
+    /**
+     * The class a <code>dataProviderClass</code> attribute refers to, if given as a class literal
+     * (i.e. <code>Providers.class</code>)
+     */
+    @Nullable
+    static JavaType.FullyQualified type(Expression providerClass) {
+        return providerClass instanceof J.FieldAccess && "class".equals(((J.FieldAccess) providerClass).getSimpleName())
+            ? TypeUtils.asFullyQualified(((J.FieldAccess) providerClass).getTarget().getType())
+            : null;
+    }
+
+    /**
+     * The <code>@DataProvider</code> annotation of the method, if any
+     */
+    @Nullable
+    static J.Annotation getAnnotation(J.MethodDeclaration method) {
+        final List<J.Annotation> annotations = method.getLeadingAnnotations();
+        for (int i = 0; i < annotations.size(); i++) {
+            if (TypeUtils.isOfClassType(annotations.get(i).getType(), DATA_PROVIDER)) {
+                return annotations.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The provider name of the method, or <code>null</code> if it is not a provider that can be migrated
+     */
+    @Nullable
+    static String name(J.MethodDeclaration method) {
+        final J.Annotation annotation = getAnnotation(method);
+        if (annotation == null || !(method.getParameters().get(0) instanceof J.Empty)) {
+            return null;
+        }
+
+        final List<Expression> arguments = annotation.getArguments();
+        if (arguments == null) {
+            return method.getSimpleName();
+        }
+
+        String name = method.getSimpleName();
+        for (Expression argument : arguments) {
+            if (argument instanceof J.Empty) {
+                continue;
+            }
+            if (!(argument instanceof J.Assignment)) {
+                return null;
+            }
+
+            final J.Assignment assignment = (J.Assignment) argument;
+            if (!(assignment.getVariable() instanceof J.Identifier)
+                || !"name".equals(((J.Identifier) assignment.getVariable()).getSimpleName())
+                || !(assignment.getAssignment() instanceof J.Literal)
+                || !(((J.Literal) assignment.getAssignment()).getValue() instanceof String)) {
+                return null;
+            }
+            name = (String) ((J.Literal) assignment.getAssignment()).getValue();
+        }
+        return name;
+    }
+}
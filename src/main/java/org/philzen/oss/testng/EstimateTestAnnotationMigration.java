@@ -0,0 +1,180 @@
+package org.philzen.oss.testng;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Statement;
+import org.philzen.oss.table.MigrationEstimate;
+import org.philzen.oss.testng.UpdateTestAnnotationToJunit5.Attribute;
+import org.philzen.oss.utils.Class;
+import org.philzen.oss.utils.Method;
+import org.philzen.oss.utils.Usage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.philzen.oss.testng.UpdateTestAnnotationToJunit5.TESTNG_TYPE;
+
+/**
+ * Dry run of {@link UpdateTestAnnotationToJunit5}, which only counts the work the migration would do.
+ * <br><br>
+ * The attributes are classified by the same {@link UpdateTestAnnotationToJunit5#classify} and
+ * {@link UpdateTestAnnotationToJunit5#methodSource} the migration uses. Other than the migration, the estimate
+ * neither applies templates nor formats anything, and it returns every source file as is. It also only visits the
+ * declarations of classes and their members rather than every element of the file, i.e. tests in anonymous or local
+ * classes are not counted (TestNG does not run those anyway).
+ */
+@Value
+@NonNullApi
+@EqualsAndHashCode(callSuper = false)
+public class EstimateTestAnnotationMigration extends ScanningRecipe<DataProviderIndex> {
+
+    private static final AnnotationMatcher TESTNG_TEST = new AnnotationMatcher("@" + TESTNG_TYPE);
+
+    private static final Attribute[] ATTRIBUTES = Attribute.values();
+
+    transient MigrationEstimate estimate = new MigrationEstimate(this);
+
+    @Override
+    public String getDisplayName() {
+        return "Estimate the migration of TestNG `@Test` annotations";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Counts the TestNG `@Test` annotations of every source file, the attributes that "
+            + "`UpdateTestAnnotationToJunit5` would migrate and those it would retain for manual review, "
+            + "without changing any source file.";
+    }
+
+    @Override
+    public DataProviderIndex getInitialValue(ExecutionContext ctx) {
+        return new DataProviderIndex();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(DataProviderIndex dataProviders) {
+        return dataProviders.scanner();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(DataProviderIndex dataProviders) {
+        return Preconditions.check(Usage.of(TESTNG_TYPE), new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof J.CompilationUnit) {
+                    final Counts counts = new Counts();
+                    for (J.ClassDeclaration classDecl : ((J.CompilationUnit) tree).getClasses()) {
+                        counts.add(classDecl, dataProviders);
+                    }
+                    if (counts.classAnnotations + counts.methodAnnotations > 0) {
+                        estimate.insertRow(ctx, counts.toRow(((J.CompilationUnit) tree).getSourcePath().toString()));
+                    }
+                }
+                return tree;
+            }
+        });
+    }
+
+    private static final class Counts {
+
+        long classAnnotations;
+
+        long methodAnnotations;
+
+        /**
+         * Migratable attributes by {@link Attribute#ordinal()}
+         */
+        final long[] attributes = new long[ATTRIBUTES.length];
+
+        long misfitAttributes;
+
+        long misfits;
+
+        /**
+         * Counts the annotations of the class, its methods and nested classes
+         */
+        void add(J.ClassDeclaration classDecl, DataProviderIndex sharedDataProviders) {
+            final J.Annotation classAnnotation = Class.getAnnotation(classDecl, TESTNG_TEST);
+            if (classAnnotation != null) {
+                classAnnotations++;
+                // none of the attributes can be migrated on class level
+                add(classAnnotation.getArguments(), null, null);
+            }
+
+            final Map<String, String> dataProviders = DataProviders.index(classDecl);
+            for (Statement statement : classDecl.getBody().getStatements()) {
+                if (statement instanceof J.ClassDeclaration) {
+                    add((J.ClassDeclaration) statement, sharedDataProviders);
+                } else if (statement instanceof J.MethodDeclaration) {
+                    final J.Annotation annotation = Method.getAnnotation((J.MethodDeclaration) statement, TESTNG_TEST);
+                    if (annotation != null) {
+                        methodAnnotations++;
+                        add(annotation.getArguments(), dataProviders, sharedDataProviders);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param dataProviders the providers of the class, or <code>null</code> if all arguments are misfits
+         */
+        private void add(
+            @Nullable List<Expression> arguments,
+            @Nullable Map<String, String> dataProviders,
+            @Nullable DataProviderIndex sharedDataProviders
+        ) {
+            if (arguments == null) {
+                return;
+            }
+
+            final String methodSource = dataProviders == null || sharedDataProviders == null ? null
+                : UpdateTestAnnotationToJunit5.methodSource(arguments, dataProviders, sharedDataProviders);
+            boolean misfit = false;
+            for (Expression argument : arguments) {
+                if (!(argument instanceof J.Assignment)) { // i.e. J.Empty of "@Test()"
+                    continue;
+                }
+
+                final Attribute attribute = dataProviders == null ? null
+                    : UpdateTestAnnotationToJunit5.classify((J.Assignment) argument, methodSource);
+                if (attribute == null) {
+                    misfitAttributes++;
+                    misfit = true;
+                } else {
+                    attributes[attribute.ordinal()]++;
+                }
+            }
+            if (misfit) {
+                misfits++;
+            }
+        }
+
+        MigrationEstimate.Row toRow(String sourcePath) {
+            return new MigrationEstimate.Row(
+                sourcePath,
+                classAnnotations,
+                methodAnnotations,
+                attributes[Attribute.DESCRIPTION.ordinal()],
+                attributes[Attribute.ENABLED.ordinal()],
+                attributes[Attribute.EXPECTED_EXCEPTIONS.ordinal()],
+                attributes[Attribute.EXPECTED_EXCEPTIONS_MSG_REG_EXP.ordinal()],
+                attributes[Attribute.GROUPS.ordinal()],
+                attributes[Attribute.TIMEOUT.ordinal()],
+                attributes[Attribute.DATA_PROVIDER.ordinal()],
+                attributes[Attribute.DATA_PROVIDER_CLASS.ordinal()],
+                misfitAttributes,
+                misfits
+            );
+        }
+    }
+}
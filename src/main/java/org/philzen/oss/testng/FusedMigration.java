@@ -0,0 +1,70 @@
+package org.philzen.oss.testng;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.philzen.oss.engine.Dispatcher;
+import org.philzen.oss.table.MigrationProfile;
+
+import java.util.Arrays;
+
+@Value
+@NonNullApi
+@EqualsAndHashCode(callSuper = true)
+public class FusedMigration extends ScanningRecipe<DataProviderIndex> {
+
+    @Option(displayName = "Profile",
+        description = "Insert a row with the wall time and the work done per migrated source file into the "
+            + "`MigrationProfile` data table.",
+        required = false)
+    @Nullable
+    Boolean profile;
+
+    transient MigrationProfile migrationProfile = new MigrationProfile(this);
+
+    public FusedMigration() {
+        this(null);
+    }
+
+    @JsonCreator
+    public FusedMigration(@Nullable @JsonProperty("profile") Boolean profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Migrate TestNG tests to JUnit 5 in a single pass";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Runs all TestNG to JUnit 5 migration steps in one traversal of every source file: "
+            + "`@Test` and lifecycle annotations as well as `org.testng.Assert` calls are migrated "
+            + "and inner classes containing tests are annotated with `@Nested`.";
+    }
+
+    @Override
+    public DataProviderIndex getInitialValue(ExecutionContext ctx) {
+        return new DataProviderIndex();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(DataProviderIndex dataProviders) {
+        return dataProviders.scanner();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(DataProviderIndex dataProviders) {
+        return new Dispatcher(Arrays.asList(
+            UpdateTestAnnotationToJunit5.step(dataProviders, Boolean.TRUE.equals(profile) ? migrationProfile : null),
+            new LifecycleAnnotationsStep(), new AssertToAssertionsStep(), new AddMissingNestedStep()
+        ));
+    }
+}
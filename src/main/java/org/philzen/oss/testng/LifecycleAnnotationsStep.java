@@ -0,0 +1,167 @@
+package org.philzen.oss.testng;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.style.GeneralFormatStyle;
+import org.philzen.oss.engine.Dispatcher;
+import org.philzen.oss.engine.MigrationStep;
+import org.philzen.oss.utils.Annotation;
+import org.philzen.oss.utils.Format;
+import org.philzen.oss.utils.Usage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Replaces the TestNG lifecycle annotations <code>@BeforeMethod</code>, <code>@AfterMethod</code>,
+ * <code>@BeforeClass</code> and <code>@AfterClass</code> with their JUnit 5 counterparts.
+ * <br><br>
+ * The leading annotations of every method are resolved to their fully qualified name once, which is looked up in a
+ * table of {@link Lifecycle} handlers, so that each additional annotation type costs a hash lookup rather than
+ * another traversal.
+ * <br><br>
+ * Only the <code>alwaysRun</code> attribute is dropped, as JUnit 5 runs lifecycle methods regardless of groups.
+ * An annotation with any other attribute (e.g. <code>groups</code> or <code>dependsOnMethods</code>) has no
+ * JUnit 5 equivalent and is left as it is. So are the annotations of methods with parameters, which TestNG injects
+ * (e.g. <code>java.lang.reflect.Method</code>, <code>ITestContext</code> or <code>ITestResult</code>), whereas
+ * JUnit 5 would fail to resolve them.
+ * <br><br>
+ * TestNG runs <code>@BeforeClass</code> and <code>@AfterClass</code> methods on the test instance, whereas JUnit 5
+ * requires <code>@BeforeAll</code> and <code>@AfterAll</code> methods to be static, unless the class is declared
+ * with the {@link PerClassLifecycle}.
+ */
+@NonNullApi
+public class LifecycleAnnotationsStep implements MigrationStep {
+
+    private enum Lifecycle {
+        BEFORE_METHOD("org.testng.annotations.BeforeMethod", "org.junit.jupiter.api.BeforeEach", false, Annotation::beforeEach),
+        AFTER_METHOD("org.testng.annotations.AfterMethod", "org.junit.jupiter.api.AfterEach", false, Annotation::afterEach),
+        BEFORE_CLASS("org.testng.annotations.BeforeClass", "org.junit.jupiter.api.BeforeAll", true, Annotation::beforeAll),
+        AFTER_CLASS("org.testng.annotations.AfterClass", "org.junit.jupiter.api.AfterAll", true, Annotation::afterAll);
+
+        final String testNg;
+        final String jupiter;
+
+        /**
+         * Whether JUnit 5 requires the annotated method to be static (in the default test instance lifecycle)
+         */
+        final boolean perClass;
+
+        final Supplier<J.Annotation> prototype;
+
+        Lifecycle(String testNg, String jupiter, boolean perClass, Supplier<J.Annotation> prototype) {
+            this.testNg = testNg;
+            this.jupiter = jupiter;
+            this.perClass = perClass;
+            this.prototype = prototype;
+        }
+    }
+
+    /**
+     * The handlers by the fully qualified name of the TestNG annotation they replace
+     */
+    static final Map<String, Lifecycle> HANDLERS;
+
+    static {
+        final Map<String, Lifecycle> handlers = new HashMap<>();
+        for (Lifecycle lifecycle : Lifecycle.values()) {
+            handlers.put(lifecycle.testNg, lifecycle);
+        }
+        HANDLERS = Collections.unmodifiableMap(handlers);
+    }
+
+    @SuppressWarnings("NotNullFieldNotInitialized") // set on registration
+    private Dispatcher dispatcher;
+
+    /**
+     * Line break style of the visited compilation unit, detected when the first class is annotated
+     */
+    @Nullable
+    private GeneralFormatStyle lineBreaks;
+
+    @Override
+    public void register(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        dispatcher.enter(J.CompilationUnit.class, (cu, ctx) -> {
+            lineBreaks = null;
+            return cu;
+        });
+        dispatcher.enter(J.MethodDeclaration.class, this::enterMethodDeclaration);
+        dispatcher.exit(J.ClassDeclaration.class, this::exitClassDeclaration);
+    }
+
+    @Override
+    public boolean isApplicable(J.CompilationUnit cu, ExecutionContext ctx) {
+        final Usage.Summary usage = Usage.summarize(cu, ctx);
+        for (String testNg : HANDLERS.keySet()) {
+            if (usage.uses(testNg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private J.MethodDeclaration enterMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+        if (!(method.getParameters().get(0) instanceof J.Empty)) { // injected by TestNG
+            return method;
+        }
+
+        return method.withLeadingAnnotations(ListUtils.map(method.getLeadingAnnotations(), annotation -> {
+            final JavaType.FullyQualified type = TypeUtils.asFullyQualified(annotation.getType());
+            final Lifecycle lifecycle = type == null ? null : HANDLERS.get(type.getFullyQualifiedName());
+            if (lifecycle == null || !hasOnlyAlwaysRun(annotation)) {
+                return annotation;
+            }
+
+            if (lifecycle.perClass && !method.hasModifier(J.Modifier.Type.Static)) {
+                PerClassLifecycle.request(dispatcher.getCursor());
+            }
+
+            dispatcher.maybeRemoveImport(lifecycle.testNg);
+            dispatcher.maybeAddImport(lifecycle.jupiter);
+            return lifecycle.prototype.get().withPrefix(annotation.getPrefix());
+        }));
+    }
+
+    private J.ClassDeclaration exitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+        final Cursor cursor = dispatcher.getCursor();
+        if (!PerClassLifecycle.isPending(classDecl, cursor)) {
+            return classDecl;
+        }
+
+        dispatcher.maybeAddImport(PerClassLifecycle.TEST_INSTANCE);
+        if (lineBreaks == null) {
+            lineBreaks = Format.lineBreaks(cursor.firstEnclosingOrThrow(J.CompilationUnit.class));
+        }
+        return PerClassLifecycle.declare(classDecl, lineBreaks, cursor);
+    }
+
+    private static boolean hasOnlyAlwaysRun(J.Annotation annotation) {
+        final List<Expression> arguments = annotation.getArguments();
+        if (arguments == null) {
+            return true;
+        }
+
+        for (Expression argument : arguments) {
+            if (argument instanceof J.Empty) {
+                continue;
+            }
+            if (!(argument instanceof J.Assignment)
+                || !(((J.Assignment) argument).getVariable() instanceof J.Identifier)
+                || !"alwaysRun".equals(((J.Identifier) ((J.Assignment) argument).getVariable()).getSimpleName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
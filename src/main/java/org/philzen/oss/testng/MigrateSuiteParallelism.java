@@ -0,0 +1,174 @@
+package org.philzen.oss.testng;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.properties.AddProperty;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.properties.tree.Properties;
+import org.openrewrite.text.PlainText;
+import org.openrewrite.xml.tree.Xml;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Value
+@NonNullApi
+@EqualsAndHashCode(callSuper = false)
+public class MigrateSuiteParallelism extends ScanningRecipe<MigrateSuiteParallelism.Accumulator> {
+
+    static final String PLATFORM_PROPERTIES = "junit-platform.properties";
+
+    @Override
+    public String getDisplayName() {
+        return "Migrate the parallel execution of TestNG suites";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Configures the `junit.jupiter.execution.parallel.*` parameters in the `junit-platform.properties` "
+            + "test resource of each module according to the `parallel` mode and `thread-count` of its TestNG suite "
+            + "(`testng.xml`), so that the migrated tests keep running in parallel. Parameters that are already "
+            + "configured are retained.";
+    }
+
+    /**
+     * The parallelism of the first suite of each module, by the path of the module's <code>junit-platform.properties</code>
+     */
+    public static class Accumulator {
+
+        final Map<Path, Suite> suites = new LinkedHashMap<>();
+
+        final Set<Path> existing = new HashSet<>();
+    }
+
+    @Value
+    static class Suite {
+
+        Path path;
+
+        SuiteParallelism parallelism;
+    }
+
+    /**
+     * Whether the document is a TestNG suite running in parallel, i.e. one this recipe migrates. Like the scanner,
+     * this only reads the document up to its root element, so any XML file may be checked before it is parsed.
+     */
+    public static boolean isParallelSuite(Reader document) {
+        return SuiteParallelism.read(document) != null;
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof SourceFile)) {
+                    return tree;
+                }
+
+                final Path path = ((SourceFile) tree).getSourcePath();
+                if (tree instanceof Properties.File && path.endsWith(PLATFORM_PROPERTIES)) {
+                    acc.existing.add(path);
+                } else if (path.toString().endsWith(".xml")) {
+                    final SuiteParallelism parallelism = SuiteParallelism.read(new StringReader(rootElement((SourceFile) tree)));
+                    if (parallelism != null) {
+                        acc.suites.putIfAbsent(platformProperties(path), new Suite(path, parallelism));
+                    }
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        final List<SourceFile> generated = new ArrayList<>();
+        for (Map.Entry<Path, Suite> entry : acc.suites.entrySet()) {
+            if (acc.existing.contains(entry.getKey())) {
+                continue;
+            }
+
+            final StringBuilder text = new StringBuilder("# Parallel execution as configured by ")
+                .append(entry.getValue().getPath().toString().replace('\\', '/')).append('\n');
+            for (Map.Entry<String, String> parameter : entry.getValue().getParallelism().parameters().entrySet()) {
+                text.append(SuiteParallelism.PREFIX).append(parameter.getKey()).append('=').append(parameter.getValue()).append('\n');
+            }
+            PropertiesParser.builder().build().parse(text.toString())
+                .findFirst()
+                .ifPresent(file -> generated.add(file.withSourcePath(entry.getKey())));
+        }
+        return generated;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (!(tree instanceof Properties.File)) {
+                    return tree;
+                }
+
+                final Suite suite = acc.suites.get(((Properties.File) tree).getSourcePath());
+                if (suite == null) {
+                    return tree;
+                }
+
+                Tree file = tree;
+                for (Map.Entry<String, String> parameter : suite.getParallelism().parameters().entrySet()) {
+                    file = new AddProperty(SuiteParallelism.PREFIX + parameter.getKey(), parameter.getValue(), null, null)
+                        .getVisitor().visitNonNull(file, ctx);
+                }
+                return file;
+            }
+        };
+    }
+
+    /**
+     * The prolog and the root element of the document, without the content of the latter
+     */
+    private static String rootElement(SourceFile sourceFile) {
+        if (sourceFile instanceof Xml.Document) {
+            final Xml.Document document = (Xml.Document) sourceFile;
+            return document.withRoot(document.getRoot().withContent(null).withClosing(null)).printAll();
+        }
+        return sourceFile instanceof PlainText ? ((PlainText) sourceFile).getText() : "";
+    }
+
+    /**
+     * The <code>junit-platform.properties</code> test resource of the module containing the suite, which is the
+     * module whose <code>src</code> directory contains the suite, or the directory of the suite otherwise
+     */
+    static Path platformProperties(Path suite) {
+        Path module = suite.getParent();
+        for (Path dir = suite.getParent(); dir != null; dir = dir.getParent()) {
+            if (dir.getFileName() != null && "src".equals(dir.getFileName().toString())) {
+                module = dir.getParent();
+                break;
+            }
+        }
+        final Path resource = Paths.get("src", "test", "resources", PLATFORM_PROPERTIES);
+        return module == null ? resource : module.resolve(resource);
+    }
+}
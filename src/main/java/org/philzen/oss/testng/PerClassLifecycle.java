@@ -0,0 +1,72 @@
+package org.philzen.oss.testng;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.style.GeneralFormatStyle;
+import org.philzen.oss.utils.Annotation;
+import org.philzen.oss.utils.Format;
+import org.philzen.oss.utils.Sort;
+
+import java.util.Collections;
+
+/**
+ * Annotates a test class with <code>@TestInstance(TestInstance.Lifecycle.PER_CLASS)</code> on behalf of the steps
+ * that migrate methods which TestNG invokes on the test instance, but JUnit 5 only allows to be non-static in that
+ * lifecycle (i.e. <code>@BeforeAll</code>, <code>@AfterAll</code> and <code>@MethodSource</code> factories).
+ * <br><br>
+ * TestNG creates one instance per test class anyway, so the annotation retains the behavior of the test suite,
+ * whereas making such methods static would also require changing the fields they use.
+ * <br><br>
+ * A step {@link #request requests} the lifecycle while visiting a member, by a message on the cursor of its class,
+ * and {@link #declare declares} it when exiting the class. Several steps may do so for the same class, the
+ * annotation is only added once.
+ */
+@NonNullApi
+enum PerClassLifecycle {;
+
+    static final String TEST_INSTANCE = "org.junit.jupiter.api.TestInstance";
+
+    private static final String REQUESTED = "PER_CLASS_LIFECYCLE";
+
+    /**
+     * Requests the lifecycle for the class enclosing the cursor. If that is an anonymous class, the request is
+     * dropped along with its cursor, as only a declared class can be annotated (and run as a test class).
+     */
+    static void request(Cursor cursor) {
+        cursor.dropParentUntil(v -> v instanceof J.ClassDeclaration || v instanceof J.NewClass).putMessage(REQUESTED, true);
+    }
+
+    /**
+     * Whether the lifecycle has been requested for the class of the cursor, but not yet declared on the class
+     */
+    static boolean isPending(J.ClassDeclaration classDecl, Cursor cursor) {
+        if (cursor.getMessage(REQUESTED) == null) {
+            return false;
+        }
+
+        for (J.Annotation annotation : classDecl.getLeadingAnnotations()) {
+            if (TypeUtils.isOfClassType(annotation.getType(), TEST_INSTANCE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the annotation to the class of the cursor, formatting the declaration up to its name
+     * (the members are detached meanwhile). The caller takes care of the import.
+     */
+    static J.ClassDeclaration declare(J.ClassDeclaration classDecl, GeneralFormatStyle lineBreaks, Cursor cursor) {
+        final J.Block body = classDecl.getBody();
+        return Format.autoFormat(
+            classDecl.withLeadingAnnotations(ListUtils.insertInOrder(classDecl.getLeadingAnnotations(), Annotation.testInstancePerClass(), Sort.ABOVE))
+                .withBody(body.withStatements(Collections.emptyList())),
+            classDecl.getName(),
+            lineBreaks,
+            cursor.getParentOrThrow()
+        ).withBody(body);
+    }
+}
@@ -0,0 +1,126 @@
+package org.philzen.oss.testng;
+
+import lombok.Value;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The <code>parallel</code> and <code>thread-count</code> settings of a TestNG suite (<code>testng.xml</code>), and
+ * the JUnit Platform configuration parameters running the migrated tests with the same parallelism.
+ * <br><br>
+ * The settings are read with a StAX parser that stops at the root element, so suites generated with many
+ * thousands of <code>&lt;test&gt;</code> entries take as little time and memory as handwritten ones.
+ * <br><br>
+ * <code>parallel="methods"</code> runs all test methods concurrently. <code>parallel="classes"</code> runs the test
+ * classes concurrently but the methods of a class in the same thread, which is also the closest JUnit 5 equivalent
+ * of <code>tests</code> and <code>instances</code>. A <code>thread-count</code> maps to the <code>fixed</code>
+ * strategy with as many threads, without one the <code>dynamic</code> strategy scales with the available cores
+ * (rather than pinning TestNG's default of 5 threads).
+ */
+@Value
+@NonNullApi
+class SuiteParallelism {
+
+    static final String PREFIX = "junit.jupiter.execution.parallel.";
+
+    private static final XMLInputFactory FACTORY = newFactory();
+
+    enum Mode {METHODS, CLASSES}
+
+    Mode mode;
+
+    @Nullable
+    Integer threadCount;
+
+    /**
+     * The parallelism of the suite, or <code>null</code> if the document is no TestNG suite or does not run in parallel
+     */
+    @Nullable
+    static SuiteParallelism read(Reader suite) {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(suite);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    return "suite".equals(reader.getLocalName())
+                        ? of(reader.getAttributeValue(null, "parallel"), reader.getAttributeValue(null, "thread-count"))
+                        : null;
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+    }
+
+    @Nullable
+    static SuiteParallelism of(@Nullable String parallel, @Nullable String threadCount) {
+        if (parallel == null) {
+            return null;
+        }
+
+        final Mode mode;
+        switch (parallel.trim()) {
+            case "methods":
+            case "true": // deprecated alias of "methods"
+                mode = Mode.METHODS;
+                break;
+            case "classes":
+            case "instances":
+            case "tests":
+                mode = Mode.CLASSES;
+                break;
+            default:
+                return null;
+        }
+
+        Integer threads = null;
+        if (threadCount != null) {
+            try {
+                threads = Integer.parseInt(threadCount.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return new SuiteParallelism(mode, threads != null && threads > 0 ? threads : null);
+    }
+
+    /**
+     * The configuration parameters (without the common prefix {@value #PREFIX}), in the order they are to be written
+     */
+    Map<String, String> parameters() {
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("enabled", "true");
+        parameters.put("mode.default", mode == Mode.METHODS ? "concurrent" : "same_thread");
+        parameters.put("mode.classes.default", "concurrent");
+        if (threadCount == null) {
+            parameters.put("config.strategy", "dynamic");
+        } else {
+            parameters.put("config.strategy", "fixed");
+            parameters.put("config.fixed.parallelism", threadCount.toString());
+        }
+        return parameters;
+    }
+
+    private static XMLInputFactory newFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        // the DOCTYPE of a suite references the TestNG DTD, which must neither be fetched nor expanded
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
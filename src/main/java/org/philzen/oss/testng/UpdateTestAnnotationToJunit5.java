@@ -1,23 +1,27 @@
 package org.philzen.oss.testng;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
+import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
 import org.openrewrite.Preconditions;
-import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.NonNullApi;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.AnnotationMatcher;
-import org.openrewrite.java.ChangeType;
-import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.FindImports;
-import org.openrewrite.java.search.UsesType;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
+import org.openrewrite.style.GeneralFormatStyle;
+import org.philzen.oss.engine.Dispatcher;
+import org.philzen.oss.engine.MigrationStep;
+import org.philzen.oss.table.MigrationProfile;
 import org.philzen.oss.utils.Class;
 import org.philzen.oss.utils.*;
 
@@ -26,7 +30,25 @@ import java.util.*;
 @Value
 @NonNullApi
 @EqualsAndHashCode(callSuper = true)
-public class UpdateTestAnnotationToJunit5 extends Recipe {
+public class UpdateTestAnnotationToJunit5 extends ScanningRecipe<DataProviderIndex> {
+
+    @Option(displayName = "Profile",
+        description = "Insert a row with the wall time and the work done per migrated source file into the "
+            + "`MigrationProfile` data table.",
+        required = false)
+    @Nullable
+    Boolean profile;
+
+    transient MigrationProfile migrationProfile = new MigrationProfile(this);
+
+    public UpdateTestAnnotationToJunit5() {
+        this(null);
+    }
+
+    @JsonCreator
+    public UpdateTestAnnotationToJunit5(@Nullable @JsonProperty("profile") Boolean profile) {
+        this.profile = profile;
+    }
 
     @Override
     public String getDisplayName() {
@@ -41,11 +63,46 @@ public class UpdateTestAnnotationToJunit5 extends Recipe {
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor() {
-        return Preconditions.check(Preconditions.or(
-                new UsesType<>(TESTNG_TYPE, false),
-                new FindImports(TESTNG_TYPE, null).getVisitor()
-        ), new UpdateTestAnnotationToJunit5Visitor());
+    public DataProviderIndex getInitialValue(ExecutionContext ctx) {
+        return new DataProviderIndex();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(DataProviderIndex dataProviders) {
+        return dataProviders.scanner();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(DataProviderIndex dataProviders) {
+        return Preconditions.check(
+            Preconditions.or(Usage.of(TESTNG_TYPE), Usage.of(DataProviders.DATA_PROVIDER)),
+            Dispatcher.of(step(dataProviders))
+        );
+    }
+
+    /**
+     * This migration as a step to be fused with others into a single {@link Dispatcher}, without any data providers
+     * of other classes
+     */
+    public MigrationStep step() {
+        return step(new DataProviderIndex());
+    }
+
+    /**
+     * This migration as a step to be fused with others into a single {@link Dispatcher}
+     * @param dataProviders the data providers of all classes, as collected by the scanning phase
+     */
+    public MigrationStep step(DataProviderIndex dataProviders) {
+        return step(dataProviders, Boolean.TRUE.equals(profile) ? migrationProfile : null);
+    }
+
+    /**
+     * This migration as a step of another recipe, which declares the data table to profile into
+     * @param dataProviders the data providers of all classes, as collected by the scanning phase
+     * @param profile the data table of the fusing recipe, or <code>null</code> if not profiling
+     */
+    public static MigrationStep step(DataProviderIndex dataProviders, @Nullable MigrationProfile profile) {
+        return new UpdateTestAnnotationToJunit5Step(profile, dataProviders);
     }
 
     public static final String TESTNG_TYPE = "org.testng.annotations.Test";
@@ -59,182 +116,471 @@ public class UpdateTestAnnotationToJunit5 extends Recipe {
     public static final String EXPECTED_EXCEPTIONS_MSG_REG_EXP = "expectedExceptionsMessageRegExp";
     public static final String GROUPS = "groups";
     public static final String TIMEOUT = "timeOut";
-    public static final Set<String> supportedAttributes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
-        DESCRIPTION, ENABLED, EXPECTED_EXCEPTIONS, EXPECTED_EXCEPTIONS_MSG_REG_EXP, GROUPS, TIMEOUT
-    )));
+    public static final String DATA_PROVIDER = "dataProvider";
+    public static final String DATA_PROVIDER_CLASS = "dataProviderClass";
+
+    /**
+     * The names of the <code>@Test</code> attributes that can be migrated, as per {@link Attribute}
+     */
+    public static final Set<String> supportedAttributes = Attribute.BY_NAME.keySet();
+
+    public static final String JUPITER_PARAMETERIZED_TEST = "org.junit.jupiter.params.ParameterizedTest";
+    public static final String JUPITER_METHOD_SOURCE = "org.junit.jupiter.params.provider.MethodSource";
+
+    /**
+     * The <code>@Test</code> attributes that can be migrated, see {@link #classify}
+     */
+    enum Attribute {
+        DESCRIPTION(UpdateTestAnnotationToJunit5.DESCRIPTION),
+        ENABLED(UpdateTestAnnotationToJunit5.ENABLED),
+        EXPECTED_EXCEPTIONS(UpdateTestAnnotationToJunit5.EXPECTED_EXCEPTIONS),
+        EXPECTED_EXCEPTIONS_MSG_REG_EXP(UpdateTestAnnotationToJunit5.EXPECTED_EXCEPTIONS_MSG_REG_EXP),
+        GROUPS(UpdateTestAnnotationToJunit5.GROUPS),
+        TIMEOUT(UpdateTestAnnotationToJunit5.TIMEOUT),
+        DATA_PROVIDER(UpdateTestAnnotationToJunit5.DATA_PROVIDER),
+        DATA_PROVIDER_CLASS(UpdateTestAnnotationToJunit5.DATA_PROVIDER_CLASS);
+
+        static final Map<String, Attribute> BY_NAME;
+
+        static {
+            final Map<String, Attribute> byName = new LinkedHashMap<>();
+            for (Attribute attribute : values()) {
+                byName.put(attribute.attributeName, attribute);
+            }
+            BY_NAME = Collections.unmodifiableMap(byName);
+        }
+
+        /**
+         * The name of the attribute in TestNG's <code>@Test</code>
+         */
+        final String attributeName;
+
+        Attribute(String attributeName) {
+            this.attributeName = attributeName;
+        }
+
+        @Nullable
+        static Attribute of(String name) {
+            return BY_NAME.get(name);
+        }
+    }
+
+    /**
+     * Classifies an argument of a method-level TestNG <code>@Test</code> annotation, without changing anything.
+     * <br><br>
+     * Shared by the migration and by {@link EstimateTestAnnotationMigration}, so that the estimate counts exactly
+     * what the migration would do.
+     *
+     * @param methodSource the resolved {@link #methodSource} of the annotation
+     * @return the attribute the argument assigns, or <code>null</code> if it is a misfit to be retained for review
+     */
+    @Nullable
+    static Attribute classify(J.Assignment argument, @Nullable String methodSource) {
+        final Attribute attribute = Attribute.of(((J.Identifier) argument.getVariable()).getSimpleName());
+        // a provider that can't be resolved
+        return (attribute == Attribute.DATA_PROVIDER || attribute == Attribute.DATA_PROVIDER_CLASS) && methodSource == null
+            ? null
+            : attribute;
+    }
+
+    /**
+     * Resolves the <code>dataProvider</code> (and <code>dataProviderClass</code>) arguments, if any,
+     * to the factory method for <code>@MethodSource</code>
+     */
+    @Nullable
+    static String methodSource(
+        List<Expression> arguments, Map<String, String> dataProviders, DataProviderIndex sharedDataProviders
+    ) {
+        final String name = DataProviders.providerName(arguments);
+        if (name == null) {
+            return null;
+        }
+
+        final Expression providerClass = DataProviders.attribute(arguments, DATA_PROVIDER_CLASS);
+        if (providerClass == null) {
+            return dataProviders.get(name);
+        }
+
+        final JavaType.FullyQualified type = DataProviders.type(providerClass);
+        final String method = type == null ? null : sharedDataProviders.method(type.getFullyQualifiedName(), name);
+        return method == null ? null : type.getFullyQualifiedName() + '#' + method;
+    }
 
     // inspired by https://github.com/openrewrite/rewrite-testing-frameworks/blob/4e8ba68b2a28a180f84de7bab9eb12b4643e342e/src/main/java/org/openrewrite/java/testing/junit5/UpdateTestAnnotation.java#
-    private static class UpdateTestAnnotationToJunit5Visitor extends JavaIsoVisitor<ExecutionContext> {
+    @RequiredArgsConstructor
+    private static class UpdateTestAnnotationToJunit5Step implements MigrationStep {
 
         private static final AnnotationMatcher TESTNG_TEST = new AnnotationMatcher("@org.testng.annotations.Test");
 
-        private final JavaTemplate displayNameAnnotation = JavaTemplate
-                .builder("@DisplayName(#{any(java.lang.String)})")
-                .imports(JUPITER_API_NAMESPACE + ".DisplayName")
-                .javaParser(Parser.jupiter()).build();
+        /**
+         * Message on the cursor of each class, holding the data providers {@link DataProviders#consumed} by its tests
+         */
+        private static final String DATA_PROVIDERS = "DATA_PROVIDERS";
 
-        private final JavaTemplate disabledAnnotation = JavaTemplate
-                .builder("@Disabled")
-                .imports(JUPITER_API_NAMESPACE + ".Disabled")
-                .javaParser(Parser.jupiter()).build();
+        /**
+         * The table to insert a row per visited compilation unit into, or <code>null</code> if not profiling
+         */
+        @Nullable
+        private final MigrationProfile profile;
 
-        private final JavaTemplate junitExecutable = JavaTemplate
-                .builder(JUPITER_API_NAMESPACE + ".function.Executable o = () -> #{};")
-                .javaParser(Parser.jupiter()).build();
+        private final DataProviderIndex sharedDataProviders;
 
-        private final JavaTemplate tagAnnotation = JavaTemplate
-                .builder("@Tag(#{any(java.lang.String)})")
-                .imports(JUPITER_API_NAMESPACE + ".Tag")
-                .javaParser(Parser.jupiter()).build();
+        @Nullable
+        private MigrationProfile.Recorder recorder;
 
-        private final JavaTemplate timeoutAnnotation = JavaTemplate
-                .builder("@Timeout(value = #{any(long)}, unit = TimeUnit.MILLISECONDS)")
-                .imports(JUPITER_API_NAMESPACE + ".Timeout", "java.util.concurrent.TimeUnit")
-                .javaParser(Parser.jupiter()).build();
+        @SuppressWarnings("NotNullFieldNotInitialized") // set on registration
+        private Dispatcher dispatcher;
+
+        /**
+         * Line break style of the visited compilation unit, detected on the first {@link #autoFormat} call
+         */
+        @Nullable
+        private GeneralFormatStyle lineBreaks;
+
+        /**
+         * Whether any TestNG type reference in the visited compilation unit has been changed to JUnit 5
+         */
+        private boolean typeChanged;
+
+        /**
+         * Whether any of the changed references uses the simple name, thus requiring the JUnit 5 import
+         */
+        private boolean simpleNameChanged;
 
         @Override
-        public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
-            cu = super.visitCompilationUnit(cu, ctx);
-            if (cu.findType(TESTNG_TYPE).isEmpty()) {
-                return cu;
+        public void register(Dispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+            dispatcher.enter(J.CompilationUnit.class, this::enterCompilationUnit);
+            dispatcher.exit(J.CompilationUnit.class, this::exitCompilationUnit);
+            dispatcher.enter(J.ClassDeclaration.class, this::enterClassDeclaration);
+            dispatcher.exit(J.ClassDeclaration.class, this::exitClassDeclaration);
+            dispatcher.enter(J.MethodDeclaration.class, this::enterMethodDeclaration);
+            dispatcher.enter(J.FieldAccess.class, this::enterFieldAccess);
+            dispatcher.exit(J.Identifier.class, this::exitIdentifier);
+        }
+
+        /**
+         * Whether the visited compilation unit uses TestNG's <code>@Test</code>, otherwise only providers
+         * in the {@link #sharedDataProviders} are migrated
+         */
+        private boolean hasTests;
+
+        /**
+         * Compilation units with TestNG tests, or data providers that tests in other files may reference
+         */
+        @Override
+        public boolean isApplicable(J.CompilationUnit cu, ExecutionContext ctx) {
+            final Usage.Summary usage = Usage.summarize(cu, ctx);
+            return usage.uses(TESTNG_TYPE) || sharedDataProviders.size() > 0 && usage.uses(DataProviders.DATA_PROVIDER);
+        }
+
+        private J.CompilationUnit enterCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            hasTests = Usage.summarize(cu, ctx).uses(TESTNG_TYPE);
+            typeChanged = simpleNameChanged = false;
+            recorder = profile == null ? null : new MigrationProfile.Recorder();
+            lineBreaks = null;
+            return cu;
+        }
+
+        private J.CompilationUnit exitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            if (typeChanged) {
+                dispatcher.maybeRemoveImport(TESTNG_TYPE);
+            }
+            if (simpleNameChanged) {
+                dispatcher.maybeAddImport(JUPITER_TYPE);
             }
 
-            maybeRemoveImport(TESTNG_TYPE);
-            return (J.CompilationUnit) 
-                new ChangeType(TESTNG_TYPE, JUPITER_TYPE, true).getVisitor().visitNonNull(cu, ctx);
+            if (recorder != null) {
+                recorder.insertRow(Objects.requireNonNull(profile), ctx, cu.getSourcePath().toString(), typeChanged);
+            }
+            return cu;
         }
 
-        @Override
-        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+        private <J2 extends J> J2 autoFormat(J2 j, @Nullable J stopAfter, Cursor cursor) {
+            return Format.autoFormat(j, stopAfter, lineBreaks(cursor), cursor);
+        }
+
+        private GeneralFormatStyle lineBreaks(Cursor cursor) {
+            if (lineBreaks == null) {
+                lineBreaks = Format.lineBreaks(cursor.firstEnclosingOrThrow(JavaSourceFile.class));
+            }
+            return lineBreaks;
+        }
+
+        private void count(MigrationProfile.Counter counter) {
+            if (recorder != null) {
+                recorder.increment(counter);
+            }
+        }
+
+        /**
+         * Changes remaining TestNG <code>Test</code> references (i.e. <code>Test.class</code> or the type of
+         * a method-level annotation that has been stripped of its attributes) to the JUnit 5 type.
+         * <br>
+         * Misfit annotations are changed as well, so that they are not picked up again on the next recipe cycle.
+         * Imports are left to {@link Dispatcher#maybeRemoveImport(String)} and {@link Dispatcher#maybeAddImport(String)}.
+         */
+        private J.Identifier exitIdentifier(J.Identifier i, ExecutionContext ctx) {
+            if (!TypeUtils.isOfClassType(i.getType(), TESTNG_TYPE) || isInImport()) {
+                return i;
+            }
+
+            typeChanged = true;
+            // a misfit annotation is identified by its fully qualified name and doesn't need the JUnit 5 import 
+            simpleNameChanged |= !i.getSimpleName().equals(TESTNG_TYPE);
+            return i.withType(Annotation.test(false).getType());
+        }
+
+        /**
+         * Changes fully qualified TestNG <code>Test</code> references (also in javadoc) to the JUnit 5 type
+         */
+        private J.FieldAccess enterFieldAccess(J.FieldAccess fieldAccess, ExecutionContext ctx) {
+            if (!fieldAccess.isFullyQualifiedClassReference(TESTNG_TYPE) || isInImport()) {
+                return fieldAccess;
+            }
+
+            typeChanged = true;
+            return ((J.FieldAccess) Annotation.test(true).getAnnotationType())
+                .withPrefix(fieldAccess.getPrefix()).withMarkers(fieldAccess.getMarkers());
+        }
+
+        private boolean isInImport() {
+            return dispatcher.getCursor().firstEnclosing(J.Import.class) != null;
+        }
+
+        private J.ClassDeclaration enterClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            // put on every class, so that an inner class doesn't resolve the providers of the enclosing one
+            dispatcher.getCursor().putMessage(DATA_PROVIDERS, DataProviders.consumed(classDecl));
+
             final J.Annotation testngAnnotation = Class.getAnnotation(classDecl, TESTNG_TEST);
             if (testngAnnotation != null) {
-                final AnnotationVisitor av = new AnnotationVisitor(Collections.emptySet());
-                av.visitAnnotation(testngAnnotation, ctx);
-                if (av.misfit != null) {
+                // none of the attributes can be migrated on class level
+                final Attributes attributes = Attributes.parse(testngAnnotation, null, sharedDataProviders);
+                if (attributes.misfit != null) {
+                    count(MigrationProfile.Counter.MISFITS);
+                    // only the declaration up to the name is formatted, the members are detached meanwhile
+                    final J.Block body = classDecl.getBody();
                     classDecl = autoFormat(
-                        classDecl.withLeadingAnnotations(ListUtils.concat(classDecl.getLeadingAnnotations(), av.misfit)), 
-                        ctx
-                    );
+                        classDecl.withLeadingAnnotations(ListUtils.concat(classDecl.getLeadingAnnotations(), attributes.misfit))
+                            .withBody(body.withStatements(Collections.emptyList())),
+                        classDecl.getName(),
+                        dispatcher.getCursor().getParentOrThrow()
+                    ).withBody(body);
                 }
 
                 classDecl = Cleanup.removeAnnotation(classDecl, testngAnnotation);
-                getCursor().putMessage(
-                    // don't know a good way to determine if annotation is fully qualified, therefore determining
-                    // it from the toString() method and passing on a code template for the JavaTemplate.Builder
-                    "ADD_TO_ALL_METHODS", "@" + (testngAnnotation.toString().contains(".") ? JUPITER_TYPE : "Test")
-                );
+                // the JUnit 5 annotation added to the methods is written the same way as the TestNG one was
+                final boolean fullyQualified = Name.isQualified(testngAnnotation.getAnnotationType());
+                typeChanged = true;
+                simpleNameChanged |= !fullyQualified;
+                dispatcher.getCursor().putMessage("ADD_TO_ALL_METHODS", fullyQualified);
             }
 
-            return super.visitClassDeclaration(classDecl, ctx);
+            return classDecl;
         }
 
-        @Override
-        public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration m, ExecutionContext ctx) {
-            final AnnotationVisitor av = new AnnotationVisitor(supportedAttributes);
-            m = (J.MethodDeclaration) av.visitNonNull(m, ctx, getCursor().getParentOrThrow());
+        /**
+         * Declares the {@link PerClassLifecycle} if a data provider that is not static has been migrated
+         */
+        private J.ClassDeclaration exitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            final Cursor cursor = dispatcher.getCursor();
+            if (!PerClassLifecycle.isPending(classDecl, cursor)) {
+                return classDecl;
+            }
 
-            if (av.misfit != null) {
-                // add the non-migratable TestNG annotation alongside the new JUnit5 annotation
-                m = autoFormat(m.withLeadingAnnotations(ListUtils.concat(m.getLeadingAnnotations(), av.misfit)), ctx);
+            dispatcher.maybeAddImport(PerClassLifecycle.TEST_INSTANCE);
+            return PerClassLifecycle.declare(classDecl, lineBreaks(cursor), cursor);
+        }
+
+        private J.MethodDeclaration enterMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+            count(MigrationProfile.Counter.METHODS);
+            final J.Annotation dataProvider = DataProviders.getAnnotation(method);
+            if (dataProvider != null) {
+                return migrateDataProvider(method, dataProvider);
+            }
+            return migrate(method, ctx);
+        }
+
+        /**
+         * Turns a data provider that consumers are migrated to use as <code>@MethodSource</code> into a plain factory
+         * method, i.e. one that tests of its class have {@link DataProviders#consumed} or tests of any class
+         * {@link DataProviderIndex#isConsumed consume} by <code>dataProviderClass</code>. Others keep the annotation
+         * for the consumers that remain TestNG ones.
+         */
+        private J.MethodDeclaration migrateDataProvider(J.MethodDeclaration m, J.Annotation dataProvider) {
+            final Cursor cursor = dispatcher.getCursor();
+            final Object enclosing = cursor.getParentTreeCursor().getParentTreeCursor().getValue();
+            final String name = DataProviders.name(m);
+            if (name == null || !(enclosing instanceof J.ClassDeclaration)) {
+                return m;
+            }
+
+            final Map<String, String> dataProviders = cursor.getNearestMessage(DATA_PROVIDERS);
+            final boolean local = hasTests && dataProviders != null && m.getSimpleName().equals(dataProviders.get(name));
+            final boolean isStatic = m.hasModifier(J.Modifier.Type.Static);
+            final JavaType.FullyQualified type = ((J.ClassDeclaration) enclosing).getType();
+            final boolean shared = isStatic && type != null
+                && m.getSimpleName().equals(sharedDataProviders.method(type.getFullyQualifiedName(), name))
+                && sharedDataProviders.isConsumed(type.getFullyQualifiedName(), name);
+            if (!local && !shared) {
+                return m;
             }
 
-            if (av.parsed.isEmpty()) { // no attributes need to be migrated
-                final String neededOnAllMethods = getCursor().getNearestMessage("ADD_TO_ALL_METHODS");
-                if (neededOnAllMethods == null || Method.hasAnnotation(m, neededOnAllMethods) || m.isConstructor()
-                    || !Method.isPublic(m) || Boolean.TRUE.equals(Method.isContainedInInnerClass(m))) {
-                    return m;
+            if (!isStatic) {
+                PerClassLifecycle.request(cursor);
+            }
+            dispatcher.maybeRemoveImport(DataProviders.DATA_PROVIDER);
+            return Cleanup.removeAnnotation(m, dataProvider);
+        }
+
+        private J.MethodDeclaration migrate(J.MethodDeclaration m, ExecutionContext ctx) {
+            J.Annotation found = Method.getAnnotation(m, TESTNG_TEST);
+            if (found == null || found.getArguments() == null) {
+                return addToAllMethods(m, ctx);
+            }
+
+            if (!m.getLeadingAnnotations().contains(found)) { // written after a modifier, moved to the last leading
+                m = autoFormatHead(Method.toLeadingAnnotation(m, found), ctx);
+                found = m.getLeadingAnnotations().get(m.getLeadingAnnotations().size() - 1);
+            }
+            final J.Annotation testngAnnotation = found;
+
+            final Attributes attributes = Attributes.parse(
+                testngAnnotation, dispatcher.getCursor().getNearestMessage(DATA_PROVIDERS), sharedDataProviders
+            );
+            // remove all attribute arguments (JUnit 5 @Test annotation doesn't allow any),
+            // a test consuming a data provider becomes a @ParameterizedTest instead
+            final String methodSource = attributes.methodSource;
+            if (methodSource != null) {
+                typeChanged = true;
+                dispatcher.maybeAddImport(JUPITER_PARAMETERIZED_TEST);
+                dispatcher.maybeAddImport(JUPITER_METHOD_SOURCE);
+                final int separator = methodSource.indexOf('#');
+                if (separator > 0) { // the import of the dataProviderClass may have become unused
+                    final String providerClass = methodSource.substring(0, separator);
+                    final int nested = providerClass.indexOf('$');
+                    dispatcher.maybeRemoveImport(nested > 0 ? providerClass.substring(0, nested) : providerClass);
                 }
-                
-                return JavaTemplate.builder(neededOnAllMethods).javaParser(Parser.jupiter())
-                    .imports(JUPITER_TYPE).build()
-                    .apply(getCursor(), m.getCoordinates().addAnnotation(Sort.BELOW));
+            }
+            m = m.withLeadingAnnotations(ListUtils.map(m.getLeadingAnnotations(), a -> a != testngAnnotation ? a
+                : methodSource != null ? Annotation.parameterizedTest().withPrefix(a.getPrefix()) : a.withArguments(null)
+            ));
+            if (methodSource != null) {
+                m = addAnnotation(m, Annotation.methodSource(methodSource), Sort.BELOW, ctx);
             }
 
-            if (av.had(DESCRIPTION) && !J.Literal.isLiteralValue(av.get(DESCRIPTION), "")) {
-                maybeAddImport(JUPITER_API_NAMESPACE + ".DisplayName");
-                m = displayNameAnnotation.apply(
-                    updateCursor(m), m.getCoordinates().addAnnotation(Sort.BELOW), av.get(DESCRIPTION)
-                );
+            if (attributes.misfit != null) {
+                // add the non-migratable TestNG annotation alongside the new JUnit5 annotation
+                count(MigrationProfile.Counter.MISFITS);
+                m = autoFormatHead(m.withLeadingAnnotations(ListUtils.concat(m.getLeadingAnnotations(), attributes.misfit)), ctx);
+            }
+
+            if (attributes.isEmpty()) { // no attributes need to be migrated
+                return addToAllMethods(m, ctx);
             }
 
-            if (J.Literal.isLiteralValue(av.get(ENABLED), Boolean.FALSE)) {
-                maybeAddImport(JUPITER_API_NAMESPACE + ".Disabled");
-                m = disabledAnnotation.apply(updateCursor(m), m.getCoordinates().addAnnotation(Sort.BELOW));
+            if (attributes.had(Attribute.DESCRIPTION) && !J.Literal.isLiteralValue(attributes.get(Attribute.DESCRIPTION), "")) {
+                dispatcher.maybeAddImport(JUPITER_API_NAMESPACE + ".DisplayName");
+                count(MigrationProfile.Counter.DISPLAY_NAME);
+                m = addAnnotation(m, Annotation.displayName(Objects.requireNonNull(attributes.get(Attribute.DESCRIPTION))), Sort.BELOW, ctx);
             }
 
-            final Expression expectedExceptionsValue = av.get(EXPECTED_EXCEPTIONS);
+            if (J.Literal.isLiteralValue(attributes.get(Attribute.ENABLED), Boolean.FALSE)) {
+                dispatcher.maybeAddImport(JUPITER_API_NAMESPACE + ".Disabled");
+                count(MigrationProfile.Counter.DISABLED);
+                m = addAnnotation(m, Annotation.disabled(), Sort.BELOW, ctx);
+            }
+
+            final Expression expectedExceptionsValue = attributes.get(Attribute.EXPECTED_EXCEPTIONS);
             final Expression firstExpectedException = (expectedExceptionsValue instanceof J.NewArray)
                 // if attribute was given in { array form }, pick the first element (null is not allowed)
                 ? Objects.requireNonNull(((J.NewArray) expectedExceptionsValue).getInitializer()).get(0)
                 : expectedExceptionsValue;
-            if (firstExpectedException instanceof J.FieldAccess
+            if (firstExpectedException instanceof J.FieldAccess && m.getBody() != null
                 // TestNG actually allows any type of Class here, however anything but a Throwable doesn't make sense 
                 && TypeUtils.isAssignableTo("java.lang.Throwable", ((J.FieldAccess) firstExpectedException).getTarget().getType()))
             {
-                m = junitExecutable.apply(updateCursor(m), m.getCoordinates().replaceBody(), m.getBody());
-
-                maybeAddImport(JUPITER_ASSERTIONS_TYPE);
-                final List<Object> parameters = Arrays.asList(firstExpectedException, Method.getFirstStatementLambdaAssignment(m));
-                final String code = "Assertions.assertThrows(#{any(java.lang.Class)}, #{any(org.junit.jupiter.api.function.Executable)});";
-                if (!(av.get(EXPECTED_EXCEPTIONS_MSG_REG_EXP) instanceof J.Literal)) {
-                    m = JavaTemplate.builder(code).javaParser(Parser.jupiter())
-                        .imports(JUPITER_ASSERTIONS_TYPE).build()
-                        .apply(updateCursor(m), m.getCoordinates().replaceBody(), parameters.toArray());
-                } else {
-                    m = JavaTemplate.builder(
-                            "final Throwable thrown = " + code + System.lineSeparator()
-                                + "Assertions.assertTrue(thrown.getMessage().matches(#{any(java.lang.String)}));"
-                        ).javaParser(Parser.jupiter()).imports(JUPITER_ASSERTIONS_TYPE).build()
-                        .apply(
-                            updateCursor(m), 
-                            m.getCoordinates().replaceBody(), 
-                            ListUtils.concat(parameters, av.get(EXPECTED_EXCEPTIONS_MSG_REG_EXP)).toArray()
-                        );
-                }
+                count(MigrationProfile.Counter.ASSERT_THROWS);
+                dispatcher.maybeAddImport(JUPITER_ASSERTIONS_TYPE);
+                final Expression messageRegExp = attributes.get(Attribute.EXPECTED_EXCEPTIONS_MSG_REG_EXP);
+                m = AssertThrows.wrap(
+                    m,
+                    (J.FieldAccess) firstExpectedException,
+                    messageRegExp instanceof J.Literal ? messageRegExp : null,
+                    dispatcher.updateCursor(m)
+                );
             }
 
-            if (av.had(GROUPS)) {
-                final Expression groupsValue = av.get(GROUPS); 
-                maybeAddImport(JUPITER_API_NAMESPACE + ".Tag");
+            if (attributes.had(Attribute.GROUPS)) {
+                final Expression groupsValue = attributes.get(Attribute.GROUPS);
+                dispatcher.maybeAddImport(JUPITER_API_NAMESPACE + ".Tag");
                 if (groupsValue instanceof J.Literal && !J.Literal.isLiteralValue(groupsValue, "")) {
-                    m = tagAnnotation.apply(updateCursor(m), m.getCoordinates().addAnnotation(Sort.BELOW), groupsValue);
+                    count(MigrationProfile.Counter.TAG);
+                    m = addAnnotation(m, Annotation.tag(groupsValue), Sort.BELOW, ctx);
                 } else if (groupsValue instanceof J.NewArray && ((J.NewArray) groupsValue).getInitializer() != null) {
                     final List<Expression> groups = ((J.NewArray) groupsValue).getInitializer();
                     for (Expression group : groups) {
                         if (group instanceof J.Empty) { 
                             continue; 
                         }
-                        m = tagAnnotation.apply(updateCursor(m), m.getCoordinates().addAnnotation(Sort.BELOW), group);
+                        count(MigrationProfile.Counter.TAG);
+                        m = addAnnotation(m, Annotation.tag(group), Sort.BELOW, ctx);
                     }
                 }
             }
 
-            if (av.had(TIMEOUT)) {
-                maybeAddImport("java.util.concurrent.TimeUnit");
-                maybeAddImport(JUPITER_API_NAMESPACE + ".Timeout");
-                m = timeoutAnnotation.apply(updateCursor(m), m.getCoordinates().addAnnotation(Sort.ABOVE), av.get(TIMEOUT));
+            if (attributes.had(Attribute.TIMEOUT)) {
+                dispatcher.maybeAddImport("java.util.concurrent.TimeUnit");
+                dispatcher.maybeAddImport(JUPITER_API_NAMESPACE + ".Timeout");
+                count(MigrationProfile.Counter.TIMEOUT);
+                m = addAnnotation(m, Annotation.timeout(Objects.requireNonNull(attributes.get(Attribute.TIMEOUT))), Sort.ABOVE, ctx);
             }
 
             return m;
         }
 
         /**
-         * Parses annotation arguments, stores those that are migratable in a map (member <code>parsed</code>) 
-         * and removes all arguments from the visited <code>@Test</code>-annotation.
+         * Adds the JUnit 5 annotation to public methods of a class that was annotated with TestNG's <code>@Test</code>
+         */
+        private J.MethodDeclaration addToAllMethods(J.MethodDeclaration m, ExecutionContext ctx) {
+            final Boolean fullyQualified = dispatcher.getCursor().getNearestMessage("ADD_TO_ALL_METHODS");
+            if (fullyQualified == null || Method.hasAnnotation(m, fullyQualified ? JUPITER_TYPE : "Test")
+                || m.isConstructor() || !Method.isPublic(m) || Boolean.TRUE.equals(Method.isContainedInInnerClass(m))) {
+                return m;
+            }
+
+            return addAnnotation(m, Annotation.test(fullyQualified), Sort.BELOW, ctx);
+        }
+
+        /**
+         * Inserts the annotation the same way {@link JavaTemplate} does for
+         * {@link JavaCoordinates#addAnnotation(Comparator)}, without parsing a template stub
+         */
+        private J.MethodDeclaration addAnnotation(
+            J.MethodDeclaration m, J.Annotation annotation, Comparator<J.Annotation> order, ExecutionContext ctx
+        ) {
+            return autoFormatHead(
+                m.withLeadingAnnotations(ListUtils.insertInOrder(m.getLeadingAnnotations(), annotation, order)), ctx
+            );
+        }
+
+        /**
+         * Formats the declaration up to the method name. The body is detached meanwhile,
+         * so that the cost doesn't depend on its size.
+         */
+        private J.MethodDeclaration autoFormatHead(J.MethodDeclaration m, ExecutionContext ctx) {
+            final J.Block body = m.getBody();
+            return autoFormat(m.withBody(null), m.getName(), dispatcher.getCursor().getParentOrThrow()).withBody(body);
+        }
+
+        /**
+         * The arguments of a TestNG <code>@Test</code> annotation, read from the annotation alone (i.e. without
+         * traversing the annotated declaration). Migratable values are stored by their {@link Attribute}.
          * <br>
-         * The {@link AnnotationVisitor#misfit}-field will hold a fully qualified NgUnit @Test annotation 
+         * The {@link Attributes#misfit}-field will hold a fully qualified NgUnit @Test annotation 
          * retaining any arguments that are not migratable, if any were encountered. 
          */
-        @RequiredArgsConstructor
-        private static class AnnotationVisitor extends JavaIsoVisitor<ExecutionContext> {
-
-            private final Set<String> supportedAttributes;
-            
-            /**
-             * A fully qualified TestNG @Test annotation retaining any arguments that are not migratable 
-             * or <code>null</code>, if none such arguments were encountered
-             */
-            J.Annotation misfit = null;
+        private static final class Attributes {
 
             static final String MISFIT_COMMENT = " ❗\uFE0F ❗\uFE0F ❗\uFE0F\n"
                 + "   At least one `@Test`-attribute could not be migrated to JUnit 5. Kindly review the remainder below\n"
@@ -243,51 +589,91 @@ public class UpdateTestAnnotationToJunit5 extends Recipe {
                 + "   If you think this is a mistake or have an idea how this migration could be implemented instead, any\n"
                 + "   feedback to https://github.com/Philzen/rewrite-TestNG-to-JUnit5/issues will be greatly appreciated.\n";
 
+            private static final Attribute[] ATTRIBUTES = Attribute.values();
+
             /**
-             * A map containing the migratable annotation arguments, if TestNG annotation was found
+             * The migratable values by {@link Attribute#ordinal()}
              */
-            final Map<String, Expression> parsed = new HashMap<>(6, 100);
+            private final Expression[] values = new Expression[ATTRIBUTES.length];
 
-            public boolean had(String attribute) {
-                return parsed.containsKey(attribute);
-            }
-            
+            private boolean empty = true;
+
+            /**
+             * A fully qualified TestNG @Test annotation retaining any arguments that are not migratable 
+             * or <code>null</code>, if none such arguments were encountered
+             */
             @Nullable
-            public Expression get(String attribute) {
-                return parsed.get(attribute);
-            }
-            
-            @Override
-            public J.Annotation visitAnnotation(J.Annotation a, ExecutionContext ctx) {
-                final List<Expression> arguments = a.getArguments(); 
-                if (arguments == null || !TESTNG_TEST.matches(a)) {
-                    return a;
+            J.Annotation misfit;
+
+            /**
+             * Factory method of the migrated <code>dataProvider</code> attribute, if any, i.e. the method name for a
+             * provider of the same class, otherwise qualified by the class as in <code>a.b.Providers#method</code>
+             */
+            @Nullable
+            String methodSource;
+
+            /**
+             * @param dataProviders the {@link DataProviders#index} of the class declaring the annotated method,
+             *                      or <code>null</code> if no attributes are to be migrated (i.e. all are misfits)
+             * @param sharedDataProviders the providers of all classes, for a <code>dataProviderClass</code>
+             */
+            static Attributes parse(
+                J.Annotation a, @Nullable Map<String, String> dataProviders, DataProviderIndex sharedDataProviders
+            ) {
+                final Attributes attributes = new Attributes();
+                final List<Expression> arguments = a.getArguments();
+                if (arguments == null) {
+                    return attributes;
+                }
+
+                final boolean migratable = dataProviders != null;
+                if (migratable) {
+                    attributes.methodSource = methodSource(arguments, dataProviders, sharedDataProviders);
                 }
 
-                final List<Expression> misfitAttributes = new ArrayList<>(arguments.size());
-                for (Expression arg : arguments) {
+                List<Expression> misfitAttributes = null;
+                for (int i = 0; i < arguments.size(); i++) {
+                    final Expression arg = arguments.get(i);
+                    if (!(arg instanceof J.Assignment)) { // i.e. J.Empty of "@Test()"
+                        continue;
+                    }
+
                     final J.Assignment assign = (J.Assignment) arg;
-                    final String assignParamName = ((J.Identifier) assign.getVariable()).getSimpleName();
-                    final Expression e = assign.getAssignment();
-                    if (supportedAttributes.contains(assignParamName)) {
-                        parsed.put(assignParamName, e);
+                    final Attribute attribute = migratable ? classify(assign, attributes.methodSource) : null;
+                    if (attribute != null) {
+                        attributes.values[attribute.ordinal()] = assign.getAssignment();
+                        attributes.empty = false;
                     } else {
+                        if (misfitAttributes == null) {
+                            misfitAttributes = new ArrayList<>(arguments.size() - i);
+                        }
                         misfitAttributes.add(arg);
                     }
                 }
 
-                if (!misfitAttributes.isEmpty()) {
-                    misfit = a.withArguments(misfitAttributes)
+                if (misfitAttributes != null) {
+                    attributes.misfit = a.withArguments(misfitAttributes)
                         // ↓ change to full qualification
                         .withAnnotationType(((J.Identifier) a.getAnnotationType()).withSimpleName(TESTNG_TYPE))
                         .withPrefix(Space.build("\n", Collections.emptyList()))
                         .withComments(Collections.singletonList(
                             new TextComment(true, MISFIT_COMMENT, "\n", Markers.EMPTY))
                         );
-                } 
+                }
+                return attributes;
+            }
 
-                // remove all attribute arguments (JUnit 5 @Test annotation doesn't allow any) 
-                return a.withArguments(null);
+            boolean isEmpty() {
+                return empty;
+            }
+
+            boolean had(Attribute attribute) {
+                return values[attribute.ordinal()] != null;
+            }
+
+            @Nullable
+            Expression get(Attribute attribute) {
+                return values[attribute.ordinal()];
             }
         }
     }
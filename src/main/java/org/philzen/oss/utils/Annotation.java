@@ -0,0 +1,186 @@
+package org.philzen.oss.utils;
+
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds type-attributed JUnit Jupiter annotations without going through a {@link org.openrewrite.java.JavaTemplate}.
+ * <br><br>
+ * The annotations are copied from prototypes which are parsed with {@link Parser#jupiter()} only once per JVM,
+ * so they carry the exact same shape and {@link JavaType.Class} attribution a template would produce.
+ */
+public enum Annotation {;
+
+    private static final class PrototypeHolder {
+
+        static final String STUB = "import java.util.concurrent.TimeUnit;\n"
+            + "import org.junit.jupiter.api.AfterAll;\n"
+            + "import org.junit.jupiter.api.AfterEach;\n"
+            + "import org.junit.jupiter.api.BeforeAll;\n"
+            + "import org.junit.jupiter.api.BeforeEach;\n"
+            + "import org.junit.jupiter.api.Disabled;\n"
+            + "import org.junit.jupiter.api.DisplayName;\n"
+            + "import org.junit.jupiter.api.Nested;\n"
+            + "import org.junit.jupiter.api.Tag;\n"
+            + "import org.junit.jupiter.api.Test;\n"
+            + "import org.junit.jupiter.api.TestInstance;\n"
+            + "import org.junit.jupiter.api.Timeout;\n"
+            + "import org.junit.jupiter.params.ParameterizedTest;\n"
+            + "import org.junit.jupiter.params.provider.MethodSource;\n"
+            + "class Prototypes {\n"
+            + "    @Test @Disabled @DisplayName(\"\") @Tag(\"\") @Timeout(value = 0, unit = TimeUnit.MILLISECONDS)\n"
+            + "    void simple() {}\n"
+            + "    @org.junit.jupiter.api.Test\n"
+            + "    void fullyQualified() {}\n"
+            + "    @Nested\n"
+            + "    class Inner {}\n"
+            + "    @BeforeEach @AfterEach @BeforeAll @AfterAll\n"
+            + "    void lifecycle() {}\n"
+            + "    @TestInstance(TestInstance.Lifecycle.PER_CLASS)\n"
+            + "    class PerClass {}\n"
+            + "    @ParameterizedTest @MethodSource(\"\")\n"
+            + "    void parameterized() {}\n"
+            + "}";
+
+        static final List<J.Annotation> simple;
+        static final J.Annotation fullyQualifiedTest;
+        static final J.Annotation nested;
+        static final List<J.Annotation> lifecycle;
+        static final J.Annotation perClass;
+        static final List<J.Annotation> parameterized;
+
+        static {
+            final J.CompilationUnit cu = (J.CompilationUnit) Parser.jupiter(parser -> parser
+                .parse(new InMemoryExecutionContext(), STUB)
+                .findFirst().orElseThrow(() -> new IllegalStateException("Could not parse Jupiter annotation stub")));
+
+            final List<Statement> members = cu.getClasses().get(0).getBody().getStatements();
+            simple = ((J.MethodDeclaration) members.get(0)).getLeadingAnnotations();
+            fullyQualifiedTest = ((J.MethodDeclaration) members.get(1)).getLeadingAnnotations().get(0);
+            nested = ((J.ClassDeclaration) members.get(2)).getLeadingAnnotations().get(0);
+            lifecycle = ((J.MethodDeclaration) members.get(3)).getLeadingAnnotations();
+            perClass = ((J.ClassDeclaration) members.get(4)).getLeadingAnnotations().get(0);
+            parameterized = ((J.MethodDeclaration) members.get(5)).getLeadingAnnotations();
+        }
+    }
+
+    /**
+     * <code>@Test</code> or <code>@org.junit.jupiter.api.Test</code>
+     */
+    public static J.Annotation test(boolean fullyQualified) {
+        return copy(fullyQualified ? PrototypeHolder.fullyQualifiedTest : PrototypeHolder.simple.get(0));
+    }
+
+    /**
+     * <code>@Disabled</code>
+     */
+    public static J.Annotation disabled() {
+        return copy(PrototypeHolder.simple.get(1));
+    }
+
+    /**
+     * <code>@Nested</code>
+     */
+    public static J.Annotation nested() {
+        return copy(PrototypeHolder.nested);
+    }
+
+    /**
+     * <code>@BeforeEach</code>
+     */
+    public static J.Annotation beforeEach() {
+        return copy(PrototypeHolder.lifecycle.get(0));
+    }
+
+    /**
+     * <code>@AfterEach</code>
+     */
+    public static J.Annotation afterEach() {
+        return copy(PrototypeHolder.lifecycle.get(1));
+    }
+
+    /**
+     * <code>@BeforeAll</code>
+     */
+    public static J.Annotation beforeAll() {
+        return copy(PrototypeHolder.lifecycle.get(2));
+    }
+
+    /**
+     * <code>@AfterAll</code>
+     */
+    public static J.Annotation afterAll() {
+        return copy(PrototypeHolder.lifecycle.get(3));
+    }
+
+    /**
+     * <code>@TestInstance(TestInstance.Lifecycle.PER_CLASS)</code>
+     */
+    public static J.Annotation testInstancePerClass() {
+        return copy(PrototypeHolder.perClass);
+    }
+
+    /**
+     * <code>@ParameterizedTest</code>
+     */
+    public static J.Annotation parameterizedTest() {
+        return copy(PrototypeHolder.parameterized.get(0));
+    }
+
+    /**
+     * <code>@MethodSource("methodName")</code>
+     */
+    public static J.Annotation methodSource(String methodName) {
+        final J.Annotation a = copy(PrototypeHolder.parameterized.get(1));
+        final J.Literal name = (J.Literal) a.getArguments().get(0);
+        return a.withArguments(Collections.singletonList(name.withValue(methodName).withValueSource('"' + methodName + '"')));
+    }
+
+    /**
+     * <code>@DisplayName(name)</code>
+     */
+    public static J.Annotation displayName(Expression name) {
+        return withSingleArgument(PrototypeHolder.simple.get(2), name);
+    }
+
+    /**
+     * <code>@Tag(tag)</code>
+     */
+    public static J.Annotation tag(Expression tag) {
+        return withSingleArgument(PrototypeHolder.simple.get(3), tag);
+    }
+
+    /**
+     * <code>@Timeout(value = millis, unit = TimeUnit.MILLISECONDS)</code>
+     */
+    public static J.Annotation timeout(Expression millis) {
+        final J.Annotation a = copy(PrototypeHolder.simple.get(4));
+        final List<Expression> arguments = a.getArguments();
+        final J.Assignment value = (J.Assignment) arguments.get(0);
+        return a.withArguments(Arrays.asList(
+            value.withAssignment(millis.withPrefix(value.getAssignment().getPrefix())), arguments.get(1)
+        ));
+    }
+
+    private static J.Annotation withSingleArgument(J.Annotation prototype, Expression argument) {
+        return copy(prototype).withArguments(Collections.singletonList(argument.withPrefix(Space.EMPTY)));
+    }
+
+    /**
+     * Copies the prototype with new ids, as the same annotation may be inserted many times into one source file
+     */
+    private static J.Annotation copy(J.Annotation prototype) {
+        return ((J.Annotation) new JavaIsoVisitor<Integer>() {
+            @Override
+            public J postVisit(J tree, Integer p) {
+                return tree.withId(Tree.randomId());
+            }
+        }.visitNonNull(prototype, 0)).withPrefix(Space.EMPTY);
+    }
+}
@@ -0,0 +1,131 @@
+package org.philzen.oss.utils;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.format.ShiftFormat;
+import org.openrewrite.java.tree.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds the statements that wrap a method body into <code>Assertions.assertThrows(…)</code>
+ * without going through a {@link org.openrewrite.java.JavaTemplate}.
+ * <br><br>
+ * The statements are copied from prototypes which are parsed with {@link Parser#jupiter()} only once per JVM.
+ * The wrapped body is reused as is (only shifted by one indentation level), so the cost does not depend
+ * on how large it is.
+ */
+@NonNullApi
+public enum AssertThrows {;
+
+    private static final class PrototypeHolder {
+
+        static final String STUB = "import org.junit.jupiter.api.Assertions;\n"
+            + "class Prototypes {\n"
+            + "    void simple() {\n"
+            + "        Assertions.assertThrows(Throwable.class, () -> {\n"
+            + "        });\n"
+            + "    }\n"
+            + "    void matching() {\n"
+            + "        final Throwable thrown = Assertions.assertThrows(Throwable.class, () -> {\n"
+            + "        });\n"
+            + "        Assertions.assertTrue(thrown.getMessage().matches(\"\"));\n"
+            + "    }\n"
+            + "}";
+
+        static final List<Statement> simple;
+        static final List<Statement> matching;
+
+        static {
+            final J.CompilationUnit cu = (J.CompilationUnit) Parser.jupiter(parser -> parser
+                .parse(new InMemoryExecutionContext(), STUB)
+                .findFirst().orElseThrow(() -> new IllegalStateException("Could not parse assertThrows stub")));
+
+            final List<Statement> methods = cu.getClasses().get(0).getBody().getStatements();
+            simple = Objects.requireNonNull(((J.MethodDeclaration) methods.get(0)).getBody()).getStatements();
+            matching = Objects.requireNonNull(((J.MethodDeclaration) methods.get(1)).getBody()).getStatements();
+        }
+    }
+
+    /**
+     * Replace the statements of <code>method</code>'s body with
+     * <pre><code>
+     *     Assertions.assertThrows(exception, () -> { body });
+     * </code></pre>
+     * or, if <code>messageRegExp</code> is given,
+     * <pre><code>
+     *     final Throwable thrown = Assertions.assertThrows(exception, () -> { body });
+     *     Assertions.assertTrue(thrown.getMessage().matches(messageRegExp));
+     * </code></pre>
+     * @param cursor pointing to <code>method</code>, used to look up the formatting style
+     */
+    public static J.MethodDeclaration wrap(
+        J.MethodDeclaration method, J.FieldAccess exception, @Nullable Expression messageRegExp, Cursor cursor
+    ) {
+        final J.Block body = Objects.requireNonNull(method.getBody());
+        // shifted by one level, the closing brace of the method body lines up with the statements around it
+        final J.Block lambdaBody = ShiftFormat.indent(body, cursor, 1);
+        final Space prefix = body.getEnd().getWhitespace().contains("\n")
+            ? Space.format("\n" + lambdaBody.getEnd().getIndent())
+            : Space.SINGLE_SPACE;
+
+        final J.MethodInvocation assertThrows = assertThrows(exception, lambdaBody);
+        if (messageRegExp == null) {
+            return method.withBody(body.withStatements(Collections.singletonList(assertThrows.withPrefix(prefix))));
+        }
+
+        final J.VariableDeclarations thrown = copy(PrototypeHolder.matching.get(0));
+        final J.MethodInvocation assertTrue = copy(PrototypeHolder.matching.get(1));
+        final J.MethodInvocation matches = (J.MethodInvocation) assertTrue.getArguments().get(0);
+        return method.withBody(body.withStatements(Arrays.asList(
+            thrown.withVariables(ListUtils.map(thrown.getVariables(), v -> v.withInitializer(assertThrows.withPrefix(Objects.requireNonNull(v.getInitializer()).getPrefix()))))
+                .withPrefix(prefix),
+            assertTrue.withArguments(Collections.singletonList(
+                matches.withArguments(Collections.singletonList(messageRegExp.withPrefix(Space.EMPTY)))
+            )).withPrefix(prefix)
+        )));
+    }
+
+    /**
+     * <code>Assertions.assertThrows(exception, () -> lambdaBody)</code>, attributed with the exception type
+     * as the return type like javac would for the generic method
+     */
+    private static J.MethodInvocation assertThrows(J.FieldAccess exception, J.Block lambdaBody) {
+        final J.MethodInvocation prototype = copy(PrototypeHolder.simple.get(0));
+        final J.Lambda executable = (J.Lambda) prototype.getArguments().get(1);
+        final J.MethodInvocation assertThrows = prototype.withArguments(Arrays.asList(
+            exception.withPrefix(Space.EMPTY),
+            executable.withBody(lambdaBody.withPrefix(executable.getBody().getPrefix()))
+        ));
+
+        final JavaType.Method type = assertThrows.getMethodType();
+        final JavaType exceptionType = exception.getTarget().getType();
+        if (type == null || exceptionType == null) {
+            return assertThrows;
+        }
+
+        final JavaType.Method attributed = type.withReturnType(exceptionType);
+        return assertThrows.withMethodType(attributed).withName(assertThrows.getName().withType(attributed));
+    }
+
+    /**
+     * Copies the prototype with new ids, as the same statement may be inserted many times into one source file
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends J> T copy(Statement prototype) {
+        return (T) new JavaIsoVisitor<Integer>() {
+            @Override
+            public J postVisit(J tree, Integer p) {
+                return tree.withId(Tree.randomId());
+            }
+        }.visitNonNull(prototype, 0);
+    }
+}
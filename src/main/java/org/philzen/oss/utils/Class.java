@@ -5,16 +5,19 @@ import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.tree.J;
 
-import java.util.Optional;
+import java.util.List;
 
 @NonNullApi
 public enum Class {;
     
     @Nullable
     public static J.Annotation getAnnotation(J.ClassDeclaration classDeclaration, AnnotationMatcher annotation) {
-        final Optional<J.Annotation> maybeAnnotation = classDeclaration.getLeadingAnnotations()
-            .stream().filter(annotation::matches).findFirst();
-
-        return maybeAnnotation.orElse(null);
+        final List<J.Annotation> annotations = classDeclaration.getLeadingAnnotations();
+        for (int i = 0; i < annotations.size(); i++) {
+            if (annotation.matches(annotations.get(i))) {
+                return annotations.get(i);
+            }
+        }
+        return null;
     }
 }
@@ -1,11 +1,11 @@
 package org.philzen.oss.utils;
 
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.ListUtils;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JContainer;
 import org.openrewrite.java.tree.Space;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public enum Cleanup {;
@@ -15,19 +15,22 @@ public enum Cleanup {;
      * Same could be achieved with {@link org.openrewrite.java.RemoveAnnotationVisitor}, however
      * that would also traverse the whole LST underneath the class, yielding suboptimal performance.<br><br>
      *
+     * The given class declaration is left untouched (as is the list of its leading annotations), so that
+     * it may be shared between recipe runs and threads. The annotation is matched by identity, as a copy
+     * added to the same declaration (e.g. a misfit remainder) keeps its id.<br><br>
+     *
      * Space cleaning algorithm borrowed from {@link org.openrewrite.java.RemoveAnnotationVisitor#visitClassDeclaration(J.ClassDeclaration, ExecutionContext)}
      */
     public static J.ClassDeclaration removeAnnotation(J.ClassDeclaration classDeclaration, J.Annotation a) {
 
-        classDeclaration.getLeadingAnnotations().remove(a);
-        if (!classDeclaration.getLeadingAnnotations().isEmpty()) {
-            final List<J.Annotation> newLeadingAnnotations = new ArrayList<>();
-            for (final J.Annotation other : classDeclaration.getLeadingAnnotations()) {
-                newLeadingAnnotations.add(other.withPrefix(other.getPrefix().withWhitespace("")));
-            }
-            return classDeclaration.withLeadingAnnotations(newLeadingAnnotations);
+        final List<J.Annotation> remaining = ListUtils.map(classDeclaration.getLeadingAnnotations(), other -> other == a ? null : other);
+        if (!remaining.isEmpty()) {
+            return classDeclaration.withLeadingAnnotations(
+                ListUtils.map(remaining, other -> other.withPrefix(other.getPrefix().withWhitespace("")))
+            );
         }
 
+        classDeclaration = classDeclaration.withLeadingAnnotations(remaining);
         final List<J.Modifier> modifiers = classDeclaration.getModifiers();
         if (!modifiers.isEmpty()) {
             return classDeclaration.withModifiers(Space.formatFirstPrefix(modifiers, Space.firstPrefix(modifiers).withWhitespace("")));
@@ -41,4 +44,43 @@ public enum Cleanup {;
         final J.ClassDeclaration.Padding padding = classDeclaration.getPadding();
         return padding.withKind(padding.getKind().withPrefix(padding.getKind().getPrefix().withWhitespace("")));
     }
+
+    /**
+     * Removes an annotation from a method declaration, handing its space on to whatever followed it
+     * (the next annotation, a modifier, the type parameters, the return type or the name), so that
+     * no blank line is left behind. Like {@link #removeAnnotation(J.ClassDeclaration, J.Annotation)},
+     * the annotation is matched by identity and the given declaration is left untouched.
+     */
+    public static J.MethodDeclaration removeAnnotation(J.MethodDeclaration method, J.Annotation a) {
+        final List<J.Annotation> annotations = method.getLeadingAnnotations();
+        int index = 0;
+        while (index < annotations.size() && annotations.get(index) != a) {
+            index++;
+        }
+        if (index == annotations.size()) {
+            return method;
+        }
+
+        final Space prefix = a.getPrefix();
+        final int successor = index;
+        final List<J.Annotation> remaining = ListUtils.map(annotations, other -> other == a ? null : other);
+        if (successor < remaining.size()) {
+            return method.withLeadingAnnotations(ListUtils.map(remaining, (i, other) -> i == successor ? other.withPrefix(prefix) : other));
+        }
+
+        method = method.withLeadingAnnotations(remaining);
+        if (!method.getModifiers().isEmpty()) {
+            return method.withModifiers(Space.formatFirstPrefix(method.getModifiers(), prefix));
+        }
+
+        final J.TypeParameters typeParameters = method.getAnnotations().getTypeParameters();
+        if (typeParameters != null) {
+            return method.getAnnotations().withTypeParameters(typeParameters.withPrefix(prefix));
+        }
+
+        if (method.getReturnTypeExpression() != null) {
+            return method.withReturnTypeExpression(method.getReturnTypeExpression().withPrefix(prefix));
+        }
+        return method.withName(method.getName().withPrefix(prefix));
+    }
 }
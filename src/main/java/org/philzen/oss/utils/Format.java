@@ -0,0 +1,66 @@
+package org.philzen.oss.utils;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.format.*;
+import org.openrewrite.java.style.*;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.style.GeneralFormatStyle;
+import org.openrewrite.style.Style;
+
+import java.util.Optional;
+
+/**
+ * Auto-formatting that only touches the tree up to <code>stopAfter</code>.
+ * <br><br>
+ * {@link AutoFormatVisitor} runs the same steps, but detects the line break style from the whole source file
+ * on every call (even if it's going to format a single annotation), which makes the cost of formatting
+ * grow with the size of the file. Here the caller passes it in, so it's only detected once per file.
+ */
+@NonNullApi
+public enum Format {;
+
+    /**
+     * The line break style of the source file, as {@link AutoFormatVisitor} would determine it
+     */
+    public static GeneralFormatStyle lineBreaks(JavaSourceFile cu) {
+        final GeneralFormatStyle style = cu.getStyle(GeneralFormatStyle.class);
+        return style != null ? style : AutodetectGeneralFormatStyle.autodetectGeneralFormatStyle(cu);
+    }
+
+    /**
+     * Same as {@link org.openrewrite.java.JavaVisitor#autoFormat(J, J, Object, Cursor)}
+     * with the given <code>lineBreaks</code> style
+     * @param cursor pointing to the parent of <code>j</code>
+     */
+    @SuppressWarnings("unchecked")
+    public static <J2 extends J> J2 autoFormat(J2 j, @Nullable Tree stopAfter, GeneralFormatStyle lineBreaks, Cursor cursor) {
+        final JavaSourceFile cu = j instanceof JavaSourceFile ? (JavaSourceFile) j : cursor.firstEnclosingOrThrow(JavaSourceFile.class);
+        final TabsAndIndentsStyle tabsAndIndents = style(cu, TabsAndIndentsStyle.class, IntelliJ.tabsAndIndents());
+
+        J t = new NormalizeFormatVisitor<Integer>(stopAfter).visit(j, 0, cursor.fork());
+        t = new MinimumViableSpacingVisitor<Integer>(stopAfter).visit(t, 0, cursor.fork());
+        t = new BlankLinesVisitor<Integer>(style(cu, BlankLinesStyle.class, IntelliJ.blankLines()), stopAfter)
+            .visit(t, 0, cursor.fork());
+        t = new WrappingAndBracesVisitor<Integer>(style(cu, WrappingAndBracesStyle.class, IntelliJ.wrappingAndBraces()), stopAfter)
+            .visit(t, 0, cursor.fork());
+        t = new SpacesVisitor<Integer>(
+            style(cu, SpacesStyle.class, IntelliJ.spaces()),
+            cu.getStyle(EmptyForInitializerPadStyle.class),
+            cu.getStyle(EmptyForIteratorPadStyle.class),
+            stopAfter
+        ).visit(t, 0, cursor.fork());
+        t = new NormalizeTabsOrSpacesVisitor<Integer>(tabsAndIndents, stopAfter).visit(t, 0, cursor.fork());
+        t = new TabsAndIndentsVisitor<Integer>(tabsAndIndents, stopAfter).visit(t, 0, cursor.fork());
+        t = new NormalizeLineBreaksVisitor<Integer>(lineBreaks, stopAfter).visit(t, 0, cursor.fork());
+        t = new RemoveTrailingWhitespaceVisitor<Integer>(stopAfter).visit(t, 0, cursor.fork());
+        return (J2) t;
+    }
+
+    private static <S extends Style> S style(JavaSourceFile cu, java.lang.Class<S> type, S fallback) {
+        return Optional.ofNullable(cu.getStyle(type)).orElse(fallback);
+    }
+}
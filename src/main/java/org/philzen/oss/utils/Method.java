@@ -1,9 +1,15 @@
 package org.philzen.oss.utils;
 
+import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.NonNullApi;
 import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.NameTree;
+import org.openrewrite.java.tree.Space;
+
+import java.util.List;
 
 @NonNullApi
 public enum Method {;
@@ -24,31 +30,87 @@ public enum Method {;
         return methodType.getDeclaringType().getOwningClass() != null;
     }
     
+    /**
+     * The first annotation matched, without traversing anything else of the declaration. Besides the leading
+     * annotations, this includes those written after a modifier (as in <code>public @Test void x()</code>)
+     */
+    @Nullable
+    public static J.Annotation getAnnotation(J.MethodDeclaration method, AnnotationMatcher annotation) {
+        final List<J.Annotation> annotations = method.getAllAnnotations();
+        for (int i = 0; i < annotations.size(); i++) {
+            if (annotation.matches(annotations.get(i))) {
+                return annotations.get(i);
+            }
+        }
+        return null;
+    }
+
     public static boolean isPublic(J.MethodDeclaration method) {
-        return method.getModifiers().stream().anyMatch(mod -> mod.toString().equals("public"));
+        final List<J.Modifier> modifiers = method.getModifiers();
+        for (int i = 0; i < modifiers.size(); i++) {
+            if (modifiers.get(i).getType() == J.Modifier.Type.Public) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Suppose you have a method that looks like this:
-     * <pre><code>
-     *     void method() {
-     *         Supplier<String> x = () -> { return "x" };
-     *     }
-     * </code></pre><br>
-     * Then this method will return the {@link J.Lambda} that represents <code>() -> { return "x" }</code>.
-     * @return The lambda or <code>null</code>, if no such expression exists on the first statement of the method body
+     * Moves an annotation written after a modifier (as in <code>public @Test void x()</code>), where it belongs to the
+     * following modifier or to the return type, to the end of the leading annotations. The whitespace is left to be
+     * formatted by the caller.
      */
-    @Nullable
-    public static J.Lambda getFirstStatementLambdaAssignment(J.MethodDeclaration method)  {
-        final J.Block body = method.getBody();
-        if (body == null) {
-            return null;
+    public static J.MethodDeclaration toLeadingAnnotation(J.MethodDeclaration method, J.Annotation a) {
+        final List<J.Annotation> leading = method.getLeadingAnnotations();
+        for (int i = 0; i < leading.size(); i++) {
+            if (leading.get(i) == a) {
+                return method;
+            }
         }
-        
-        return (J.Lambda) ((J.VariableDeclarations) body.getStatements().get(0)).getVariables().get(0).getInitializer();
+
+        method = method.withModifiers(ListUtils.map(method.getModifiers(),
+            modifier -> modifier.withAnnotations(ListUtils.map(modifier.getAnnotations(), other -> other == a ? null : other))
+        ));
+        if (method.getReturnTypeExpression() instanceof J.AnnotatedType) {
+            final J.AnnotatedType returnType = (J.AnnotatedType) method.getReturnTypeExpression();
+            final List<J.Annotation> remaining = ListUtils.map(returnType.getAnnotations(), other -> other == a ? null : other);
+            method = method.withReturnTypeExpression(remaining.isEmpty()
+                ? returnType.getTypeExpression().withPrefix(returnType.getPrefix())
+                : returnType.withAnnotations(remaining)
+            );
+        }
+
+        if (!leading.isEmpty()) {
+            return method.withLeadingAnnotations(ListUtils.concat(leading, a.withPrefix(Space.format(" "))));
+        }
+
+        // the annotation now precedes the modifiers, which need to be separated from it
+        method = method.withLeadingAnnotations(ListUtils.concat(leading, a.withPrefix(Space.EMPTY)));
+        if (!method.getModifiers().isEmpty()) {
+            return method.withModifiers(Space.formatFirstPrefix(method.getModifiers(), Space.format(" ")));
+        }
+        final J.TypeParameters typeParameters = method.getAnnotations().getTypeParameters();
+        if (typeParameters != null) {
+            return method.getAnnotations().withTypeParameters(typeParameters.withPrefix(Space.format(" ")));
+        }
+        return method.getReturnTypeExpression() != null
+            ? method.withReturnTypeExpression(method.getReturnTypeExpression().withPrefix(Space.format(" ")))
+            : method;
     }
 
-    public static boolean hasAnnotation(J.MethodDeclaration method, String literal) {
-        return method.getLeadingAnnotations().stream().anyMatch(annotation -> annotation.toString().equals(literal));
+    /**
+     * Whether the method has an annotation without arguments that is written as <code>@name</code>,
+     * either leading or after a modifier
+     * @param name simple or qualified, as in {@link Name#is(NameTree, String)}
+     */
+    public static boolean hasAnnotation(J.MethodDeclaration method, String name) {
+        final List<J.Annotation> annotations = method.getAllAnnotations();
+        for (int i = 0; i < annotations.size(); i++) {
+            final J.Annotation annotation = annotations.get(i);
+            if (annotation.getArguments() == null && Name.is(annotation.getAnnotationType(), name)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
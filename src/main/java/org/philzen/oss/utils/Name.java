@@ -0,0 +1,47 @@
+package org.philzen.oss.utils;
+
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.NameTree;
+
+/**
+ * Checks on how a type name is written in source, answered from the shape of the {@link NameTree}
+ * (rather than by printing it) and without allocating.
+ */
+@NonNullApi
+public enum Name {;
+
+    /**
+     * Whether the name is written qualified (like <code>org.testng.annotations.Test</code>)
+     * instead of as a simple name (like <code>Test</code>)
+     */
+    public static boolean isQualified(NameTree name) {
+        return name instanceof J.FieldAccess
+            // a single identifier may hold a qualified name as well (e.g. a misfit annotation added by this recipe)
+            || name instanceof J.Identifier && ((J.Identifier) name).getSimpleName().indexOf('.') >= 0;
+    }
+
+    /**
+     * Whether the name is written exactly as <code>dotted</code> (ignoring whitespace and comments),
+     * e.g. <code>Test</code> or <code>org.junit.jupiter.api.Test</code>
+     */
+    public static boolean is(NameTree name, String dotted) {
+        int end = dotted.length();
+        J current = name;
+        while (current instanceof J.FieldAccess) {
+            final J.FieldAccess fieldAccess = (J.FieldAccess) current;
+            final String segment = fieldAccess.getSimpleName();
+            final int start = end - segment.length();
+            if (start < 1 || dotted.charAt(start - 1) != '.' || !dotted.regionMatches(start, segment, 0, segment.length())) {
+                return false;
+            }
+
+            end = start - 1;
+            current = fieldAccess.getTarget();
+        }
+
+        return current instanceof J.Identifier
+            && ((J.Identifier) current).getSimpleName().length() == end
+            && dotted.regionMatches(0, ((J.Identifier) current).getSimpleName(), 0, end);
+    }
+}
@@ -1,28 +1,48 @@
 package org.philzen.oss.utils;
 
 import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.internal.JavaTypeCache;
+
+import java.util.function.Function;
 
 public enum Parser {;
 
+    /**
+     * Maximum number of idle parsers the pool keeps, i.e. one per core
+     */
+    static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
     private static final class JavaParserHolder {
-        static final JavaParser.Builder<?, ?> jupiter = 
-            JavaParser.fromJavaVersion().classpath("junit-jupiter-api");
-        
-        static final JavaParser.Builder<?, ?> runtimeClasspath = 
+        static final JavaParser.Builder<?, ?> jupiter =
+            JavaParser.fromJavaVersion().classpath("junit-jupiter-api", "junit-jupiter-params");
+
+        static final JavaParser.Builder<?, ?> runtimeClasspath =
             JavaParser.fromJavaVersion().classpath(JavaParser.runtimeClasspath());
+
+        static final ParserPool jupiterPool = new ParserPool(jupiter, POOL_SIZE);
     }
 
     /**
-     * Get a {@link JavaParser.Builder} with junit-jupiter-api added to the classpath
+     * Get a {@link JavaParser.Builder} with junit-jupiter-api and junit-jupiter-params added to the classpath
+     * <br><br>
+     * Every call returns a builder of its own, so that parsers built on different threads don't share a type cache.
      */
     public static JavaParser.Builder<?, ?> jupiter() {
-        return JavaParserHolder.jupiter;
+        return JavaParserHolder.jupiter.clone().typeCache(new JavaTypeCache());
+    }
+
+    /**
+     * Apply the unit of work to a pooled parser with junit-jupiter-api and junit-jupiter-params on the classpath
+     * (see {@link ParserPool#apply(Function)})
+     */
+    public static <T> T jupiter(Function<JavaParser, T> work) {
+        return JavaParserHolder.jupiterPool.apply(work);
     }
 
     /**
-     * Get a {@link JavaParser.Builder} for the full runtime classpath
+     * Get a {@link JavaParser.Builder} for the full runtime classpath, of its own (see {@link #jupiter()})
      */
     public static JavaParser.Builder<?, ?> runtime() {
-        return JavaParserHolder.runtimeClasspath;
+        return JavaParserHolder.runtimeClasspath.clone().typeCache(new JavaTypeCache());
     }
 }
@@ -0,0 +1,63 @@
+package org.philzen.oss.utils;
+
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.internal.JavaTypeCache;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * A bounded pool of reusable parsers, which are borrowed for the duration of a {@link #apply(Function) unit of work}
+ * and returned afterwards.
+ * <br><br>
+ * Every parser is built from a clone of the <code>template</code> builder with its own {@link JavaTypeCache} (a plain
+ * {@link java.util.HashMap} that must not be shared between threads). A returned parser is {@link JavaParser#reset()
+ * reset}, which drops the compiled sources but keeps the javac context including the classpath symbols it has already
+ * read. A borrowed parser is used by one caller only, so a re-entrant unit of work just borrows another one.
+ * <br><br>
+ * If no parser is idle, a new one is built rather than waiting for one to be returned. At most <code>maxSize</code>
+ * parsers are kept idle, those returned beyond that are dropped.
+ */
+@NonNullApi
+public class ParserPool {
+
+    private final JavaParser.Builder<?, ?> template;
+
+    private final BlockingQueue<JavaParser> idle;
+
+    public ParserPool(JavaParser.Builder<?, ?> template, int maxSize) {
+        this.template = template;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Applies the unit of work to a borrowed parser, which must not escape it (i.e. a stream of parsed
+     * source files must be consumed within)
+     */
+    public <T> T apply(Function<JavaParser, T> work) {
+        JavaParser parser = idle.poll();
+        if (parser == null) {
+            parser = template.clone().typeCache(new JavaTypeCache()).build();
+        }
+
+        try {
+            return work.apply(parser);
+        } finally {
+            parser.reset();
+            idle.offer(parser);
+        }
+    }
+
+    /**
+     * Number of parsers currently idle in the pool
+     */
+    public int idle() {
+        return idle.size();
+    }
+
+    public int maxSize() {
+        return idle.size() + idle.remainingCapacity();
+    }
+}
@@ -0,0 +1,409 @@
+package org.philzen.oss.utils;
+
+import lombok.Value;
+import org.openrewrite.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Byte-level scan that determines which Java source files need to be parsed at all.
+ * <br><br>
+ * Any source file that uses TestNG must contain the bytes <code>org.testng</code> (in an import or a fully
+ * qualified reference), so every other file can be skipped before it ever reaches the {@link Parser}. The
+ * scanned buffers are retained for the candidates, so that the parser reads them without touching the disk again.
+ */
+public enum Prefilter {;
+
+    public static final byte[] TESTNG = "org.testng".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Files of at least this size are memory-mapped, smaller ones are read in a single channel read
+     * (each mapping costs a syscall pair and occupies a VM map entry until it is garbage collected)
+     */
+    static final long MAPPING_THRESHOLD = 64 * 1024;
+
+    @Value
+    public static class Result {
+
+        /**
+         * Source files containing the searched byte sequence
+         */
+        List<Parser.Input> candidates;
+
+        /**
+         * Source files that don't contain the searched byte sequence, but declare a type (by file name)
+         * that is referenced from a candidate or, transitively, from another dependency, thus being needed
+         * for type attribution
+         */
+        List<Parser.Input> dependencies;
+
+        /**
+         * Total number of scanned files
+         */
+        int scanned;
+
+        /**
+         * The candidates followed by their dependencies, to be passed on to
+         * {@link Parser#parseInputs(Iterable, Path, org.openrewrite.ExecutionContext)}
+         */
+        public List<Parser.Input> inputs() {
+            final List<Parser.Input> inputs = new ArrayList<>(candidates.size() + dependencies.size());
+            inputs.addAll(candidates);
+            inputs.addAll(dependencies);
+            return inputs;
+        }
+    }
+
+    /**
+     * Scans the given source files in parallel for references to TestNG
+     */
+    public static Result scan(Collection<Path> sources) {
+        return scan(sources, TESTNG);
+    }
+
+    /**
+     * Scans the given source files in parallel for the given byte sequence
+     */
+    public static Result scan(Collection<Path> sources, byte[] needle) {
+        final List<Source> scanned = sources.parallelStream()
+            .map(path -> new Source(path, read(path)))
+            .collect(Collectors.toList());
+
+        final List<Source> candidates = new ArrayList<>();
+        final Index others = new Index();
+        for (Source source : scanned) {
+            if (contains(source.buffer, needle)) {
+                candidates.add(source);
+            } else {
+                others.add(source);
+            }
+        }
+
+        // the dependencies of dependencies (e.g. the supertypes of an exception) are needed for type attribution, too
+        final Set<Source> dependencies = Collections.newSetFromMap(new LinkedHashMap<>());
+        for (List<Source> wave = candidates; !wave.isEmpty(); ) {
+            final List<Source> referenced = wave.parallelStream()
+                .flatMap(source -> others.referencedBy(source).stream())
+                .distinct()
+                .collect(Collectors.toList());
+            wave = referenced.stream().filter(dependencies::add).collect(Collectors.toList());
+        }
+
+        return new Result(
+            candidates.stream().map(Source::input).collect(Collectors.toList()),
+            dependencies.stream().map(Source::input).collect(Collectors.toList()),
+            scanned.size()
+        );
+    }
+
+    /**
+     * Whether the remaining bytes of the buffer contain the needle (the buffer's position is not modified)
+     */
+    public static boolean contains(ByteBuffer buffer, byte[] needle) {
+        final int last = buffer.limit() - needle.length;
+        final byte first = needle[0];
+        outer:
+        for (int i = buffer.position(); i <= last; i++) {
+            if (buffer.get(i) != first) {
+                continue;
+            }
+            for (int j = 1; j < needle.length; j++) {
+                if (buffer.get(i + j) != needle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Collects all identifiers of the buffer that are contained in <code>typeNames</code>.
+     * Only identifiers starting with an uppercase ASCII letter are considered, as per type naming convention.
+     */
+    static Set<String> referencedTypes(ByteBuffer buffer, Set<String> typeNames) {
+        final Set<String> found = new HashSet<>();
+        if (typeNames.isEmpty()) {
+            return found;
+        }
+
+        final int limit = buffer.limit();
+        int i = buffer.position();
+        while (i < limit) {
+            if (!isIdentifierPart(buffer.get(i))) {
+                i++;
+                continue;
+            }
+
+            final int start = i;
+            while (i < limit && isIdentifierPart(buffer.get(i))) {
+                i++;
+            }
+
+            final byte firstByte = buffer.get(start);
+            if (firstByte >= 'A' && firstByte <= 'Z') {
+                final byte[] identifier = new byte[i - start];
+                for (int j = 0; j < identifier.length; j++) {
+                    identifier[j] = buffer.get(start + j);
+                }
+                final String name = new String(identifier, StandardCharsets.UTF_8);
+                if (typeNames.contains(name)) {
+                    found.add(name);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static boolean isIdentifierPart(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+            || b == '_' || b == '$' || b < 0 /* part of a multibyte UTF-8 sequence */;
+    }
+
+    private static ByteBuffer read(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size >= MAPPING_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until full or EOF (the file may have shrunk in the meantime)
+            }
+            buffer.flip();
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Source {
+
+        final Path path;
+
+        final ByteBuffer buffer;
+
+        final Header header;
+
+        Source(Path path, ByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+            this.header = new Header(buffer);
+        }
+
+        /**
+         * The fully qualified name of the type declared by the file (as per file name)
+         */
+        String typeName() {
+            final String fileName = path.getFileName().toString();
+            final int dot = fileName.lastIndexOf('.');
+            return header.qualify(dot < 0 ? fileName : fileName.substring(0, dot));
+        }
+
+        Parser.Input input() {
+            return new Parser.Input(path, () -> new BufferInputStream(buffer.duplicate()));
+        }
+    }
+
+    /**
+     * Types declared by the files that don't contain the searched byte sequence
+     */
+    private static final class Index {
+
+        /**
+         * By fully qualified name (a list, as several source sets may declare the same type)
+         */
+        final Map<String, List<Source>> sources = new HashMap<>();
+
+        /**
+         * Fully qualified names by simple name
+         */
+        final Map<String, List<String>> typeNames = new HashMap<>();
+
+        void add(Source source) {
+            final String typeName = source.typeName();
+            sources.computeIfAbsent(typeName, n -> new ArrayList<>(1)).add(source);
+            final List<String> sameSimpleName = typeNames.computeIfAbsent(
+                typeName.substring(typeName.lastIndexOf('.') + 1), n -> new ArrayList<>(1)
+            );
+            if (!sameSimpleName.contains(typeName)) {
+                sameSimpleName.add(typeName);
+            }
+        }
+
+        /**
+         * The indexed sources declaring a type that the given source references by simple name. Of several types
+         * of the same simple name, those are taken that are in the same package, imported on demand, or spelled out
+         * (in a single type import or a fully qualified reference). If none of them is, all are taken, as the type
+         * may still be visible otherwise (e.g. as a member type of a supertype).
+         */
+        Set<Source> referencedBy(Source source) {
+            final Set<Source> referenced = new LinkedHashSet<>();
+            for (String simpleName : referencedTypes(source.buffer, typeNames.keySet())) {
+                final List<String> candidates = typeNames.get(simpleName);
+                final List<String> visible = new ArrayList<>(1);
+                for (String typeName : candidates) {
+                    if (typeName.equals(source.header.qualify(simpleName))
+                        || source.header.onDemand.contains(typeName.substring(0, Math.max(0, typeName.lastIndexOf('.'))))
+                        || contains(source.buffer, typeName.getBytes(StandardCharsets.UTF_8))) {
+                        visible.add(typeName);
+                    }
+                }
+                if (visible.isEmpty() && !source.header.singleType.contains(simpleName)) {
+                    visible.addAll(candidates);
+                }
+                for (String typeName : visible) {
+                    referenced.addAll(sources.get(typeName));
+                }
+            }
+            referenced.remove(source);
+            return referenced;
+        }
+    }
+
+    /**
+     * The package and import declarations at the start of a source file
+     */
+    private static final class Header {
+
+        private static final byte[] PACKAGE = "package".getBytes(StandardCharsets.US_ASCII);
+
+        private static final byte[] IMPORT = "import".getBytes(StandardCharsets.US_ASCII);
+
+        private static final byte[] STATIC = "static".getBytes(StandardCharsets.US_ASCII);
+
+        final String packageName;
+
+        /**
+         * Simple names of the types imported by single type imports
+         */
+        final Set<String> singleType = new HashSet<>();
+
+        /**
+         * Packages (or types, for static imports) of which all members are imported
+         */
+        final Set<String> onDemand = new HashSet<>();
+
+        private final ByteBuffer buffer;
+
+        private int i;
+
+        Header(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.i = buffer.position();
+
+            packageName = keyword(PACKAGE) ? name() : "";
+            while (keyword(IMPORT)) {
+                final boolean isStatic = keyword(STATIC);
+                final String name = name();
+                if (name.endsWith(".*")) {
+                    onDemand.add(name.substring(0, name.length() - 2));
+                } else if (!isStatic) {
+                    singleType.add(name.substring(name.lastIndexOf('.') + 1));
+                }
+            }
+        }
+
+        String qualify(String simpleName) {
+            return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        }
+
+        /**
+         * Consumes the keyword if it is the next token
+         */
+        private boolean keyword(byte[] keyword) {
+            skipWhitespaceAndComments();
+            final int end = i + keyword.length;
+            if (end >= buffer.limit() || isIdentifierPart(buffer.get(end))) {
+                return false;
+            }
+            for (int j = 0; j < keyword.length; j++) {
+                if (buffer.get(i + j) != keyword[j]) {
+                    return false;
+                }
+            }
+            i = end;
+            return true;
+        }
+
+        /**
+         * Consumes the (possibly qualified) name up to and including the terminating semicolon
+         */
+        private String name() {
+            final StringBuilder name = new StringBuilder();
+            for (skipWhitespaceAndComments(); i < buffer.limit(); skipWhitespaceAndComments()) {
+                final byte b = buffer.get(i++);
+                if (b == ';') {
+                    break;
+                }
+                name.append((char) b);
+            }
+            return name.toString();
+        }
+
+        private void skipWhitespaceAndComments() {
+            final int limit = buffer.limit();
+            while (i < limit) {
+                final byte b = buffer.get(i);
+                if (b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f') {
+                    i++;
+                } else if (b == '/' && i + 1 < limit && buffer.get(i + 1) == '/') {
+                    while (i < limit && buffer.get(i) != '\n') {
+                        i++;
+                    }
+                } else if (b == '/' && i + 1 < limit && buffer.get(i + 1) == '*') {
+                    i += 2;
+                    while (i < limit && !(buffer.get(i - 1) == '*' && buffer.get(i) == '/')) {
+                        i++;
+                    }
+                    i++;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
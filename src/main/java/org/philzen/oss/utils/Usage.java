@@ -0,0 +1,192 @@
+package org.philzen.oss.utils;
+
+import lombok.Value;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.internal.TypesInUse;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.SearchResult;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-file summary of TestNG usage, built from the type table and the import list of a compilation unit
+ * and cached in the {@link ExecutionContext}, so that all TestNG recipes share the same answer.
+ */
+@NonNullApi
+public enum Usage {;
+
+    public static final String TESTNG_PACKAGE = "org.testng";
+
+    static final String CACHE_KEY = Usage.class.getName();
+
+    @Value
+    public static class Summary {
+
+        static final Summary NONE = new Summary(Collections.emptySet(), Collections.emptySet());
+
+        /**
+         * Fully qualified names of all TestNG types that are referenced, called into or imported
+         */
+        Set<String> types;
+
+        /**
+         * TestNG packages that are imported with a wildcard
+         */
+        Set<String> packages;
+
+        public boolean isEmpty() {
+            return types.isEmpty() && packages.isEmpty();
+        }
+
+        /**
+         * Whether the given TestNG type is referenced or imported (also via a wildcard import)
+         */
+        public boolean uses(String fullyQualifiedName) {
+            if (types.contains(fullyQualifiedName)) {
+                return true;
+            }
+
+            final int lastDot = fullyQualifiedName.lastIndexOf('.');
+            return lastDot > 0 && packages.contains(fullyQualifiedName.substring(0, lastDot));
+        }
+    }
+
+    /**
+     * Precondition that marks compilation units using the given TestNG type, without traversing the tree
+     */
+    public static TreeVisitor<?, ExecutionContext> of(String fullyQualifiedName) {
+        return new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public @Nullable J visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof J.CompilationUnit && summarize((J.CompilationUnit) tree, ctx).uses(fullyQualifiedName)) {
+                    return SearchResult.found((J.CompilationUnit) tree);
+                }
+
+                return (J) tree;
+            }
+        };
+    }
+
+    /**
+     * Get the TestNG usage summary of the compilation unit, computing it on first request
+     * and whenever the compilation unit has been changed since
+     */
+    public static Summary summarize(J.CompilationUnit cu, ExecutionContext ctx) {
+        Cache cache = ctx.getMessage(CACHE_KEY);
+        if (cache == null) {
+            cache = new Cache();
+            ctx.putMessage(CACHE_KEY, cache);
+        }
+        return cache.get(cu);
+    }
+
+    /**
+     * The summaries by compilation unit id. An entry only holds on to its compilation unit weakly and is purged once
+     * that has been garbage collected, so that the cache of a long-running context (e.g. one per CLI run over many
+     * thousand files) doesn't outgrow the compilation units still in memory.
+     */
+    static final class Cache {
+
+        private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+        private final ReferenceQueue<J.CompilationUnit> collected = new ReferenceQueue<>();
+
+        Summary get(J.CompilationUnit cu) {
+            purge();
+            final Entry cached = entries.get(cu.getId());
+            if (cached != null && cached.get() == cu) {
+                return cached.summary;
+            }
+
+            final Summary summary = build(cu);
+            entries.put(cu.getId(), new Entry(cu, summary, collected));
+            return summary;
+        }
+
+        int size() {
+            purge();
+            return entries.size();
+        }
+
+        private void purge() {
+            for (Reference<? extends J.CompilationUnit> reference; (reference = collected.poll()) != null; ) {
+                final Entry entry = (Entry) reference;
+                // unless already replaced by the entry of a changed compilation unit of the same id
+                entries.remove(entry.id, entry);
+            }
+        }
+    }
+
+    private static Summary build(J.CompilationUnit cu) {
+        Set<String> types = null;
+        Set<String> packages = null;
+
+        for (J.Import i : cu.getImports()) {
+            final String packageName = i.getPackageName();
+            if (!isTestNg(packageName)) {
+                continue;
+            }
+
+            if (!i.isStatic() && "*".equals(i.getQualid().getSimpleName())) {
+                packages = add(packages, packageName);
+            } else {
+                types = add(types, i.getTypeName());
+            }
+        }
+
+        final TypesInUse typesInUse = cu.getTypesInUse();
+        for (JavaType type : typesInUse.getTypesInUse()) {
+            types = addIfTestNg(types, TypeUtils.asFullyQualified(type));
+        }
+        for (JavaType.Method method : typesInUse.getUsedMethods()) {
+            types = addIfTestNg(types, method.getDeclaringType());
+        }
+        for (JavaType.Variable variable : typesInUse.getVariables()) {
+            types = addIfTestNg(types, TypeUtils.asFullyQualified(variable.getOwner()));
+        }
+
+        return types == null && packages == null ? Summary.NONE : new Summary(
+            types == null ? Collections.emptySet() : Collections.unmodifiableSet(types),
+            packages == null ? Collections.emptySet() : Collections.unmodifiableSet(packages)
+        );
+    }
+
+    private static @Nullable Set<String> addIfTestNg(@Nullable Set<String> set, @Nullable JavaType.FullyQualified type) {
+        return type != null && isTestNg(type.getPackageName()) ? add(set, type.getFullyQualifiedName()) : set;
+    }
+
+    private static Set<String> add(@Nullable Set<String> set, String value) {
+        final Set<String> s = set == null ? new HashSet<>(4) : set;
+        s.add(value);
+        return s;
+    }
+
+    private static boolean isTestNg(String packageName) {
+        return packageName.startsWith(TESTNG_PACKAGE)
+            && (packageName.length() == TESTNG_PACKAGE.length() || packageName.charAt(TESTNG_PACKAGE.length()) == '.');
+    }
+
+    private static final class Entry extends WeakReference<J.CompilationUnit> {
+
+        final UUID id;
+
+        final Summary summary;
+
+        Entry(J.CompilationUnit source, Summary summary, ReferenceQueue<J.CompilationUnit> queue) {
+            super(source, queue);
+            this.id = source.getId();
+            this.summary = summary;
+        }
+    }
+}
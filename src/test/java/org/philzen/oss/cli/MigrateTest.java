@@ -0,0 +1,473 @@
+package org.philzen.oss.cli;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrateTest {
+
+    private static final String TESTNG_TEST = """
+        package org.philzen.oss;
+
+        import org.testng.annotations.Test;
+
+        public class %sTest {
+
+            @Test(description = "Yeah!")
+            public void test() {
+            }
+        }
+        """;
+
+    private static final String JUPITER_TEST = """
+        package org.philzen.oss;
+
+        import org.junit.jupiter.api.DisplayName;
+        import org.junit.jupiter.api.Test;
+
+        public class %sTest {
+
+            @Test
+            @DisplayName("Yeah!")
+            public void test() {
+            }
+        }
+        """;
+
+    private static final String PARALLEL_SUITE = """
+        <suite name="All" parallel="methods" thread-count="4">
+            <test name="unit">
+                <packages>
+                    <package name="org.philzen.oss.*"/>
+                </packages>
+            </test>
+        </suite>
+        """;
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private static Migrate.Report run(String... args) {
+        return Migrate.run(Migrate.Options.parse(args), new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @Nested class modules {
+
+        @Test void groupsSourceSetsByModule(@TempDir Path root) throws IOException {
+            write(root.resolve("a/src/main/java/org/philzen/oss/Main.java"), "package org.philzen.oss; class Main {}");
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            write(root.resolve("b/nested/src/test/java/BTest.java"), "class BTest {}");
+            write(root.resolve("b/target/generated/src/main/java/Generated.java"), "class Generated {}");
+
+            final Map<Path, List<Path>> modules = Migrate.modules(root);
+
+            assertEquals(2, modules.size());
+            assertEquals(2, modules.get(root.resolve("a")).size());
+            assertEquals(1, modules.get(root.resolve("b/nested")).size());
+        }
+
+        @Test void assignsSuitesAndPlatformProperties_toInnermostModule(@TempDir Path root) throws IOException {
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            final Path suite = write(root.resolve("a/src/test/resources/testng.xml"), PARALLEL_SUITE);
+            final Path properties = write(root.resolve("a/src/test/resources/junit-platform.properties"), "");
+            final Path moduleSuite = write(root.resolve("a/testng-integration.xml"), PARALLEL_SUITE);
+            write(root.resolve("a/pom.xml"), "<project/>");
+            write(root.resolve("a/src/test/resources/testng-sequential.xml"), "<suite name=\"All\"/>");
+            write(root.resolve("a/src/test/resources/testng-broken.xml"), "<suite");
+            final Path rootSuite = write(root.resolve("testng.xml"), PARALLEL_SUITE);
+
+            final Map<Path, List<Path>> modules = Migrate.modules(root);
+
+            assertEquals(
+                List.of(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), properties, suite, moduleSuite),
+                modules.get(root.resolve("a"))
+            );
+            assertEquals(List.of(rootSuite), modules.get(root));
+        }
+
+        @Test void detectsSuitesByRootElement_regardlessOfName(@TempDir Path root) throws IOException {
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            final Path suite = write(root.resolve("a/src/test/resources/suites/unit.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+                """ + PARALLEL_SUITE);
+            write(root.resolve("a/src/test/resources/logback-test.xml"), "<configuration/>");
+
+            assertEquals(
+                List.of(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), suite),
+                Migrate.modules(root).get(root.resolve("a"))
+            );
+        }
+
+        @Test void fallsBackToRoot_withoutSourceSets(@TempDir Path root) throws IOException {
+            write(root.resolve("org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+
+            assertEquals(List.of(root), List.copyOf(Migrate.modules(root).keySet()));
+        }
+    }
+
+    @Nested class run {
+
+        @Test void migratesInPlace(@TempDir Path root) throws IOException {
+            final Path a = write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            final Path b = write(root.resolve("b/src/test/java/org/philzen/oss/BTest.java"), String.format(TESTNG_TEST, "B"));
+
+            final Migrate.Report report = run("--parallelism", "2", root.toString());
+
+            assertEquals(String.format(JUPITER_TEST, "A"), read(a));
+            assertEquals(String.format(JUPITER_TEST, "B"), read(b));
+            assertEquals(2, report.getModules());
+            assertEquals(2, report.getChanges().size());
+            assertTrue(report.getErrors().isEmpty());
+            assertTrue(report.summary().startsWith("2 modules, 2 files, 0 cached, 2 parsed, 2 changed, 0 errors in "));
+        }
+
+        @Test void writesPatch_leavingSourcesUntouched(@TempDir Path root) throws IOException {
+            final Path a = write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            final Path patch = root.resolve("migration.patch");
+
+            run("--patch", patch.toString(), root.toString());
+
+            assertEquals(String.format(TESTNG_TEST, "A"), read(a));
+            final String diff = read(patch);
+            assertTrue(diff.contains("a/src/test/java/org/philzen/oss/ATest.java"));
+            assertTrue(diff.contains("-import org.testng.annotations.Test;"));
+            assertTrue(diff.contains("+import org.junit.jupiter.api.Test;"));
+        }
+
+        @Test void migratesSuiteParallelism_toPlatformProperties(@TempDir Path root) throws IOException {
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            write(root.resolve("a/testng.xml"), PARALLEL_SUITE);
+
+            final Migrate.Report report = run(root.toString());
+
+            assertEquals(2, report.getFiles());
+            assertEquals(
+                List.of(Path.of("a/src/test/java/org/philzen/oss/ATest.java"), Path.of("a/src/test/resources/junit-platform.properties")),
+                report.getChanges()
+            );
+            assertEquals("""
+                # Parallel execution as configured by a/testng.xml
+                junit.jupiter.execution.parallel.enabled=true
+                junit.jupiter.execution.parallel.mode.default=concurrent
+                junit.jupiter.execution.parallel.mode.classes.default=concurrent
+                junit.jupiter.execution.parallel.config.strategy=fixed
+                junit.jupiter.execution.parallel.config.fixed.parallelism=4
+                """, read(root.resolve("a/src/test/resources/junit-platform.properties")));
+        }
+
+        @Test void retainsConfiguredPlatformProperties(@TempDir Path root) throws IOException {
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            write(root.resolve("a/src/test/resources/testng.xml"), PARALLEL_SUITE);
+            final Path properties = write(root.resolve("a/src/test/resources/junit-platform.properties"),
+                "junit.jupiter.execution.parallel.enabled=false\n");
+
+            run(root.toString());
+
+            final String configured = read(properties);
+            assertTrue(configured.contains("junit.jupiter.execution.parallel.enabled=false\n"), configured);
+            assertTrue(configured.contains("junit.jupiter.execution.parallel.config.fixed.parallelism=4"), configured);
+        }
+
+        @Test void parsesOnlyTestNgFiles_withPrefilter(@TempDir Path root) throws IOException {
+            write(root.resolve("a/src/main/java/org/philzen/oss/Unrelated.java"), "package org.philzen.oss; class Unrelated {}");
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+
+            final Migrate.Report report = run("--prefilter", root.toString());
+
+            assertEquals(2, report.getFiles());
+            assertEquals(1, report.getParsed());
+            assertEquals(1, report.getChanges().size());
+        }
+
+        @Test void writesSamePatch_withPrefilter_forTypeHierarchyAcrossFiles(@TempDir Path root, @TempDir Path patches) throws IOException {
+            write(root.resolve("a/src/main/java/org/philzen/oss/errors/BaseException.java"),
+                "package org.philzen.oss.errors; public class BaseException extends RuntimeException {}");
+            write(root.resolve("a/src/main/java/org/philzen/oss/errors/DomainException.java"),
+                "package org.philzen.oss.errors; public class DomainException extends BaseException {}");
+            write(root.resolve("a/src/main/java/org/philzen/oss/errors/ValidationException.java"),
+                "package org.philzen.oss.errors; public class ValidationException extends DomainException {}");
+            // same simple name in another package, which is not a Throwable
+            write(root.resolve("a/src/main/java/org/philzen/oss/other/ValidationException.java"),
+                "package org.philzen.oss.other; public class ValidationException {}");
+            write(root.resolve("a/src/test/java/org/philzen/oss/ValidatorTest.java"), """
+                package org.philzen.oss;
+
+                import org.philzen.oss.errors.ValidationException;
+                import org.testng.annotations.Test;
+
+                public class ValidatorTest {
+
+                    @Test(expectedExceptions = ValidationException.class)
+                    public void rejects() {
+                        throw new ValidationException();
+                    }
+                }
+                """);
+            final Path unfiltered = patches.resolve("unfiltered.patch"), prefiltered = patches.resolve("prefiltered.patch");
+
+            run("--patch", unfiltered.toString(), root.toString());
+            final Migrate.Report report = run("--prefilter", "--patch", prefiltered.toString(), root.toString());
+
+            assertEquals(4, report.getParsed());
+            assertTrue(read(unfiltered).contains("assertThrows(ValidationException.class"));
+            assertEquals(read(unfiltered), read(prefiltered));
+        }
+    }
+
+    @Nested class cache {
+
+        @Test void servesUnchangedFilesFromCache(@TempDir Path root, @TempDir Path cacheDir) throws IOException {
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            write(root.resolve("a/src/main/java/org/philzen/oss/Main.java"), "package org.philzen.oss; class Main {}");
+            final String cache = cacheDir.resolve("results").toString();
+            final Path firstPatch = cacheDir.resolve("first.patch"), secondPatch = cacheDir.resolve("second.patch");
+
+            final Migrate.Report first = run("--cache", cache, "--patch", firstPatch.toString(), root.toString());
+            final Migrate.Report second = run("--cache", cache, "--patch", secondPatch.toString(), root.toString());
+
+            assertEquals(0, first.getCached());
+            assertEquals(2, first.getParsed());
+            assertEquals(2, second.getCached());
+            assertEquals(0, second.getParsed());
+            assertEquals(1, second.getChanges().size());
+            assertTrue(read(secondPatch).contains("+import org.junit.jupiter.api.Test;"));
+        }
+
+        @Test void migratesChangedFilesAgain(@TempDir Path root, @TempDir Path cacheDir) throws IOException {
+            final Path a = write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            final String cache = cacheDir.resolve("results").toString();
+
+            run("--cache", cache, root.toString());
+            final Migrate.Report rerun = run("--cache", cache, root.toString());
+            final Migrate.Report cachedRerun = run("--cache", cache, root.toString());
+
+            assertEquals(String.format(JUPITER_TEST, "A"), read(a));
+            assertEquals(1, rerun.getParsed());
+            assertTrue(rerun.getChanges().isEmpty());
+            assertEquals(1, cachedRerun.getCached());
+            assertTrue(cachedRerun.getChanges().isEmpty());
+        }
+
+        @Test void keysResultsByMode() {
+            assertNotEquals(
+                Migrate.recipeKey(Migrate.Options.parse(".")), Migrate.recipeKey(Migrate.Options.parse("--stream", "."))
+            );
+            assertEquals(
+                Migrate.recipeKey(Migrate.Options.parse("--stream", ".")),
+                Migrate.recipeKey(Migrate.Options.parse("--stream", "--heap-limit", "50", "."))
+            );
+        }
+
+        @Test void migratesModuleAgain_whenFileIsCreated(@TempDir Path root, @TempDir Path cacheDir) throws IOException {
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            write(root.resolve("a/src/test/resources/testng.xml"), PARALLEL_SUITE);
+            final String cache = cacheDir.resolve("results").toString();
+            final Path patch = cacheDir.resolve("migration.patch");
+
+            run("--cache", cache, "--patch", patch.toString(), root.toString());
+            final Migrate.Report second = run("--cache", cache, "--patch", patch.toString(), root.toString());
+
+            assertEquals(0, second.getCached());
+            assertTrue(read(patch).contains("+++ b/a/src/test/resources/junit-platform.properties"));
+        }
+
+        @Test void migratesModuleAgain_whenAnotherFileChanged(@TempDir Path root, @TempDir Path cacheDir) throws IOException {
+            final Path failure = write(root.resolve("a/src/main/java/org/philzen/oss/Failure.java"),
+                "package org.philzen.oss; public class Failure {}");
+            write(root.resolve("a/src/test/java/org/philzen/oss/FailingTest.java"), """
+                package org.philzen.oss;
+
+                import org.testng.annotations.Test;
+
+                public class FailingTest {
+
+                    @Test(expectedExceptions = Failure.class)
+                    public void fails() {
+                    }
+                }
+                """);
+            final String cache = cacheDir.resolve("results").toString();
+            final Path patch = cacheDir.resolve("second.patch");
+
+            run("--cache", cache, "--patch", cacheDir.resolve("first.patch").toString(), root.toString());
+            write(failure, "package org.philzen.oss; public class Failure extends RuntimeException {}");
+            final Migrate.Report second = run("--cache", cache, "--patch", patch.toString(), root.toString());
+
+            assertEquals(0, second.getCached());
+            assertEquals(2, second.getParsed());
+            assertTrue(read(patch).contains("assertThrows(Failure.class"));
+        }
+    }
+
+    @Nested class stream {
+
+        @Test void migratesInPlace_oneFileAtATime(@TempDir Path root) throws IOException {
+            final Path a = write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            final Path b = write(root.resolve("b/src/test/java/org/philzen/oss/BTest.java"), String.format(TESTNG_TEST, "B"));
+            write(root.resolve("b/src/main/java/org/philzen/oss/Main.java"), "package org.philzen.oss; class Main {}");
+
+            final Migrate.Report report = run("--stream", "--parallelism", "2", root.toString());
+
+            assertEquals(String.format(JUPITER_TEST, "A"), read(a));
+            assertEquals(String.format(JUPITER_TEST, "B"), read(b));
+            assertEquals(List.of(root.relativize(a), root.relativize(b)), report.getChanges());
+            assertTrue(report.getErrors().isEmpty());
+            assertTrue(report.summary().startsWith("2 modules, 3 files, 0 cached, 3 parsed, 2 changed, 0 errors in "));
+        }
+
+        @Test void leavesSuitesToModuleWiseMigration(@TempDir Path root) throws IOException {
+            write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            write(root.resolve("a/src/test/resources/testng.xml"), PARALLEL_SUITE);
+
+            final Migrate.Report report = run("--stream", root.toString());
+
+            assertEquals(1, report.getFiles());
+            assertEquals(1, report.getChanges().size());
+            assertFalse(Files.exists(root.resolve("a/src/test/resources/junit-platform.properties")));
+        }
+
+        @Test void writesSamePatch_asModuleWiseMigration(@TempDir Path root, @TempDir Path patches) throws IOException {
+            for (int i = 0; i < 12; i++) {
+                write(root.resolve("m" + i % 3 + "/src/test/java/org/philzen/oss/T" + i + "Test.java"), String.format(TESTNG_TEST, "T" + i));
+            }
+            final Path moduleWise = patches.resolve("modules.patch"), streamed = patches.resolve("stream.patch");
+
+            run("--patch", moduleWise.toString(), root.toString());
+            run("--stream", "--parallelism", "3", "--patch", streamed.toString(), root.toString());
+
+            assertEquals(read(moduleWise), read(streamed));
+        }
+
+        @Test void completes_withHeapAlwaysAboveLimit(@TempDir Path root) throws IOException {
+            for (int i = 0; i < 4; i++) {
+                write(root.resolve("a/src/test/java/org/philzen/oss/T" + i + "Test.java"), String.format(TESTNG_TEST, "T" + i));
+            }
+            final ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+            final Migrate.Report report = Migrate.run(
+                Migrate.Options.parse("--stream", "--heap-limit", "1", root.toString()), new PrintStream(log)
+            );
+
+            assertEquals(4, report.getChanges().size());
+            assertTrue(log.toString(StandardCharsets.UTF_8).contains("admission of files was throttled"));
+        }
+
+        @Test void servesUnchangedFilesFromCache(@TempDir Path root, @TempDir Path cacheDir) throws IOException {
+            final Path a = write(root.resolve("a/src/test/java/org/philzen/oss/ATest.java"), String.format(TESTNG_TEST, "A"));
+            final String cache = cacheDir.resolve("results").toString();
+            final Path patch = cacheDir.resolve("second.patch");
+
+            run("--stream", "--cache", cache, "--patch", cacheDir.resolve("first.patch").toString(), root.toString());
+            final Migrate.Report second = run("--stream", "--cache", cache, "--patch", patch.toString(), root.toString());
+
+            assertEquals(String.format(TESTNG_TEST, "A"), read(a));
+            assertEquals(1, second.getCached());
+            assertEquals(0, second.getParsed());
+            assertTrue(read(patch).contains("+import org.junit.jupiter.api.Test;"));
+        }
+    }
+
+    @Nested class heapThrottle {
+
+        @Test void admitsOneFileAtATime_aboveLimit() throws InterruptedException {
+            final StreamingMigration.HeapThrottle throttle = new StreamingMigration.HeapThrottle(heapUsed(990), 50, 8);
+            throttle.acquire(); // nothing in flight yet
+
+            final Thread second = new Thread(() -> {
+                try {
+                    throttle.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            second.start();
+            second.join(200);
+            assertTrue(second.isAlive(), "admitted above the heap limit");
+
+            throttle.release();
+            second.join(5000);
+            assertFalse(second.isAlive());
+            assertEquals(1, throttle.getThrottled());
+        }
+
+        @Test void admitsUpToMaxInFlight_belowLimit() throws InterruptedException {
+            final StreamingMigration.HeapThrottle throttle = new StreamingMigration.HeapThrottle(heapUsed(100), 50, 3);
+            for (int i = 0; i < 3; i++) {
+                throttle.acquire();
+            }
+
+            final Thread fourth = new Thread(() -> {
+                try {
+                    throttle.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            fourth.start();
+            fourth.join(200);
+            assertTrue(fourth.isAlive(), "admitted more than the maximum in flight");
+
+            throttle.release();
+            fourth.join(5000);
+            assertFalse(fourth.isAlive());
+            assertEquals(0, throttle.getThrottled());
+        }
+
+        /**
+         * A heap of 1000 bytes of which the given number are used
+         */
+        private static MemoryMXBean heapUsed(long used) {
+            return (MemoryMXBean) Proxy.newProxyInstance(
+                MemoryMXBean.class.getClassLoader(),
+                new Class<?>[] {MemoryMXBean.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getHeapMemoryUsage")) {
+                        return new MemoryUsage(0, used, 1000, 1000);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            );
+        }
+    }
+
+    @Nested class options {
+
+        @Test void rejectsMissingRoot() {
+            assertThrows(IllegalArgumentException.class, () -> Migrate.Options.parse("--prefilter"));
+        }
+
+        @Test void rejectsUnknownOption() {
+            assertThrows(IllegalArgumentException.class, () -> Migrate.Options.parse("--dry-run", "."));
+        }
+
+        @Test void rejectsHeapLimitOutOfRange() {
+            assertThrows(IllegalArgumentException.class, () -> Migrate.Options.parse("--heap-limit", "0", "."));
+            assertThrows(IllegalArgumentException.class, () -> Migrate.Options.parse("--heap-limit", "101", "."));
+        }
+
+        @Test void rejectsMissingValue() {
+            assertThrows(IllegalArgumentException.class, () -> Migrate.Options.parse(".", "--patch"));
+        }
+    }
+}
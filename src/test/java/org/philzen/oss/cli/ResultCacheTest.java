@@ -0,0 +1,94 @@
+package org.philzen.oss.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test void servesRecordsOfPreviousRun(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("cache");
+        final byte[] changed, unchanged;
+        try (ResultCache cache = ResultCache.open(file, "recipe")) {
+            changed = cache.key(bytes("class A {}"));
+            unchanged = cache.key(bytes("class B {}"));
+            cache.put(changed, ResultCache.Status.CHANGED, "class A { } // ü");
+            cache.put(unchanged, ResultCache.Status.UNCHANGED, null);
+
+            assertNull(cache.get(changed), "appended records are only visible after reopening");
+        }
+
+        try (ResultCache cache = ResultCache.open(file, "recipe")) {
+            assertEquals(2, cache.size());
+            assertEquals(ResultCache.Status.CHANGED, cache.get(changed).status);
+            assertEquals("class A { } // ü", cache.get(changed).text);
+            assertEquals(ResultCache.Status.UNCHANGED, cache.get(unchanged).status);
+            assertNull(cache.get(unchanged).text);
+        }
+    }
+
+    @Test void keyDependsOnRecipeKey(@TempDir Path dir) throws IOException {
+        try (ResultCache a = ResultCache.open(dir.resolve("a"), "recipe@1");
+             ResultCache b = ResultCache.open(dir.resolve("b"), "recipe@2")) {
+            assertFalse(Arrays.equals(a.key(bytes("class A {}")), b.key(bytes("class A {}"))));
+        }
+    }
+
+    @Test void lastRecordWins(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("cache");
+        final byte[] key;
+        try (ResultCache cache = ResultCache.open(file, "recipe")) {
+            key = cache.key(bytes("class A {}"));
+            cache.put(key, ResultCache.Status.CHANGED, "first");
+            cache.put(key, ResultCache.Status.CHANGED, "second");
+        }
+
+        try (ResultCache cache = ResultCache.open(file, "recipe")) {
+            assertEquals("second", cache.get(key).text);
+        }
+    }
+
+    @Test void recoversFromRecordCutShort(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("cache");
+        final byte[] first, second;
+        try (ResultCache cache = ResultCache.open(file, "recipe")) {
+            first = cache.key(bytes("class A {}"));
+            second = cache.key(bytes("class B {}"));
+            cache.put(first, ResultCache.Status.CHANGED, "first");
+            cache.put(second, ResultCache.Status.CHANGED, "second");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (ResultCache cache = ResultCache.open(file, "recipe")) {
+            assertEquals("first", cache.get(first).text);
+            assertNull(cache.get(second));
+            cache.put(second, ResultCache.Status.DELETED, null);
+        }
+
+        try (ResultCache cache = ResultCache.open(file, "recipe")) {
+            assertEquals(2, cache.size());
+            assertEquals(ResultCache.Status.DELETED, cache.get(second).status);
+        }
+    }
+
+    @Test void rejectsForeignFile(@TempDir Path dir) throws IOException {
+        final Path file = Files.write(dir.resolve("cache"), bytes("something else entirely"));
+
+        assertThrows(IOException.class, () -> ResultCache.open(file, "recipe"));
+    }
+}
@@ -0,0 +1,110 @@
+package org.philzen.oss.engine;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatcherTest {
+
+    private static J.CompilationUnit parse(String source) {
+        return (J.CompilationUnit) JavaParser.fromJavaVersion().build()
+            .parse(new InMemoryExecutionContext(), source)
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    /**
+     * Records the handler calls into the shared log, prefixed with its name
+     */
+    private static MigrationStep recording(String name, List<String> log, boolean applicable) {
+        return new MigrationStep() {
+            @Override
+            public void register(Dispatcher dispatcher) {
+                dispatcher.enter(J.ClassDeclaration.class, (c, ctx) -> {
+                    log.add(name + " enter " + c.getSimpleName());
+                    return c;
+                });
+                dispatcher.exit(J.ClassDeclaration.class, (c, ctx) -> {
+                    log.add(name + " exit " + c.getSimpleName());
+                    return c;
+                });
+                dispatcher.exit(J.MethodDeclaration.class, (m, ctx) -> {
+                    log.add(name + " exit " + m.getSimpleName());
+                    return m;
+                });
+            }
+
+            @Override
+            public boolean isApplicable(J.CompilationUnit cu, ExecutionContext ctx) {
+                return applicable;
+            }
+        };
+    }
+
+    @Test void runsAllStepsInOneTraversal() {
+        final List<String> log = new ArrayList<>();
+
+        Dispatcher.of(recording("a", log, true), recording("b", log, true))
+            .visit(parse("class A { void m() {} class B {} }"), new InMemoryExecutionContext());
+
+        assertEquals(List.of(
+            "a enter A", "b enter A", "a exit m", "b exit m", "a enter B", "b enter B", "a exit B", "b exit B", "a exit A", "b exit A"
+        ), log);
+    }
+
+    @Test void chainsHandlerResults() {
+        final MigrationStep rename = d -> d.enter(J.MethodDeclaration.class, (m, ctx) -> m.withName(m.getName().withSimpleName("renamed")));
+        final List<String> seen = new ArrayList<>();
+        final MigrationStep observe = d -> d.exit(J.MethodDeclaration.class, (m, ctx) -> {
+            seen.add(m.getSimpleName());
+            return m;
+        });
+
+        final J.CompilationUnit after = (J.CompilationUnit) Dispatcher.of(rename, observe)
+            .visit(parse("class A { void m() {} }"), new InMemoryExecutionContext());
+
+        assertEquals(List.of("renamed"), seen);
+        assertEquals("class A { void renamed() {} }", after.printAll());
+    }
+
+    @Test void skipsChildren_whenStoppedOnEnter() {
+        final List<String> log = new ArrayList<>();
+        final MigrationStep stop = new MigrationStep() {
+            @Override
+            public void register(Dispatcher dispatcher) {
+                dispatcher.enter(J.ClassDeclaration.class, (c, ctx) -> {
+                    if (c.getSimpleName().equals("B")) {
+                        dispatcher.stopAfterPreVisit();
+                    }
+                    return c;
+                });
+            }
+        };
+
+        Dispatcher.of(stop, recording("a", log, true))
+            .visit(parse("class A { class B { void m() {} } }"), new InMemoryExecutionContext());
+
+        assertEquals(List.of("a enter A", "a enter B", "a exit A"), log);
+    }
+
+    @Test void runsOnlyApplicableSteps() {
+        final List<String> log = new ArrayList<>();
+
+        Dispatcher.of(recording("a", log, false), recording("b", log, true))
+            .visit(parse("class A {}"), new InMemoryExecutionContext());
+
+        assertEquals(List.of("b enter A", "b exit A"), log);
+    }
+
+    @Test void rejectsRegistrationAfterConstruction() {
+        final Dispatcher dispatcher = Dispatcher.of();
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.enter(J.Identifier.class, (i, ctx) -> i));
+    }
+}
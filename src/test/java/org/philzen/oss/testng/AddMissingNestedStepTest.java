@@ -0,0 +1,243 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+import org.philzen.oss.engine.Dispatcher;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.test.RewriteTest.toRecipe;
+
+/**
+ * The cases of upstream's <code>AddMissingNestedTest</code> (rewrite-testing-frameworks), which the step must
+ * migrate the same way as <code>org.openrewrite.java.testing.junit5.AddMissingNested</code>
+ */
+class AddMissingNestedStepTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(toRecipe(() -> Dispatcher.of(new AddMissingNestedStep())))
+            .parser(JavaParser.fromJavaVersion().classpath("junit-jupiter-api", "junit-jupiter-params"));
+    }
+
+    @Test void oneInnerClass() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                @Nested
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void multipleInnerClasses() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.TestFactory;
+            import org.junit.jupiter.api.TestTemplate;
+            import org.junit.jupiter.params.ParameterizedTest;
+            import org.junit.jupiter.params.provider.ValueSource;
+
+            public class RootTest {
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+
+                public class Inner2Test {
+                    @ParameterizedTest
+                    @ValueSource(strings = {"a"})
+                    public void test(String s) {
+                    }
+
+                    public class InnermostTest {
+                        @TestTemplate
+                        public void test() {
+                        }
+                    }
+                }
+
+                public class Inner3Test {
+                    @TestFactory
+                    public void test() {
+                    }
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.TestFactory;
+            import org.junit.jupiter.api.TestTemplate;
+            import org.junit.jupiter.params.ParameterizedTest;
+            import org.junit.jupiter.params.provider.ValueSource;
+
+            public class RootTest {
+                @Nested
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+
+                @Nested
+                public class Inner2Test {
+                    @ParameterizedTest
+                    @ValueSource(strings = {"a"})
+                    public void test(String s) {
+                    }
+
+                    @Nested
+                    public class InnermostTest {
+                        @TestTemplate
+                        public void test() {
+                        }
+                    }
+                }
+
+                @Nested
+                public class Inner3Test {
+                    @TestFactory
+                    public void test() {
+                    }
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void hasAnnotation() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                @Nested
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void docComment() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                /**
+                 * Tests of the inner workings
+                 */
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                /**
+                 * Tests of the inner workings
+                 */
+                @Nested
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void removesStatic() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                public static class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                @Nested
+                public class InnerTest {
+                    @Test
+                    public void test() {
+                    }
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void doesNotAnnotate_innerClassesWithoutTests() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.junit.jupiter.api.Test;
+
+            public class RootTest {
+                @Test
+                public void test() {
+                }
+
+                public class Helper {
+                    public void help() {
+                    }
+                }
+
+                public interface InnerInterface {
+                    @Test
+                    default void test() {
+                    }
+                }
+            }
+            """
+        ));
+    }
+}
@@ -0,0 +1,170 @@
+package org.philzen.oss.testng;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per migrated method by {@link UpdateTestAnnotationToJunit5}, for each attribute path, checked
+ * against the budgets in <code>allocation-budget.properties</code>.
+ * <br><br>
+ * Regressions of the migration mostly show up as allocation growth (e.g. a template parsed once more, or an extra
+ * visitor), which, unlike time, can be measured precisely on a shared CI machine. The allocations of the test thread
+ * are taken from the <code>jdk.ThreadAllocationStatistics</code> events a JFR recording emits at its start and end.
+ * Two recordings of different length are subtracted from each other, so that what the recording itself allocates
+ * on the test thread cancels out.
+ * <br><br>
+ * When a change legitimately allocates more (or considerably less), update the budget of the path from the
+ * measurement in the failure message, leaving some headroom.
+ */
+class AllocationBudgetTest {
+
+    private static final String BUDGETS = "allocation-budget.properties";
+
+    private static final int METHODS = 20;
+
+    private static final int WARMUP = 30;
+
+    private static final int MEASURED = 20;
+
+    private static Properties budgets;
+
+    enum Fixture {
+        METHOD("@Test"),
+        CLASS(null),
+        DESCRIPTION("@Test(description = \"Does stuff\")"),
+        ENABLED("@Test(enabled = false)"),
+        EXPECTED_EXCEPTIONS("@Test(expectedExceptions = IllegalArgumentException.class)"),
+        EXPECTED_EXCEPTIONS_MSG_REG_EXP(
+            "@Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = \"boom.*\")"
+        ),
+        GROUPS("@Test(groups = {\"unit\", \"fast\"})"),
+        TIMEOUT("@Test(timeOut = 500)"),
+        DATA_PROVIDER("@Test(dataProvider = \"values\")"),
+        MISFIT("@Test(threadPoolSize = 8)");
+
+        /**
+         * The method-level annotation or <code>null</code>, if <code>@Test</code> is declared on the class
+         */
+        final String annotation;
+
+        Fixture(String annotation) {
+            this.annotation = annotation;
+        }
+
+        String source() {
+            final StringBuilder sb = new StringBuilder("package org.philzen.oss.budget;\n\n")
+                .append("import org.testng.annotations.DataProvider;\n")
+                .append("import org.testng.annotations.Test;\n\n")
+                .append(annotation == null ? "@Test\n" : "")
+                .append("public class ").append(name()).append("Test {\n");
+            if (this == DATA_PROVIDER) {
+                sb.append('\n')
+                    .append("    @DataProvider\n")
+                    .append("    public Object[][] values() {\n")
+                    .append("        return new Object[][] {{\"a\"}, {\"b\"}};\n")
+                    .append("    }\n");
+            }
+
+            for (int i = 0; i < METHODS; i++) {
+                sb.append('\n');
+                if (annotation != null) {
+                    sb.append("    ").append(annotation).append('\n');
+                }
+                sb.append("    public void test").append(i).append(this == DATA_PROVIDER ? "(String value) {\n" : "() {\n")
+                    .append("        String value").append(this == DATA_PROVIDER ? "s" : "").append(" = \"").append(i).append("\";\n")
+                    .append("        throw new IllegalArgumentException(\"boom \" + value);\n")
+                    .append("    }\n");
+            }
+            return sb.append("}\n").toString();
+        }
+    }
+
+    @BeforeAll static void loadBudgets() throws IOException {
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream(BUDGETS)) {
+            assertNotNull(in, BUDGETS + " is missing");
+            budgets.load(in);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Fixture.class)
+    void staysWithinBudget(Fixture fixture) throws IOException {
+        assumeTrue(FlightRecorder.isAvailable(), "JFR is not available on this JVM");
+        final String budget = budgets.getProperty(fixture.name());
+        assertNotNull(budget, "No budget for " + fixture + " in " + BUDGETS);
+
+        final J.CompilationUnit cu = (J.CompilationUnit) JavaParser.fromJavaVersion().classpath("testng").build()
+            .parse(new InMemoryExecutionContext(Throwable::printStackTrace), fixture.source())
+            .findFirst().orElseThrow(IllegalStateException::new);
+        assertNotSame(cu, migrate(cu), "fixture is not migrated");
+        for (int i = 0; i < WARMUP; i++) {
+            migrate(cu);
+        }
+
+        final long bytesPerMethod = (allocated(cu, 2 * MEASURED) - allocated(cu, MEASURED)) / ((long) MEASURED * METHODS);
+
+        assertTrue(bytesPerMethod <= Long.parseLong(budget.trim()), String.format(
+            "%s allocates %d bytes per migrated method, the budget is %s bytes", fixture, bytesPerMethod, budget.trim()
+        ));
+    }
+
+    private static Tree migrate(J.CompilationUnit cu) {
+        final ExecutionContext ctx = new InMemoryExecutionContext();
+        return new UpdateTestAnnotationToJunit5().getVisitor(new DataProviderIndex()).visit(cu, ctx);
+    }
+
+    /**
+     * Bytes allocated by the test thread while migrating the compilation unit the given number of times,
+     * including what starting and stopping the recording allocates on the thread
+     */
+    private static long allocated(J.CompilationUnit cu, int times) throws IOException {
+        final Path file = Files.createTempFile("allocations", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("jdk.ThreadAllocationStatistics").with("period", "everyChunk");
+                recording.start();
+                for (int i = 0; i < times; i++) {
+                    migrate(cu);
+                }
+                recording.stop();
+                recording.dump(file);
+            }
+
+            final long thread = Thread.currentThread().getId();
+            long first = -1, last = -1;
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            for (RecordedEvent event : events) {
+                if (event.getThread("thread") != null && event.getThread("thread").getJavaThreadId() == thread) {
+                    final long allocated = event.getLong("allocated");
+                    first = first < 0 ? allocated : Math.min(first, allocated);
+                    last = Math.max(last, allocated);
+                }
+            }
+            assertTrue(first >= 0, "no jdk.ThreadAllocationStatistics event for the test thread");
+            return last - first;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
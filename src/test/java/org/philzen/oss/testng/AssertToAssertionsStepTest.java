@@ -0,0 +1,406 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+import org.philzen.oss.engine.Dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.test.RewriteTest.toRecipe;
+
+class AssertToAssertionsStepTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(toRecipe(() -> Dispatcher.of(new AssertToAssertionsStep())));
+    }
+
+    @Nested class swapsActualAndExpected {
+
+        @Test void equals() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(String actual) {
+                        Assert.assertEquals(actual, "expected");
+                        Assert.assertEquals(1 + 1, 2, "math");
+                        Assert.assertNotEquals(actual, "unexpected");
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(String actual) {
+                        Assertions.assertEquals("expected", actual);
+                        Assertions.assertEquals(2, 1 + 1, "math");
+                        Assertions.assertNotEquals("unexpected", actual);
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void withDelta() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(double actual, float approximately) {
+                        Assert.assertEquals(actual, 0.3, 0.001);
+                        Assert.assertEquals(approximately, 0.3f, 0.001f, "float");
+                        Assert.assertNotEquals(actual, 0.5, 0.001);
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(double actual, float approximately) {
+                        Assertions.assertEquals(0.3, actual, 0.001);
+                        Assertions.assertEquals(0.3f, approximately, 0.001f, "float");
+                        Assertions.assertNotEquals(0.5, actual, 0.001);
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void same() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(Object actual, Object other) {
+                        Assert.assertSame(actual, other);
+                        Assert.assertNotSame(actual, other, "copy");
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(Object actual, Object other) {
+                        Assertions.assertSame(other, actual);
+                        Assertions.assertNotSame(other, actual, "copy");
+                    }
+                }
+                """
+            ));
+        }
+    }
+
+    @Nested class keepsArgumentOrder {
+
+        @Test void conditionsAndNulls() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(Object actual) {
+                        Assert.assertTrue(actual != null);
+                        Assert.assertFalse(actual == null, "present");
+                        Assert.assertNotNull(actual);
+                        Assert.assertNull(actual, "absent");
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(Object actual) {
+                        Assertions.assertTrue(actual != null);
+                        Assertions.assertFalse(actual == null, "present");
+                        Assertions.assertNotNull(actual);
+                        Assertions.assertNull(actual, "absent");
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void fail() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(Exception e) {
+                        Assert.fail();
+                        Assert.fail("boom");
+                        Assert.fail("boom", e);
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(Exception e) {
+                        Assertions.fail();
+                        Assertions.fail("boom");
+                        Assertions.fail("boom", e);
+                    }
+                }
+                """
+            ));
+        }
+    }
+
+    @Nested class elementWise {
+
+        @Test void arrays() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(String[] names, int[] numbers, double[] measured) {
+                        Assert.assertEquals(names, new String[] {"a"});
+                        Assert.assertEquals(numbers, new int[] {1}, "numbers");
+                        Assert.assertEquals(measured, new double[] {0.3}, 0.001);
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(String[] names, int[] numbers, double[] measured) {
+                        Assertions.assertArrayEquals(new String[]{"a"}, names);
+                        Assertions.assertArrayEquals(new int[]{1}, numbers, "numbers");
+                        Assertions.assertArrayEquals(new double[]{0.3}, measured, 0.001);
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void primitives_areAttributedToTheirOwnOverload() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(int[] numbers, float[] ratios, float ratio) {
+                        Assert.assertEquals(numbers, new int[] {1});
+                        Assert.assertEquals(ratios, new float[] {0.5f}, 0.01f);
+                        Assert.assertEquals(ratio, 0.5f, 0.01f);
+                        Assert.assertNotEquals(ratio, 0.5f, 0.01f, "ratio");
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(int[] numbers, float[] ratios, float ratio) {
+                        Assertions.assertArrayEquals(new int[]{1}, numbers);
+                        Assertions.assertArrayEquals(new float[]{0.5f}, ratios, 0.01f);
+                        Assertions.assertEquals(0.5f, ratio, 0.01f);
+                        Assertions.assertNotEquals(0.5f, ratio, 0.01f, "ratio");
+                    }
+                }
+                """,
+                spec -> spec.afterRecipe(cu -> assertEquals(
+                    List.of(
+                        "assertArrayEquals(int[], int[])",
+                        "assertArrayEquals(float[], float[], float)",
+                        "assertEquals(float, float, float)",
+                        "assertNotEquals(float, float, float, java.lang.String)"
+                    ),
+                    new JavaIsoVisitor<List<String>>() {
+                        @Override
+                        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, List<String> signatures) {
+                            final JavaType.Method type = method.getMethodType();
+                            assertNotNull(type, method::toString);
+                            assertEquals(AssertToAssertionsStep.JUPITER_ASSERTIONS, type.getDeclaringType().getFullyQualifiedName());
+                            signatures.add(type.getName() + type.getParameterTypes().stream()
+                                .map(JavaType::toString).collect(Collectors.joining(", ", "(", ")")));
+                            return method;
+                        }
+                    }.reduce(cu, new ArrayList<>())
+                ))
+            ));
+        }
+
+        @Test void iterablesButNotSets() {
+            // language=java
+            rewriteRun(java(
+                """
+                import java.util.Collection;
+                import java.util.Set;
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(Collection<String> ordered, Set<String> unordered) {
+                        Assert.assertEquals(ordered, unordered);
+                        Assert.assertEquals(unordered, Set.of("a"));
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                import java.util.Collection;
+                import java.util.Set;
+
+                class MyTest {
+                    void test(Collection<String> ordered, Set<String> unordered) {
+                        Assertions.assertIterableEquals(unordered, ordered);
+                        Assertions.assertEquals(Set.of("a"), unordered);
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void iteratorsAndElementWiseNotEqualsAreLeftAlone() {
+            // language=java
+            rewriteRun(java(
+                """
+                import java.util.Iterator;
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(Iterator<String> actual, Iterator<String> expected, String[] names) {
+                        Assert.assertEquals(actual, expected);
+                        Assert.assertNotEquals(names, new String[] {"a"});
+                    }
+                }
+                """
+            ));
+        }
+    }
+
+    @Nested class imports {
+
+        @Test void keepsTestNgImport_whileStillInUse() {
+            // language=java
+            rewriteRun(java(
+                """
+                import java.util.Iterator;
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(Iterator<String> actual, Iterator<String> expected) {
+                        Assert.assertTrue(actual.hasNext());
+                        Assert.assertEquals(actual, expected);
+                    }
+                }
+                """,
+                """
+                import java.util.Iterator;
+
+                import org.junit.jupiter.api.Assertions;
+                import org.testng.Assert;
+
+                class MyTest {
+                    void test(Iterator<String> actual, Iterator<String> expected) {
+                        Assertions.assertTrue(actual.hasNext());
+                        Assert.assertEquals(actual, expected);
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void removesStaticImports() {
+            // language=java
+            rewriteRun(java(
+                """
+                import static org.testng.Assert.assertEquals;
+                import static org.testng.Assert.assertTrue;
+
+                class MyTest {
+                    void test(int actual) {
+                        assertEquals(actual, 1);
+                        assertTrue(actual > 0);
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Assertions;
+
+                class MyTest {
+                    void test(int actual) {
+                        Assertions.assertEquals(1, actual);
+                        Assertions.assertTrue(actual > 0);
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void ignoresOtherAssertions() {
+            // language=java
+            rewriteRun(java(
+                """
+                import static org.junit.jupiter.api.Assertions.assertEquals;
+
+                class MyTest {
+                    void test(int actual) {
+                        assertEquals(1, actual);
+                    }
+                }
+                """
+            ));
+        }
+    }
+
+    @Nested class templates {
+
+        @Test void areCachedPerExecutionContext() {
+            final J.CompilationUnit cu = (J.CompilationUnit) JavaParser.fromJavaVersion().classpath("testng").build()
+                .parse(new InMemoryExecutionContext(), """
+                    import org.testng.Assert;
+
+                    class MyTest {
+                        void test(String actual) {
+                            Assert.assertEquals(actual, "expected");
+                        }
+                    }
+                    """)
+                .findFirst().orElseThrow(IllegalStateException::new);
+            final ExecutionContext first = new InMemoryExecutionContext(), second = new InMemoryExecutionContext();
+
+            Dispatcher.of(new AssertToAssertionsStep()).visit(cu, first);
+            final Map<Long, Cursor> cached = first.getMessage(AssertToAssertionsStep.TEMPLATES);
+            Dispatcher.of(new AssertToAssertionsStep()).visit(cu, first);
+
+            assertEquals(1, cached.size());
+            assertSame(cached, first.getMessage(AssertToAssertionsStep.TEMPLATES));
+            assertNull(second.getMessage(AssertToAssertionsStep.TEMPLATES));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataProviderIndexTest {
+
+    /**
+     * Provider classes of a repository with 100k source files, if every tenth one was a provider class
+     */
+    private static final int CLASSES = 10_000;
+
+    private static final int PROVIDERS_PER_CLASS = 10;
+
+    @Test void resolvesByClassAndProviderName() {
+        final DataProviderIndex index = new DataProviderIndex();
+        index.add("a.Providers", "numbers", "provideNumbers");
+        index.add("a.Providers$Nested", "numbers", "numbers");
+        index.add("b.Providers", "words", "words");
+
+        assertEquals("provideNumbers", index.method("a.Providers", "numbers"));
+        assertEquals("numbers", index.method("a.Providers$Nested", "numbers"));
+        assertEquals("words", index.method("b.Providers", "words"));
+        assertNull(index.method("a.Providers", "words"));
+        assertNull(index.method("c.Providers", "numbers"));
+        assertEquals(3, index.size());
+    }
+
+    @Test void keepsFirstProviderOfSameName() {
+        final DataProviderIndex index = new DataProviderIndex();
+        index.add("a.Providers", "numbers", "first");
+        index.add("a.Providers", "numbers", "second");
+
+        assertEquals("first", index.method("a.Providers", "numbers"));
+        assertEquals(1, index.size());
+    }
+
+    @Test void marksConsumedProviders_beforeAndAfterTheyAreAdded() {
+        final DataProviderIndex index = new DataProviderIndex();
+        index.consume("a.Providers", "numbers");
+        index.add("a.Providers", "numbers", "provideNumbers");
+        index.add("a.Providers", "words", "words");
+        index.add("b.Providers", "words", "words");
+        index.consume("b.Providers", "words");
+
+        assertTrue(index.isConsumed("a.Providers", "numbers"));
+        assertFalse(index.isConsumed("a.Providers", "words"));
+        assertTrue(index.isConsumed("b.Providers", "words"));
+        assertFalse(index.isConsumed("c.Providers", "words"));
+        assertEquals(3, index.size());
+    }
+
+    @Test void resolvesAllProviders_ofLargeRepository() {
+        final DataProviderIndex index = fill();
+
+        assertEquals(CLASSES * PROVIDERS_PER_CLASS, index.size());
+        for (int c = 0; c < CLASSES; c++) {
+            for (int p = 0; p < PROVIDERS_PER_CLASS; p++) {
+                assertEquals("provide" + p, index.method(className(c), "provider" + p));
+            }
+        }
+    }
+
+    /**
+     * The footprint of the index must neither depend on the number of consumers nor hold on to LST elements,
+     * i.e. it consists of the primitive tables and each distinct name once
+     */
+    @Test void footprintIsBounded_forLargeRepository() {
+        final DataProviderIndex index = fill();
+        final long providerTable = index.tableBytes();
+        for (int consumers = 0; consumers < 3; consumers++) {
+            for (int c = 0; c < CLASSES; c++) {
+                for (int p = 0; p < PROVIDERS_PER_CLASS; p++) {
+                    index.consume(className(c), "provider" + p);
+                }
+            }
+        }
+
+        final int providers = CLASSES * PROVIDERS_PER_CLASS;
+        assertEquals(providers, index.size());
+        // class names, provider names and method names
+        assertEquals(CLASSES + 2 * PROVIDERS_PER_CLASS, index.names());
+        // load factor of at least 1/4
+        assertTrue(providerTable <= 4L * (Long.BYTES + Integer.BYTES) * providers, "providers take " + providerTable + " bytes");
+        final long consumedTable = index.tableBytes() - providerTable;
+        assertTrue(consumedTable <= 4L * Long.BYTES * providers, "consumed providers take " + consumedTable + " bytes");
+    }
+
+    private static DataProviderIndex fill() {
+        final DataProviderIndex index = new DataProviderIndex();
+        for (int c = 0; c < CLASSES; c++) {
+            final String className = className(c);
+            for (int p = 0; p < PROVIDERS_PER_CLASS; p++) {
+                index.add(className, "provider" + p, "provide" + p);
+            }
+        }
+        return index;
+    }
+
+    private static String className(int i) {
+        return "org.example.generated.module" + i % 100 + ".Providers" + i;
+    }
+}
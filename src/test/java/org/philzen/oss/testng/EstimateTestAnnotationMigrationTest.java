@@ -0,0 +1,123 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+import org.philzen.oss.table.MigrationEstimate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class EstimateTestAnnotationMigrationTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new EstimateTestAnnotationMigration());
+    }
+
+    @Test void countsAttributesAndMisfitsPerFile_withoutChangingIt() {
+        rewriteRun(
+            spec -> spec.dataTable(MigrationEstimate.Row.class, rows -> {
+                assertThat(rows).hasSize(1);
+                final MigrationEstimate.Row row = rows.get(0);
+                assertThat(row.getSourcePath()).isEqualTo("MyTest.java");
+                assertThat(row.getClassAnnotations()).isEqualTo(1);
+                assertThat(row.getMethodAnnotations()).isEqualTo(4);
+                assertThat(row.getDescription()).isEqualTo(1);
+                assertThat(row.getEnabled()).isEqualTo(0);
+                assertThat(row.getExpectedExceptions()).isEqualTo(1);
+                assertThat(row.getExpectedExceptionsMessageRegExp()).isEqualTo(1);
+                assertThat(row.getGroups()).isEqualTo(2);
+                assertThat(row.getTimeOut()).isEqualTo(1);
+                assertThat(row.getDataProvider()).isEqualTo(1);
+                assertThat(row.getDataProviderClass()).isEqualTo(0);
+                assertThat(row.getMisfitAttributes()).isEqualTo(3);
+                assertThat(row.getMisfits()).isEqualTo(2);
+            }),
+            // language=java
+            java(
+                """
+                import org.testng.annotations.DataProvider;
+                import org.testng.annotations.Test;
+
+                @Test(singleThreaded = true)
+                public class MyTest {
+
+                    @Test(description = "Yeah!", groups = {"a", "b"}, priority = 1, invocationCount = 2)
+                    public void test() {
+                    }
+
+                    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "boom")
+                    public void throwing() {
+                        throw new IllegalArgumentException("boom");
+                    }
+
+                    @DataProvider
+                    public Object[][] numbers() {
+                        return new Object[][] {{1}};
+                    }
+
+                    @Test(dataProvider = "numbers")
+                    public void parameterized(int number) {
+                    }
+
+                    public class Inner {
+                        @Test(groups = "inner", timeOut = 500)
+                        public void nested() {
+                        }
+                    }
+                }
+                """
+            )
+        );
+    }
+
+    @Test void resolvesProvidersOfOtherFiles() {
+        rewriteRun(
+            spec -> spec.dataTable(MigrationEstimate.Row.class, rows -> {
+                assertThat(rows).hasSize(1);
+                final MigrationEstimate.Row row = rows.get(0);
+                assertThat(row.getSourcePath()).isEqualTo("org/example/MyTest.java");
+                assertThat(row.getMethodAnnotations()).isEqualTo(2);
+                assertThat(row.getDataProvider()).isEqualTo(1);
+                assertThat(row.getDataProviderClass()).isEqualTo(1);
+                // the provider that doesn't exist is retained
+                assertThat(row.getMisfitAttributes()).isEqualTo(2);
+                assertThat(row.getMisfits()).isEqualTo(1);
+            }),
+            // language=java
+            java(
+                """
+                package org.example;
+
+                import org.testng.annotations.DataProvider;
+
+                public class Providers {
+                    @DataProvider
+                    public static Object[][] numbers() {
+                        return new Object[][] {{1}};
+                    }
+                }
+                """
+            ),
+            // language=java
+            java(
+                """
+                package org.example;
+
+                import org.testng.annotations.Test;
+
+                public class MyTest {
+                    @Test(dataProvider = "numbers", dataProviderClass = Providers.class)
+                    public void resolved(int number) {
+                    }
+
+                    @Test(dataProvider = "words", dataProviderClass = Providers.class)
+                    public void unresolved(String word) {
+                    }
+                }
+                """
+            )
+        );
+    }
+}
@@ -0,0 +1,317 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.config.DataTableDescriptor;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+import org.philzen.oss.table.MigrationProfile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class FusedMigrationTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new FusedMigration());
+    }
+
+    @Test void migratesTestsAndNestsInnerClasses() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.testng.annotations.Test;
+            
+            class Baz {
+            
+                @Test(description = "outer")
+                public void shouldDoStuff() {
+                }
+            
+                public static class NestedGroupedTests {
+            
+                    @Test public void shouldDoStuff() {
+                    }
+                }
+            
+                class Helper {
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.DisplayName;
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+            
+            class Baz {
+            
+                @Test
+                @DisplayName("outer")
+                public void shouldDoStuff() {
+                }
+            
+                @Nested
+                public class NestedGroupedTests {
+            
+                    @Test public void shouldDoStuff() {
+                    }
+                }
+            
+                class Helper {
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void nestsDeeplyNestedTests() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.testng.annotations.Test;
+            
+            @Test
+            public class Baz {
+            
+                public void shouldDoStuff() {
+                }
+            
+                public class Group {
+            
+                    public class Inner {
+                        @Test(enabled = false)
+                        public void shouldDoStuff() {
+                        }
+                    }
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.Disabled;
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+            
+            public class Baz {
+            
+                @Test
+                public void shouldDoStuff() {
+                }
+            
+                @Nested
+                public class Group {
+            
+                    @Nested
+                    public class Inner {
+                        @Test
+                        @Disabled
+                        public void shouldDoStuff() {
+                        }
+                    }
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void nestsJupiterTests() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.junit.jupiter.api.Test;
+            
+            class Baz {
+                class Inner {
+                    @Test void shouldDoStuff() {
+                    }
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.Nested;
+            import org.junit.jupiter.api.Test;
+            
+            class Baz {
+                @Nested
+                class Inner {
+                    @Test void shouldDoStuff() {
+                    }
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void migratesAssertions() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.testng.Assert;
+            import org.testng.annotations.Test;
+            
+            class Baz {
+            
+                @Test
+                public void shouldDoStuff() {
+                    Assert.assertEquals(Math.max(1, 2), 2);
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.Assertions;
+            import org.junit.jupiter.api.Test;
+            
+            class Baz {
+            
+                @Test
+                public void shouldDoStuff() {
+                    Assertions.assertEquals(2, Math.max(1, 2));
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void migratesLifecycleAnnotations() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.testng.annotations.BeforeClass;
+            import org.testng.annotations.BeforeMethod;
+            import org.testng.annotations.Test;
+            
+            class Baz {
+            
+                @BeforeClass
+                public void setUpClass() {
+                }
+            
+                @BeforeMethod
+                public void setUp() {
+                }
+            
+                @Test
+                public void shouldDoStuff() {
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.BeforeAll;
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.TestInstance;
+            
+            @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+            class Baz {
+            
+                @BeforeAll
+                public void setUpClass() {
+                }
+            
+                @BeforeEach
+                public void setUp() {
+                }
+            
+                @Test
+                public void shouldDoStuff() {
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void declaresPerClassLifecycleOnce_forProvidersAndLifecycleMethods() {
+        // language=java
+        rewriteRun(java(
+            """
+            import org.testng.annotations.BeforeClass;
+            import org.testng.annotations.DataProvider;
+            import org.testng.annotations.Test;
+            
+            class Baz {
+            
+                @BeforeClass
+                public void setUpClass() {
+                }
+            
+                @DataProvider
+                public Object[][] numbers() {
+                    return new Object[][] {{1}};
+                }
+            
+                @Test(dataProvider = "numbers")
+                public void shouldDoStuff(int number) {
+                }
+            }
+            """,
+            """
+            import org.junit.jupiter.api.BeforeAll;
+            import org.junit.jupiter.api.TestInstance;
+            import org.junit.jupiter.params.ParameterizedTest;
+            import org.junit.jupiter.params.provider.MethodSource;
+            
+            @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+            class Baz {
+            
+                @BeforeAll
+                public void setUpClass() {
+                }
+            
+                public Object[][] numbers() {
+                    return new Object[][] {{1}};
+                }
+            
+                @ParameterizedTest
+                @MethodSource("numbers")
+                public void shouldDoStuff(int number) {
+                }
+            }
+            """
+        ));
+    }
+
+    @Test void declaresProfileDataTable() {
+        assertThat(new FusedMigration().getDataTableDescriptors())
+            .extracting(DataTableDescriptor::getName)
+            .contains(MigrationProfile.class.getName());
+    }
+
+    @Test void recordsProfile_whenEnabled() {
+        rewriteRun(
+            spec -> spec.recipe(new FusedMigration(true)).dataTable(MigrationProfile.Row.class, rows -> {
+                assertThat(rows).hasSize(1);
+                assertThat(rows.get(0).getSourcePath()).isEqualTo("Baz.java");
+                assertThat(rows.get(0).getMethods()).isEqualTo(1);
+                assertThat(rows.get(0).getDisplayNames()).isEqualTo(1);
+            }),
+            // language=java
+            java(
+                """
+                import org.testng.annotations.Test;
+                
+                class Baz {
+                
+                    @Test(description = "outer")
+                    public void shouldDoStuff() {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.DisplayName;
+                import org.junit.jupiter.api.Test;
+                
+                class Baz {
+                
+                    @Test
+                    @DisplayName("outer")
+                    public void shouldDoStuff() {
+                    }
+                }
+                """
+            )
+        );
+    }
+
+    @Test void equalsByOptions() {
+        assertThat(new FusedMigration(true)).isEqualTo(new FusedMigration(true)).isNotEqualTo(new FusedMigration());
+    }
+}
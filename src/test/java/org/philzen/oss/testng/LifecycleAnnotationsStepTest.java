@@ -0,0 +1,272 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+import org.philzen.oss.engine.Dispatcher;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.test.RewriteTest.toRecipe;
+
+class LifecycleAnnotationsStepTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(toRecipe(() -> Dispatcher.of(new LifecycleAnnotationsStep())));
+    }
+
+    @Nested class perMethod {
+
+        @Test void beforeAndAfterMethod() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.AfterMethod;
+                import org.testng.annotations.BeforeMethod;
+
+                class MyTest {
+                    @BeforeMethod
+                    public void setUp() {
+                    }
+
+                    @AfterMethod(alwaysRun = true) public void tearDown() {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.AfterEach;
+                import org.junit.jupiter.api.BeforeEach;
+
+                class MyTest {
+                    @BeforeEach
+                    public void setUp() {
+                    }
+
+                    @AfterEach public void tearDown() {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void fullyQualified() {
+            // language=java
+            rewriteRun(java(
+                """
+                class MyTest {
+                    @org.testng.annotations.BeforeMethod
+                    public void setUp() {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.BeforeEach;
+
+                class MyTest {
+                    @BeforeEach
+                    public void setUp() {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void keepsAnnotationsWithoutJupiterEquivalent() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.AfterMethod;
+                import org.testng.annotations.BeforeMethod;
+
+                class MyTest {
+                    @BeforeMethod(groups = "slow")
+                    public void setUp() {
+                    }
+
+                    @AfterMethod
+                    public void tearDown() {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.AfterEach;
+                import org.testng.annotations.BeforeMethod;
+
+                class MyTest {
+                    @BeforeMethod(groups = "slow")
+                    public void setUp() {
+                    }
+
+                    @AfterEach
+                    public void tearDown() {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void keepsAnnotationsOfMethodsWithInjectedParameters() {
+            // language=java
+            rewriteRun(java(
+                """
+                import java.lang.reflect.Method;
+                import org.testng.ITestResult;
+                import org.testng.annotations.AfterMethod;
+                import org.testng.annotations.BeforeMethod;
+
+                class MyTest {
+                    @BeforeMethod
+                    public void setUp(Method method) {
+                    }
+
+                    @AfterMethod(alwaysRun = true)
+                    public void tearDown(ITestResult result, Object[] parameters) {
+                    }
+                }
+                """
+            ));
+        }
+    }
+
+    @Nested class perClass {
+
+        @Test void staticMethods() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.AfterClass;
+                import org.testng.annotations.BeforeClass;
+
+                class MyTest {
+                    @BeforeClass
+                    static void setUpClass() {
+                    }
+
+                    @AfterClass
+                    static void tearDownClass() {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.AfterAll;
+                import org.junit.jupiter.api.BeforeAll;
+
+                class MyTest {
+                    @BeforeAll
+                    static void setUpClass() {
+                    }
+
+                    @AfterAll
+                    static void tearDownClass() {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void instanceMethods_requestPerClassLifecycle() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.BeforeClass;
+
+                public class MyTest {
+                    private Object resource;
+
+                    @BeforeClass
+                    public void setUpClass() {
+                        resource = new Object();
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.BeforeAll;
+                import org.junit.jupiter.api.TestInstance;
+
+                @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+                public class MyTest {
+                    private Object resource;
+
+                    @BeforeAll
+                    public void setUpClass() {
+                        resource = new Object();
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void keepsAnnotationsOfMethodsWithInjectedParameters() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.ITestContext;
+                import org.testng.annotations.BeforeClass;
+
+                class MyTest {
+                    @BeforeClass
+                    public void setUpClass(ITestContext context) {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void instanceMethodsOfAnonymousClass_doNotRequestPerClassLifecycleOfEnclosingClass() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.BeforeClass;
+
+                class MyTest {
+                    Object fixture = new Object() {
+                        @BeforeClass
+                        public void setUpClass() {
+                        }
+                    };
+                }
+                """,
+                """
+                import org.junit.jupiter.api.BeforeAll;
+
+                class MyTest {
+                    Object fixture = new Object() {
+                        @BeforeAll
+                        public void setUpClass() {
+                        }
+                    };
+                }
+                """
+            ));
+        }
+
+        @Test void keepsExistingTestInstance() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.junit.jupiter.api.TestInstance;
+                import org.testng.annotations.AfterClass;
+
+                @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+                class MyTest {
+                    @AfterClass
+                    void tearDownClass() {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.AfterAll;
+                import org.junit.jupiter.api.TestInstance;
+
+                @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+                class MyTest {
+                    @AfterAll
+                    void tearDownClass() {
+                    }
+                }
+                """
+            ));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.test.RecipeSpec;
+import org.openrewrite.test.RewriteTest;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+import static org.openrewrite.test.SourceSpecs.text;
+import static org.openrewrite.xml.Assertions.xml;
+
+class MigrateSuiteParallelismTest implements RewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new MigrateSuiteParallelism());
+    }
+
+    @Nested class generatesPlatformProperties {
+
+        @Test void parallelMethods_withThreadCount() {
+            rewriteRun(
+                // language=xml
+                xml(
+                    """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+                    <suite name="All" parallel="methods" thread-count="4">
+                        <test name="unit">
+                            <packages>
+                                <package name="org.example.*"/>
+                            </packages>
+                        </test>
+                    </suite>
+                    """,
+                    spec -> spec.path("src/test/resources/testng.xml")
+                ),
+                properties(
+                    null,
+                    """
+                    # Parallel execution as configured by src/test/resources/testng.xml
+                    junit.jupiter.execution.parallel.enabled=true
+                    junit.jupiter.execution.parallel.mode.default=concurrent
+                    junit.jupiter.execution.parallel.mode.classes.default=concurrent
+                    junit.jupiter.execution.parallel.config.strategy=fixed
+                    junit.jupiter.execution.parallel.config.fixed.parallelism=4
+                    """,
+                    spec -> spec.path("src/test/resources/junit-platform.properties")
+                )
+            );
+        }
+
+        @Test void parallelClasses_withoutThreadCount_inModuleRoot() {
+            rewriteRun(
+                // language=xml
+                xml(
+                    """
+                    <suite name="Module" parallel="classes">
+                        <test name="unit">
+                            <classes>
+                                <class name="org.example.MyTest"/>
+                            </classes>
+                        </test>
+                    </suite>
+                    """,
+                    spec -> spec.path("module/testng.xml")
+                ),
+                properties(
+                    null,
+                    """
+                    # Parallel execution as configured by module/testng.xml
+                    junit.jupiter.execution.parallel.enabled=true
+                    junit.jupiter.execution.parallel.mode.default=same_thread
+                    junit.jupiter.execution.parallel.mode.classes.default=concurrent
+                    junit.jupiter.execution.parallel.config.strategy=dynamic
+                    """,
+                    spec -> spec.path("module/src/test/resources/junit-platform.properties")
+                )
+            );
+        }
+
+        @Test void suiteParsedAsPlainText() {
+            rewriteRun(
+                text(
+                    """
+                    <suite name="All" parallel="tests" thread-count="2"><test name="unit"/></suite>
+                    """,
+                    spec -> spec.path("src/test/resources/suite.xml")
+                ),
+                properties(
+                    null,
+                    """
+                    # Parallel execution as configured by src/test/resources/suite.xml
+                    junit.jupiter.execution.parallel.enabled=true
+                    junit.jupiter.execution.parallel.mode.default=same_thread
+                    junit.jupiter.execution.parallel.mode.classes.default=concurrent
+                    junit.jupiter.execution.parallel.config.strategy=fixed
+                    junit.jupiter.execution.parallel.config.fixed.parallelism=2
+                    """,
+                    spec -> spec.path("src/test/resources/junit-platform.properties")
+                )
+            );
+        }
+    }
+
+    @Nested class existingPlatformProperties {
+
+        @Test void addsMissingParameters_retainsConfiguredOnes() {
+            rewriteRun(
+                // language=xml
+                xml(
+                    """
+                    <suite name="All" parallel="methods" thread-count="8"/>
+                    """,
+                    spec -> spec.path("src/test/resources/testng.xml")
+                ),
+                properties(
+                    """
+                    junit.jupiter.displayname.generator.default=org.junit.jupiter.api.DisplayNameGenerator$Simple
+                    junit.jupiter.execution.parallel.mode.default=same_thread
+                    """,
+                    """
+                    junit.jupiter.displayname.generator.default=org.junit.jupiter.api.DisplayNameGenerator$Simple
+                    junit.jupiter.execution.parallel.config.fixed.parallelism=8
+                    junit.jupiter.execution.parallel.config.strategy=fixed
+                    junit.jupiter.execution.parallel.enabled=true
+                    junit.jupiter.execution.parallel.mode.classes.default=concurrent
+                    junit.jupiter.execution.parallel.mode.default=same_thread
+                    """,
+                    spec -> spec.path("src/test/resources/junit-platform.properties")
+                )
+            );
+        }
+    }
+
+    @Nested class noChange {
+
+        @Test void sequentialSuite() {
+            // language=xml
+            rewriteRun(xml(
+                """
+                <suite name="All" parallel="none" thread-count="4"/>
+                """,
+                spec -> spec.path("src/test/resources/testng.xml")
+            ));
+        }
+
+        @Test void otherDocument() {
+            // language=xml
+            rewriteRun(xml(
+                """
+                <configuration parallel="methods"/>
+                """,
+                spec -> spec.path("src/test/resources/logback-test.xml")
+            ));
+        }
+    }
+
+    @Nested class migrateToJunit5 {
+
+        @Test void includesSuiteParallelism() {
+            rewriteRun(
+                spec -> spec.recipeFromResources("org.philzen.oss.testng.MigrateToJunit5"),
+                // language=java
+                java(
+                    """
+                    import org.testng.annotations.Test;
+
+                    class MyTest {
+                        @Test
+                        public void test() {
+                        }
+                    }
+                    """,
+                    """
+                    import org.junit.jupiter.api.Test;
+
+                    class MyTest {
+                        @Test
+                        public void test() {
+                        }
+                    }
+                    """
+                ),
+                // language=xml
+                xml(
+                    """
+                    <suite name="All" parallel="classes" thread-count="3"/>
+                    """,
+                    spec -> spec.path("src/test/resources/testng.xml")
+                ),
+                properties(
+                    null,
+                    """
+                    # Parallel execution as configured by src/test/resources/testng.xml
+                    junit.jupiter.execution.parallel.enabled=true
+                    junit.jupiter.execution.parallel.mode.default=same_thread
+                    junit.jupiter.execution.parallel.mode.classes.default=concurrent
+                    junit.jupiter.execution.parallel.config.strategy=fixed
+                    junit.jupiter.execution.parallel.config.fixed.parallelism=3
+                    """,
+                    spec -> spec.path("src/test/resources/junit-platform.properties")
+                )
+            );
+        }
+    }
+
+    /**
+     * A suite with a million <code>&lt;test&gt;</code> entries (about 100 MB), of which only the root element is read
+     */
+    @Test void readsOnlyRootElement_ofLargeSuite() {
+        final GeneratedSuite suite = new GeneratedSuite(1_000_000);
+        final SuiteParallelism parallelism = SuiteParallelism.read(suite);
+
+        assertEquals(new SuiteParallelism(SuiteParallelism.Mode.METHODS, 16), parallelism);
+        assertTrue(suite.read < 64 * 1024, "read " + suite.read + " characters");
+    }
+
+    private static class GeneratedSuite extends Reader {
+
+        private static final byte[] HEAD = (
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE suite SYSTEM \"https://testng.org/testng-1.0.dtd\">\n"
+                + "<suite name=\"Generated\" parallel=\"methods\" thread-count=\"16\">\n"
+        ).getBytes(StandardCharsets.UTF_8);
+
+        private static final byte[] TEST = (
+            "    <test name=\"generated\"><classes><class name=\"org.example.GeneratedTest\"/></classes></test>\n"
+        ).getBytes(StandardCharsets.UTF_8);
+
+        private final long length;
+
+        long read;
+
+        GeneratedSuite(int tests) {
+            length = HEAD.length + (long) tests * TEST.length;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int count) {
+            if (read >= length) {
+                return -1;
+            }
+
+            int n = 0;
+            while (n < count && read < length) {
+                buffer[offset + n++] = (char) (read < HEAD.length ? HEAD[(int) read] : TEST[(int) ((read - HEAD.length) % TEST.length)]);
+                read++;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
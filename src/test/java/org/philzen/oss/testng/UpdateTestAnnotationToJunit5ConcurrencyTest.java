@@ -0,0 +1,129 @@
+package org.philzen.oss.testng;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the recipe on many files at once, to check that the shared templates, annotation prototypes and
+ * parser pools yield exactly the same output as a sequential run, and that the input trees shared by
+ * all runs are never mutated
+ */
+class UpdateTestAnnotationToJunit5ConcurrencyTest {
+
+    private static final int FILES = 48;
+
+    private static final int THREADS = 8;
+
+    private static final String[] ATTRIBUTES = {
+        "",
+        "(description = \"Yeah!\")",
+        "(enabled = false)",
+        "(expectedExceptions = IllegalArgumentException.class)",
+        "(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = \"boom\")",
+        "(groups = \"integration\")",
+        "(timeOut = 500)",
+        "(invocationCount = 2)",
+    };
+
+    private static String source(int i) {
+        final StringBuilder sb = new StringBuilder("package org.philzen.oss.concurrency;\n\n")
+            .append("import org.testng.annotations.Test;\n\n")
+            .append(i % 3 == 0 ? "@Test\n" : "")
+            .append("public class Concurrency").append(i).append("Test {\n");
+        for (int m = 0; m < ATTRIBUTES.length; m++) {
+            sb.append("\n    @Test").append(ATTRIBUTES[(i + m) % ATTRIBUTES.length]).append('\n')
+                .append("    public void test").append(m).append("() {\n")
+                .append("        throw new IllegalArgumentException(\"boom\");\n")
+                .append("    }\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    /**
+     * Replaces the lists of the declarations that the recipe edits with unmodifiable ones,
+     * so that any attempt to change them in place fails the run
+     */
+    private static SourceFile freeze(SourceFile sourceFile) {
+        return (SourceFile) new JavaIsoVisitor<Integer>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Integer p) {
+                final J.ClassDeclaration c = super.visitClassDeclaration(classDecl, p);
+                return c.withLeadingAnnotations(Collections.unmodifiableList(c.getLeadingAnnotations()))
+                    .withModifiers(Collections.unmodifiableList(c.getModifiers()));
+            }
+
+            @Override
+            public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+                final J.MethodDeclaration m = super.visitMethodDeclaration(method, p);
+                return m.withLeadingAnnotations(Collections.unmodifiableList(m.getLeadingAnnotations()))
+                    .withModifiers(Collections.unmodifiableList(m.getModifiers()));
+            }
+        }.visitNonNull(sourceFile, 0);
+    }
+
+    private static String migrate(SourceFile sourceFile) {
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        final ExecutionContext ctx = new InMemoryExecutionContext(errors::add);
+        final List<Result> results = new UpdateTestAnnotationToJunit5()
+            .run(new InMemoryLargeSourceSet(Collections.singletonList(sourceFile)), ctx)
+            .getChangeset().getAllResults();
+
+        assertEquals(Collections.emptyList(), errors);
+        assertEquals(1, results.size());
+        return results.get(0).getAfter().printAll();
+    }
+
+    @Test void producesSameOutputAsSequentialRun() throws Exception {
+        final List<String> sources = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            sources.add(source(i));
+        }
+        final List<SourceFile> parsed = JavaParser.fromJavaVersion().classpath("testng").build()
+            .parse(new InMemoryExecutionContext(), sources.toArray(new String[0]))
+            .map(UpdateTestAnnotationToJunit5ConcurrencyTest::freeze)
+            .collect(Collectors.toList());
+        final List<String> expected = parsed.stream()
+            .map(UpdateTestAnnotationToJunit5ConcurrencyTest::migrate)
+            .collect(Collectors.toList());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int round = 0; round < 2; round++) {
+                for (SourceFile sourceFile : parsed) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return migrate(sourceFile);
+                    }));
+                }
+            }
+            start.countDown();
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(expected.get(i % FILES), futures.get(i).get(2, TimeUnit.MINUTES));
+            }
+
+            for (int i = 0; i < FILES; i++) {
+                assertEquals(sources.get(i), parsed.get(i).printAll(), "input tree was mutated");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
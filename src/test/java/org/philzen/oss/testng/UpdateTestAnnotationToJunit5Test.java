@@ -2,9 +2,11 @@ package org.philzen.oss.testng;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.philzen.oss.table.MigrationProfile;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.RewriteTest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.java.Assertions.java;
 
 @SuppressWarnings({"groupsTestNG", "NewClassNamingConvention"})
@@ -439,6 +441,32 @@ class UpdateTestAnnotationToJunit5Test implements RewriteTest {
             ));
         }
 
+        @Test void isMigratedWhenReferencedInMethodBody() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.Test;
+                
+                public class MyTest {
+                    @Test
+                    public void test() {
+                        Object o = Test.class;
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Test;
+                
+                public class MyTest {
+                    @Test
+                    public void test() {
+                        Object o = Test.class;
+                    }
+                }
+                """
+            ));
+        }
+
         @Test void isMigrated_whenUsedInJavadoc() {
             // language=java
             rewriteRun(java(
@@ -780,6 +808,66 @@ class UpdateTestAnnotationToJunit5Test implements RewriteTest {
                 """
             ));
         }
+
+        @Test void isMigratedToDisabledAnnotation_whenWrittenAfterModifier() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.Test;
+                
+                public class MyTest {
+                
+                    public @Test(enabled = false) void test() {
+                        // some content
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Disabled;
+                import org.junit.jupiter.api.Test;
+                
+                public class MyTest {
+                
+                    @Test
+                    @Disabled
+                    public void test() {
+                        // some content
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void isMigratedToDisabledAnnotation_whenWrittenAfterModifiers_besideOtherAnnotation() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.Test;
+                
+                public class MyTest {
+                
+                    @Deprecated
+                    public static @Test(enabled = false) void test() {
+                        // some content
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Disabled;
+                import org.junit.jupiter.api.Test;
+                
+                public class MyTest {
+                
+                    @Deprecated
+                    @Test
+                    @Disabled
+                    public static void test() {
+                        // some content
+                    }
+                }
+                """
+            ));
+        }
     }
 
     @Nested class Attribute_expectedExceptions {
@@ -1226,6 +1314,471 @@ class UpdateTestAnnotationToJunit5Test implements RewriteTest {
         }
     }
 
+    @Nested class Attribute_dataProvider {
+
+        @Test void isMigratedToMethodSource() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.DataProvider;
+                import org.testng.annotations.Test;
+                
+                public class MyTest {
+                
+                    @DataProvider
+                    public static Object[][] numbers() {
+                        return new Object[][] {{1}, {2}};
+                    }
+                
+                    @Test(dataProvider = "numbers")
+                    public void test(int number) {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.params.ParameterizedTest;
+                import org.junit.jupiter.params.provider.MethodSource;
+                
+                public class MyTest {
+                
+                    public static Object[][] numbers() {
+                        return new Object[][] {{1}, {2}};
+                    }
+                
+                    @ParameterizedTest
+                    @MethodSource("numbers")
+                    public void test(int number) {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void resolvesProviderName_declaredAfterConsumers() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.DataProvider;
+                import org.testng.annotations.Test;
+                
+                public class MyTest {
+                
+                    @Test(dataProvider = "words", description = "first")
+                    public void first(String word) {
+                    }
+                
+                    @Test(dataProvider = "words")
+                    public void second(String word) {
+                    }
+                
+                    @DataProvider(name = "words")
+                    public static Object[][] provideWords() {
+                        return new Object[][] {{"a"}, {"b"}};
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.DisplayName;
+                import org.junit.jupiter.params.ParameterizedTest;
+                import org.junit.jupiter.params.provider.MethodSource;
+                
+                public class MyTest {
+                
+                    @ParameterizedTest
+                    @MethodSource("provideWords")
+                    @DisplayName("first")
+                    public void first(String word) {
+                    }
+                
+                    @ParameterizedTest
+                    @MethodSource("provideWords")
+                    public void second(String word) {
+                    }
+                
+                    public static Object[][] provideWords() {
+                        return new Object[][] {{"a"}, {"b"}};
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void instanceProvider_requestsPerClassLifecycle() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.DataProvider;
+                import org.testng.annotations.Test;
+                
+                public class MyTest {
+                
+                    private final int offset = 1;
+                
+                    @DataProvider
+                    public Object[][] numbers() {
+                        return new Object[][] {{offset}};
+                    }
+                
+                    @Test(dataProvider = "numbers")
+                    public void test(int number) {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.TestInstance;
+                import org.junit.jupiter.params.ParameterizedTest;
+                import org.junit.jupiter.params.provider.MethodSource;
+                
+                @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+                public class MyTest {
+                
+                    private final int offset = 1;
+                
+                    public Object[][] numbers() {
+                        return new Object[][] {{offset}};
+                    }
+                
+                    @ParameterizedTest
+                    @MethodSource("numbers")
+                    public void test(int number) {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void unresolvableProvider_isRetained() {
+            // language=java
+            rewriteRun(java(
+                """
+                import org.testng.annotations.Test;
+                
+                public class MyTest {
+                
+                    @Test(dataProvider = "elsewhere")
+                    public void test(int number) {
+                    }
+                }
+                """,
+                """
+                import org.junit.jupiter.api.Test;
+                
+                public class MyTest {
+                
+                    @Test
+                    /* ❗️ ❗️ ❗️
+                       At least one `@Test`-attribute could not be migrated to JUnit 5. Kindly review the remainder below
+                       and manually apply any changes you may require to retain the existing test suite's behavior. Delete
+                    ↓  the annotation and this comment when satisfied, or use `git reset --hard` to roll back the migration.
+                   \s
+                       If you think this is a mistake or have an idea how this migration could be implemented instead, any
+                       feedback to https://github.com/Philzen/rewrite-TestNG-to-JUnit5/issues will be greatly appreciated.
+                    */
+                    @org.testng.annotations.Test(dataProvider = "elsewhere")
+                    public void test(int number) {
+                    }
+                }
+                """
+            ));
+        }
+
+        @Test void providerOfOtherClass_isResolvedInOtherFile() {
+            rewriteRun(
+                // language=java
+                java(
+                    """
+                    package org.example;
+                    
+                    import org.testng.annotations.DataProvider;
+                    
+                    public class Providers {
+                    
+                        @DataProvider(name = "numbers")
+                        public static Object[][] provideNumbers() {
+                            return new Object[][] {{1}};
+                        }
+                    
+                        public static class Nested {
+                    
+                            @DataProvider
+                            public static Object[][] words() {
+                                return new Object[][] {{"a"}};
+                            }
+                        }
+                    }
+                    """,
+                    """
+                    package org.example;
+                    
+                    public class Providers {
+                    
+                        public static Object[][] provideNumbers() {
+                            return new Object[][] {{1}};
+                        }
+                    
+                        public static class Nested {
+                    
+                            public static Object[][] words() {
+                                return new Object[][] {{"a"}};
+                            }
+                        }
+                    }
+                    """
+                ),
+                // language=java
+                java(
+                    """
+                    package org.example.test;
+                    
+                    import org.example.Providers;
+                    import org.testng.annotations.Test;
+                    
+                    public class MyTest {
+                    
+                        @Test(dataProvider = "numbers", dataProviderClass = Providers.class)
+                        public void numbers(int number) {
+                        }
+                    
+                        @Test(dataProviderClass = Providers.Nested.class, dataProvider = "words")
+                        public void words(String word) {
+                        }
+                    }
+                    """,
+                    """
+                    package org.example.test;
+                    
+                    import org.junit.jupiter.params.ParameterizedTest;
+                    import org.junit.jupiter.params.provider.MethodSource;
+                    
+                    public class MyTest {
+                    
+                        @ParameterizedTest
+                        @MethodSource("org.example.Providers#provideNumbers")
+                        public void numbers(int number) {
+                        }
+                    
+                        @ParameterizedTest
+                        @MethodSource("org.example.Providers$Nested#words")
+                        public void words(String word) {
+                        }
+                    }
+                    """
+                )
+            );
+        }
+
+        @Test void instanceProviderOfOtherClass_isRetained() {
+            rewriteRun(
+                // language=java
+                java(
+                    """
+                    package org.example;
+                    
+                    import org.testng.annotations.DataProvider;
+                    
+                    public class Providers {
+                    
+                        @DataProvider
+                        public Object[][] numbers() {
+                            return new Object[][] {{1}};
+                        }
+                    }
+                    """
+                ),
+                // language=java
+                java(
+                    """
+                    package org.example.test;
+                    
+                    import org.example.Providers;
+                    import org.testng.annotations.Test;
+                    
+                    public class MyTest {
+                    
+                        @Test(dataProvider = "numbers", dataProviderClass = Providers.class)
+                        public void test(int number) {
+                        }
+                    }
+                    """,
+                    """
+                    package org.example.test;
+                    
+                    import org.example.Providers;
+                    import org.junit.jupiter.api.Test;
+                    
+                    public class MyTest {
+                    
+                        @Test
+                        /* ❗️ ❗️ ❗️
+                           At least one `@Test`-attribute could not be migrated to JUnit 5. Kindly review the remainder below
+                           and manually apply any changes you may require to retain the existing test suite's behavior. Delete
+                        ↓  the annotation and this comment when satisfied, or use `git reset --hard` to roll back the migration.
+                       \s
+                           If you think this is a mistake or have an idea how this migration could be implemented instead, any
+                           feedback to https://github.com/Philzen/rewrite-TestNG-to-JUnit5/issues will be greatly appreciated.
+                        */
+                        @org.testng.annotations.Test(dataProvider = "numbers", dataProviderClass = Providers.class)
+                        public void test(int number) {
+                        }
+                    }
+                    """
+                )
+            );
+        }
+        @Test void providerOfOtherClass_withoutMigratedConsumer_isRetained() {
+            rewriteRun(
+                // language=java
+                java(
+                    """
+                    package org.example;
+                    
+                    import org.testng.annotations.DataProvider;
+                    
+                    public class Providers {
+                    
+                        @DataProvider
+                        public static Object[][] numbers() {
+                            return new Object[][] {{1}};
+                        }
+                    
+                        @DataProvider
+                        public static Object[][] words() {
+                            return new Object[][] {{"a"}};
+                        }
+                    }
+                    """,
+                    """
+                    package org.example;
+                    
+                    import org.testng.annotations.DataProvider;
+                    
+                    public class Providers {
+                    
+                        public static Object[][] numbers() {
+                            return new Object[][] {{1}};
+                        }
+                    
+                        @DataProvider
+                        public static Object[][] words() {
+                            return new Object[][] {{"a"}};
+                        }
+                    }
+                    """
+                ),
+                // language=java
+                java(
+                    """
+                    package org.example.test;
+                    
+                    import org.example.Providers;
+                    import org.testng.annotations.Test;
+                    
+                    public class MyTest {
+                    
+                        @Test(dataProvider = "numbers", dataProviderClass = Providers.class)
+                        public void numbers(int number) {
+                        }
+                    }
+                    """,
+                    """
+                    package org.example.test;
+                    
+                    import org.junit.jupiter.params.ParameterizedTest;
+                    import org.junit.jupiter.params.provider.MethodSource;
+                    
+                    public class MyTest {
+                    
+                        @ParameterizedTest
+                        @MethodSource("org.example.Providers#numbers")
+                        public void numbers(int number) {
+                        }
+                    }
+                    """
+                )
+            );
+        }
+
+        @Test void providerOfSuperclass_isRetained_forConsumersOfSubclass() {
+            rewriteRun(
+                // language=java
+                java(
+                    """
+                    package org.example;
+                    
+                    import org.testng.annotations.DataProvider;
+                    import org.testng.annotations.Test;
+                    
+                    public class BaseTest {
+                    
+                        @DataProvider
+                        public static Object[][] numbers() {
+                            return new Object[][] {{1}};
+                        }
+                    
+                        @Test
+                        public void base() {
+                        }
+                    }
+                    """,
+                    """
+                    package org.example;
+                    
+                    import org.junit.jupiter.api.Test;
+                    import org.testng.annotations.DataProvider;
+                    
+                    public class BaseTest {
+                    
+                        @DataProvider
+                        public static Object[][] numbers() {
+                            return new Object[][] {{1}};
+                        }
+                    
+                        @Test
+                        public void base() {
+                        }
+                    }
+                    """
+                ),
+                // language=java
+                java(
+                    """
+                    package org.example;
+                    
+                    import org.testng.annotations.Test;
+                    
+                    public class MyTest extends BaseTest {
+                    
+                        @Test(dataProvider = "numbers")
+                        public void test(int number) {
+                        }
+                    }
+                    """,
+                    """
+                    package org.example;
+                    
+                    import org.junit.jupiter.api.Test;
+                    
+                    public class MyTest extends BaseTest {
+                    
+                        @Test
+                        /* ❗️ ❗️ ❗️
+                           At least one `@Test`-attribute could not be migrated to JUnit 5. Kindly review the remainder below
+                           and manually apply any changes you may require to retain the existing test suite's behavior. Delete
+                        ↓  the annotation and this comment when satisfied, or use `git reset --hard` to roll back the migration.
+                       \s
+                           If you think this is a mistake or have an idea how this migration could be implemented instead, any
+                           feedback to https://github.com/Philzen/rewrite-TestNG-to-JUnit5/issues will be greatly appreciated.
+                        */
+                        @org.testng.annotations.Test(dataProvider = "numbers")
+                        public void test(int number) {
+                        }
+                    }
+                    """
+                )
+            );
+        }
+    }
+
     @Nested class MultipleAttributes {
 
         @Test void expectedExceptions_and_timeOut() {
@@ -1444,4 +1997,80 @@ class UpdateTestAnnotationToJunit5Test implements RewriteTest {
             ));
         }
     }
+
+    @Nested class Profile {
+
+        @Test void recordsCountersPerFile() {
+            rewriteRun(
+                spec -> spec.recipe(new UpdateTestAnnotationToJunit5(true)).dataTable(MigrationProfile.Row.class, rows -> {
+                    assertThat(rows).hasSize(1);
+                    final MigrationProfile.Row row = rows.get(0);
+                    assertThat(row.getSourcePath()).isEqualTo("MyTest.java");
+                    assertThat(row.getMethods()).isEqualTo(2);
+                    assertThat(row.getDisplayNames()).isEqualTo(1);
+                    assertThat(row.getDisabled()).isEqualTo(0);
+                    assertThat(row.getTags()).isEqualTo(2);
+                    assertThat(row.getTimeouts()).isEqualTo(0);
+                    assertThat(row.getAssertThrows()).isEqualTo(1);
+                    assertThat(row.getMisfits()).isEqualTo(1);
+                    assertThat(row.isTypesChanged()).isTrue();
+                    assertThat(row.getWallTimeMicros()).isPositive();
+                }),
+                // language=java
+                java(
+                    """
+                    import org.testng.annotations.Test;
+                    
+                    public class MyTest {
+                    
+                        @Test(description = "Yeah!", groups = {"a", "b"}, priority = 1)
+                        public void test() {
+                        }
+                    
+                        @Test(expectedExceptions = IllegalArgumentException.class)
+                        public void throwing() {
+                            throw new IllegalArgumentException("boom");
+                        }
+                    }
+                    """,
+                    spec -> spec.after(actual -> actual)
+                )
+            );
+        }
+
+        @Test void isEnabledByRecipeOption_inDeclarativeRecipe() {
+            rewriteRun(
+                spec -> spec.recipeFromYaml(
+                    """
+                    type: specs.openrewrite.org/v1beta/recipe
+                    name: org.philzen.oss.testng.ProfiledMigration
+                    displayName: Profiled migration
+                    description: Migrates TestNG tests to JUnit Jupiter and profiles the migration.
+                    recipeList:
+                      - org.philzen.oss.testng.FusedMigration:
+                          profile: true
+                    """,
+                    "org.philzen.oss.testng.ProfiledMigration"
+                ).dataTable(MigrationProfile.Row.class, rows -> {
+                    assertThat(rows).hasSize(1);
+                    assertThat(rows.get(0).getMethods()).isEqualTo(1);
+                    assertThat(rows.get(0).getDisplayNames()).isEqualTo(1);
+                }),
+                // language=java
+                java(
+                    """
+                    import org.testng.annotations.Test;
+                    
+                    public class MyTest {
+                    
+                        @Test(description = "Yeah!")
+                        public void test() {
+                        }
+                    }
+                    """,
+                    spec -> spec.after(actual -> actual)
+                )
+            );
+        }
+    }
 }
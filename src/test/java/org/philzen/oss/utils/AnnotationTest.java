@@ -0,0 +1,55 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Tree;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnotationTest {
+
+    @Test void isTypeAttributed() {
+        final J.Annotation test = Annotation.test(false);
+
+        assertEquals("@Test", test.toString());
+        assertTrue(TypeUtils.isOfClassType(test.getType(), "org.junit.jupiter.api.Test"));
+        assertInstanceOf(JavaType.Class.class, test.getType());
+    }
+
+    @Test void isFullyQualified_whenRequested() {
+        assertEquals("@org.junit.jupiter.api.Test", Annotation.test(true).toString());
+    }
+
+    @Test void lifecycleAnnotationsAreTypeAttributed() {
+        assertTrue(TypeUtils.isOfClassType(Annotation.beforeEach().getType(), "org.junit.jupiter.api.BeforeEach"));
+        assertTrue(TypeUtils.isOfClassType(Annotation.afterEach().getType(), "org.junit.jupiter.api.AfterEach"));
+        assertTrue(TypeUtils.isOfClassType(Annotation.beforeAll().getType(), "org.junit.jupiter.api.BeforeAll"));
+        assertTrue(TypeUtils.isOfClassType(Annotation.afterAll().getType(), "org.junit.jupiter.api.AfterAll"));
+        assertEquals("@TestInstance(TestInstance.Lifecycle.PER_CLASS)", Annotation.testInstancePerClass().toString());
+    }
+
+    @Test void hasNewIdOnEveryCall() {
+        assertNotEquals(Annotation.disabled().getId(), Annotation.disabled().getId());
+    }
+
+    @Test void timeoutRetainsArgumentLayout() {
+        final J.Literal value = new J.Literal(
+          Tree.randomId(), Space.SINGLE_SPACE, Markers.EMPTY, 500, "500", null, JavaType.Primitive.Int
+        );
+
+        assertEquals("@Timeout(value = 500, unit = TimeUnit.MILLISECONDS)", Annotation.timeout(value).toString());
+    }
+
+    @Test void singleArgumentLosesItsPrefix() {
+        final J.Literal value = new J.Literal(
+          Tree.randomId(), Space.SINGLE_SPACE, Markers.EMPTY, "Yeah!", "\"Yeah!\"", null, JavaType.Primitive.String
+        );
+
+        assertEquals("@DisplayName(\"Yeah!\")", Annotation.displayName(value).toString());
+        assertEquals("@Tag(\"Yeah!\")", Annotation.tag(value).toString());
+    }
+}
@@ -0,0 +1,99 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Cursor;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssertThrowsTest {
+
+    // language=java
+    private static final String SOURCE = """
+        class MyTest {
+            Class<?> expected = IllegalArgumentException.class;
+        
+            void test() {
+                // comment
+                if (true) {
+                    throw new IllegalArgumentException("boom");
+                }
+            }
+        }
+        """;
+
+    private final J.CompilationUnit cu = (J.CompilationUnit) Parser.jupiter().build()
+        .parse(new InMemoryExecutionContext(), SOURCE)
+        .findFirst().orElseThrow(IllegalStateException::new);
+
+    private final List<Statement> members = cu.getClasses().get(0).getBody().getStatements();
+
+    private final J.FieldAccess exception = (J.FieldAccess) Objects.requireNonNull(
+        ((J.VariableDeclarations) members.get(0)).getVariables().get(0).getInitializer()
+    );
+
+    private final J.MethodDeclaration method = (J.MethodDeclaration) members.get(1);
+
+    private final Cursor cursor = new Cursor(new Cursor(new Cursor(null, Cursor.ROOT_VALUE), cu), method);
+
+    @Test void wrapsBodyShiftedByOneLevel() {
+        final J.MethodDeclaration wrapped = AssertThrows.wrap(method, exception, null, cursor);
+
+        assertEquals(
+            """
+            void test() {
+                Assertions.assertThrows(IllegalArgumentException.class, () -> {
+                    // comment
+                    if (true) {
+                        throw new IllegalArgumentException("boom");
+                    }
+                });
+            }""",
+            wrapped.printTrimmed(cursor.getParentOrThrow()).trim()
+        );
+    }
+
+    @Test void reusesStatementsOfBody() {
+        final J.MethodDeclaration wrapped = AssertThrows.wrap(method, exception, null, cursor);
+
+        final J.MethodInvocation assertThrows = (J.MethodInvocation) Objects.requireNonNull(wrapped.getBody()).getStatements().get(0);
+        final J.Block lambdaBody = (J.Block) ((J.Lambda) assertThrows.getArguments().get(1)).getBody();
+        final J.If original = (J.If) Objects.requireNonNull(method.getBody()).getStatements().get(0);
+        final J.If reused = (J.If) lambdaBody.getStatements().get(0);
+        assertEquals(original.getId(), reused.getId());
+        assertSame(original.getIfCondition(), reused.getIfCondition(), "subtrees without line breaks are not copied");
+    }
+
+    @Test void assertsMessage_andAttributesExceptionType() {
+        final J.Literal regExp = new J.Literal(
+            Tree.randomId(), Space.SINGLE_SPACE, Markers.EMPTY, "boom", "\"boom\"", null, JavaType.Primitive.String
+        );
+
+        final J.MethodDeclaration wrapped = AssertThrows.wrap(method, exception, regExp, cursor);
+
+        final List<Statement> statements = Objects.requireNonNull(wrapped.getBody()).getStatements();
+        final J.VariableDeclarations thrown = (J.VariableDeclarations) statements.get(0);
+        final J.MethodInvocation assertThrows = (J.MethodInvocation) thrown.getVariables().get(0).getInitializer();
+        assertTrue(TypeUtils.isOfClassType(Objects.requireNonNull(assertThrows).getType(), "java.lang.IllegalArgumentException"));
+        assertSame(assertThrows.getMethodType(), assertThrows.getName().getType());
+        assertEquals("Assertions.assertTrue(thrown.getMessage().matches(\"boom\"))", statements.get(1).printTrimmed(cursor));
+    }
+
+    @Test void keepsSingleLineBodyOnOneLine() {
+        final J.MethodDeclaration singleLine = method.withBody(Objects.requireNonNull(method.getBody())
+            .withStatements(List.of(method.getBody().getStatements().get(0).withPrefix(Space.SINGLE_SPACE)))
+            .withEnd(Space.SINGLE_SPACE));
+
+        final J.MethodDeclaration wrapped = AssertThrows.wrap(singleLine, exception, null, cursor);
+
+        assertTrue(wrapped.printTrimmed(cursor.getParentOrThrow()).trim().startsWith(
+            "void test() { Assertions.assertThrows(IllegalArgumentException.class, () -> { if (true) {"
+        ));
+    }
+}
@@ -24,6 +24,7 @@ class CleanupTest implements RewriteTest {
 
             @Override
             public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext executionContext) {
+                classDecl = super.visitClassDeclaration(classDecl, executionContext);
                 if (classDecl.getLeadingAnnotations().stream().noneMatch(MATCHER::matches)) {
                     return classDecl;
                 }
@@ -35,6 +36,15 @@ class CleanupTest implements RewriteTest {
 
                 return classDecl;
             }
+
+            @Override
+            public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext executionContext) {
+                for (final J.Annotation annotation : method.getLeadingAnnotations().stream().filter(MATCHER::matches).toList()) {
+                    method = Cleanup.removeAnnotation(method, annotation);
+                }
+
+                return method;
+            }
         }));
     }
 
@@ -152,4 +162,82 @@ class CleanupTest implements RewriteTest {
             );
         }
     }
+
+    @Nested class removeAnnotationFromMethod {
+
+        @Test void withModifier() {
+            rewriteRun(
+              // language=java
+              java(
+                """
+                class BazTest {
+                    @Deprecated
+                    public void foo() {
+                    }
+                }
+                """,
+                """
+                class BazTest {
+                    public void foo() {
+                    }
+                }
+                """
+              )
+            );
+        }
+
+        @Test void withoutModifier() {
+            rewriteRun(
+              // language=java
+              java(
+                """
+                class BazTest {
+                    @Deprecated
+                    <T> T foo() {
+                        return null;
+                    }
+                }
+                """,
+                """
+                class BazTest {
+                    <T> T foo() {
+                        return null;
+                    }
+                }
+                """
+              )
+            );
+        }
+
+        @Test void preservingExistingAnnotations() {
+            rewriteRun(
+              // language=java
+              java(
+                """
+                class BazTest {
+                    @SuppressWarnings("unused")
+                    @Deprecated
+                    void foo() {
+                    }
+
+                    @Deprecated @SafeVarargs
+                    final void bar(String... values) {
+                    }
+                }
+                """,
+                """
+                class BazTest {
+                    @SuppressWarnings("unused")
+                    void foo() {
+                    }
+
+                    @SafeVarargs
+                    final void bar(String... values) {
+                    }
+                }
+                """
+              )
+            );
+        }
+    }
 }
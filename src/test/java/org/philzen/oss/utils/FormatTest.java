@@ -0,0 +1,52 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Cursor;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Space;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatTest {
+
+    private static J.CompilationUnit parse(String source) {
+        return (J.CompilationUnit) Parser.jupiter().build()
+            .parse(new InMemoryExecutionContext(), source)
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    @Test void detectsLineBreaks() {
+        assertFalse(Format.lineBreaks(parse("class A {\n    void a() {}\n}")).isUseCRLFNewLines());
+        assertTrue(Format.lineBreaks(parse("class A {\r\n    void a() {}\r\n}")).isUseCRLFNewLines());
+    }
+
+    @Test void formatsUpToStopAfter_withGivenLineBreaks() {
+        final J.CompilationUnit cu = parse(
+            "import org.junit.jupiter.api.*;\r\n"
+                + "class A {\r\n"
+                + "    @Test void a() {\r\n"
+                + "  int   unformatted = 1;\r\n"
+                + "    }\r\n"
+                + "}"
+        );
+        final J.ClassDeclaration classDecl = cu.getClasses().get(0);
+        final J.MethodDeclaration method = (J.MethodDeclaration) classDecl.getBody().getStatements().get(0);
+        final J.MethodDeclaration annotated = method.withLeadingAnnotations(ListUtils.concat(
+            method.getLeadingAnnotations(), Annotation.disabled().withPrefix(Space.format("\n"))
+        ));
+        final Cursor parent = new Cursor(new Cursor(new Cursor(new Cursor(null, Cursor.ROOT_VALUE), cu), classDecl), classDecl.getBody());
+
+        final J.MethodDeclaration formatted = Format.autoFormat(annotated, annotated.getName(), Format.lineBreaks(cu), parent);
+
+        assertEquals(
+            "@Test\r\n"
+                + "    @Disabled\r\n"
+                + "    void a() {\r\n"
+                + "  int   unformatted = 1;\r\n"
+                + "    }",
+            formatted.print(parent).trim()
+        );
+    }
+}
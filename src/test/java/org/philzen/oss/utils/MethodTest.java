@@ -0,0 +1,66 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.tree.J;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodTest {
+
+    private static J.MethodDeclaration method(String declaration) {
+        final J.CompilationUnit cu = (J.CompilationUnit) Parser.jupiter().build()
+            .parse(new InMemoryExecutionContext(), "import org.junit.jupiter.api.*;\nclass A {\n    " + declaration + "\n}")
+            .findFirst().orElseThrow(IllegalStateException::new);
+        return (J.MethodDeclaration) cu.getClasses().get(0).getBody().getStatements().get(0);
+    }
+
+    @Test void getAnnotation_ofDeclarationOnly() {
+        final AnnotationMatcher disabled = new AnnotationMatcher("@org.junit.jupiter.api.Disabled");
+
+        assertEquals("@Disabled(\"b\")", String.valueOf(Method.getAnnotation(method("@Test @Disabled(\"b\") void a() {}"), disabled)));
+        assertNull(Method.getAnnotation(method("@Test void a() { new Object() { @Disabled void b() {} }; }"), disabled));
+    }
+
+    @Test void getAnnotation_writtenAfterModifier() {
+        final AnnotationMatcher disabled = new AnnotationMatcher("@org.junit.jupiter.api.Disabled");
+
+        assertEquals("@Disabled(\"b\")", String.valueOf(Method.getAnnotation(method("public @Disabled(\"b\") void a() {}"), disabled)));
+        assertEquals("@Disabled", String.valueOf(Method.getAnnotation(method("public @Disabled static void a() {}"), disabled)));
+    }
+
+    @Test void toLeadingAnnotation() {
+        final J.MethodDeclaration m = method("@Test public @Deprecated @Disabled(\"b\") void a() {}");
+        final J.Annotation annotation = Method.getAnnotation(m, new AnnotationMatcher("@org.junit.jupiter.api.Disabled"));
+
+        final J.MethodDeclaration moved = Method.toLeadingAnnotation(m, Objects.requireNonNull(annotation));
+        assertEquals("@Test @Disabled(\"b\") public @Deprecated void a() {}", moved.printTrimmed());
+        assertSame(moved, Method.toLeadingAnnotation(moved, moved.getLeadingAnnotations().get(1)));
+    }
+
+    @Test void isPublic() {
+        assertTrue(Method.isPublic(method("@Test public static void a() {}")));
+        assertTrue(Method.isPublic(method("static public void a() {}")));
+        assertFalse(Method.isPublic(method("protected void a() {}")));
+        assertFalse(Method.isPublic(method("void a() {}")));
+    }
+
+    @Test void hasAnnotation_writtenAsGiven() {
+        final J.MethodDeclaration simple = method("@Disabled @Test void a() {}");
+        final J.MethodDeclaration qualified = method("@org.junit.jupiter.api.Test void a() {}");
+
+        assertTrue(Method.hasAnnotation(simple, "Test"));
+        assertFalse(Method.hasAnnotation(simple, "org.junit.jupiter.api.Test"));
+        assertTrue(Method.hasAnnotation(qualified, "org.junit.jupiter.api.Test"));
+        assertFalse(Method.hasAnnotation(qualified, "Test"));
+        assertTrue(Method.hasAnnotation(method("public @org.junit.jupiter.api.Test void a() {}"), "org.junit.jupiter.api.Test"));
+    }
+
+    @Test void hasAnnotation_withoutArguments() {
+        assertFalse(Method.hasAnnotation(method("@Tag(\"a\") void a() {}"), "Tag"));
+        assertFalse(Method.hasAnnotation(method("@Test() void a() {}"), "Test"));
+    }
+}
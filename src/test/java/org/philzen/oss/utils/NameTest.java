@@ -0,0 +1,64 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.NameTree;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTest {
+
+    /**
+     * Annotation types of the leading annotations of the first method, in order
+     */
+    private static List<NameTree> annotationTypes(String annotations) {
+        final J.CompilationUnit cu = (J.CompilationUnit) Parser.jupiter().build()
+            .parse(new InMemoryExecutionContext(), "class A {\n    " + annotations + " void a() {}\n}")
+            .findFirst().orElseThrow(IllegalStateException::new);
+        return ((J.MethodDeclaration) cu.getClasses().get(0).getBody().getStatements().get(0))
+            .getLeadingAnnotations().stream().map(J.Annotation::getAnnotationType).toList();
+    }
+
+    @Nested class isQualified {
+
+        @Test void simpleName() {
+            assertFalse(Name.isQualified(annotationTypes("@Deprecated").get(0)));
+        }
+
+        @Test void fieldAccess() {
+            assertTrue(Name.isQualified(annotationTypes("@java.lang.Deprecated").get(0)));
+        }
+
+        @Test void identifierHoldingQualifiedName() {
+            final J.Identifier simple = (J.Identifier) annotationTypes("@Deprecated").get(0);
+
+            assertTrue(Name.isQualified(simple.withSimpleName("java.lang.Deprecated")));
+        }
+    }
+
+    @Nested class is {
+
+        @Test void matchesAsWritten() {
+            final List<NameTree> names = annotationTypes("@Deprecated @java.lang.Deprecated @java . lang.SafeVarargs");
+
+            assertTrue(Name.is(names.get(0), "Deprecated"));
+            assertTrue(Name.is(names.get(1), "java.lang.Deprecated"));
+            assertTrue(Name.is(names.get(2), "java.lang.SafeVarargs"));
+        }
+
+        @Test void doesNotMatchOtherwiseWritten() {
+            final List<NameTree> names = annotationTypes("@Deprecated @java.lang.Deprecated");
+
+            assertFalse(Name.is(names.get(0), "java.lang.Deprecated"));
+            assertFalse(Name.is(names.get(1), "Deprecated"));
+            assertFalse(Name.is(names.get(1), "lang.Deprecated"));
+            assertFalse(Name.is(names.get(1), "xjava.lang.Deprecated"));
+            assertFalse(Name.is(names.get(1), "java.lang.Deprecate"));
+            assertFalse(Name.is(names.get(1), "java/lang.Deprecated"));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserPoolTest {
+
+    private static final String SOURCE = """
+        import org.junit.jupiter.api.Test;
+        class A { @Test void test() {} }
+        """;
+
+    private static boolean attributesTest(JavaParser parser) {
+        final J.CompilationUnit cu = (J.CompilationUnit) parser.parse(new InMemoryExecutionContext(), SOURCE)
+            .findFirst().orElseThrow(IllegalStateException::new);
+        final J.MethodDeclaration test = (J.MethodDeclaration) cu.getClasses().get(0).getBody().getStatements().get(0);
+        return TypeUtils.isOfClassType(test.getLeadingAnnotations().get(0).getType(), "org.junit.jupiter.api.Test");
+    }
+
+    @Test void reusesReturnedParser() {
+        final ParserPool pool = new ParserPool(JavaParser.fromJavaVersion().classpath("junit-jupiter-api"), 2);
+
+        final JavaParser first = pool.apply(parser -> parser);
+        assertEquals(1, pool.idle());
+        assertSame(first, pool.apply(parser -> parser));
+        assertEquals(1, pool.idle());
+    }
+
+    @Test void returnedParserIsStillAttributing() {
+        final ParserPool pool = new ParserPool(JavaParser.fromJavaVersion().classpath("junit-jupiter-api"), 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(pool.apply(ParserPoolTest::attributesTest));
+        }
+    }
+
+    @Test void reentrantWork_borrowsAnotherParser() {
+        final ParserPool pool = new ParserPool(JavaParser.fromJavaVersion().classpath("junit-jupiter-api"), 2);
+        pool.apply(parser -> parser);
+
+        final boolean attributed = pool.apply(outer -> {
+            final JavaParser inner = pool.apply(parser -> {
+                assertTrue(attributesTest(parser));
+                return parser;
+            });
+            assertNotSame(outer, inner);
+            // the outer parser has not been reset by the inner unit of work
+            return attributesTest(outer);
+        });
+
+        assertTrue(attributed);
+        assertEquals(2, pool.idle());
+    }
+
+    @Test void keepsAtMostMaxSizeIdle_ofConcurrentlyBorrowedParsers() throws Exception {
+        final ParserPool pool = new ParserPool(JavaParser.fromJavaVersion(), 2);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final CyclicBarrier barrier = new CyclicBarrier(4);
+            final Future<?>[] futures = new Future[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> pool.apply(parser -> {
+                    try {
+                        barrier.await(30, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return parser;
+                }));
+            }
+            final Set<Object> parsers = ConcurrentHashMap.newKeySet();
+            for (Future<?> future : futures) {
+                parsers.add(future.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(4, parsers.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, pool.idle());
+        assertEquals(2, pool.maxSize());
+    }
+}
@@ -0,0 +1,130 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefilterTest {
+
+    @Nested class contains {
+
+        @Test void findsNeedle_atBoundaries() {
+            assertTrue(Prefilter.contains(bytes("org.testng"), Prefilter.TESTNG));
+            assertTrue(Prefilter.contains(bytes("import org.testng"), Prefilter.TESTNG));
+            assertTrue(Prefilter.contains(bytes("org.testng.annotations.Test;"), Prefilter.TESTNG));
+        }
+
+        @Test void doesNotFindNeedle_whenOnlyPartiallyPresent() {
+            assertFalse(Prefilter.contains(bytes(""), Prefilter.TESTNG));
+            assertFalse(Prefilter.contains(bytes("org.testn"), Prefilter.TESTNG));
+            assertFalse(Prefilter.contains(bytes("org.junit.jupiter.api.Test; org.test"), Prefilter.TESTNG));
+        }
+
+        @Test void doesNotMoveBufferPosition() {
+            final ByteBuffer buffer = bytes("import org.testng.Assert;");
+            Prefilter.contains(buffer, Prefilter.TESTNG);
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Nested class scan {
+
+        @Test void selectsCandidatesAndTheirDependencies(@TempDir Path dir) throws IOException {
+            final Path test = write(dir, "MyTest.java",
+                "import org.testng.annotations.Test;\n" +
+                "public class MyTest extends BaseTest { @Test public void test() { Helper.help(); } }"
+            );
+            final Path base = write(dir, "BaseTest.java", "public class BaseTest {}");
+            final Path helper = write(dir, "Helper.java", "public class Helper { public static void help() {} }");
+            write(dir, "Unrelated.java", "public class Unrelated {}");
+
+            final Prefilter.Result result = Prefilter.scan(Files.list(dir).collect(Collectors.toList()));
+
+            assertEquals(4, result.getScanned());
+            assertEquals(Collections.singletonList(test), paths(result.getCandidates()));
+            assertEquals(Arrays.asList(base, helper), paths(result.getDependencies()).stream().sorted().collect(Collectors.toList()));
+        }
+
+        @Test void selectsDependenciesTransitively_byFullyQualifiedName(@TempDir Path dir) throws IOException {
+            final Path test = write(dir, "MyTest.java",
+                "package a;\n" +
+                "import b.*;\n" +
+                "import org.testng.annotations.Test;\n" +
+                "public class MyTest { @Test(expectedExceptions = Failure.class) public void test() {} }"
+            );
+            Files.createDirectories(dir.resolve("b"));
+            Files.createDirectories(dir.resolve("c"));
+            final Path failure = write(dir, "b/Failure.java", "package b; public class Failure extends Base {}");
+            final Path base = write(dir, "b/Base.java", "/* package c; */ package b; public class Base extends RuntimeException {}");
+            write(dir, "c/Failure.java", "package c; public class Failure {}");
+            write(dir, "c/Base.java", "package c; public class Base {}");
+
+            final Prefilter.Result result = Prefilter.scan(List.of(test, failure, base, dir.resolve("c/Failure.java"), dir.resolve("c/Base.java")));
+
+            assertEquals(Collections.singletonList(test), paths(result.getCandidates()));
+            assertEquals(Arrays.asList(failure, base), paths(result.getDependencies()));
+        }
+
+        @Test void memoryMapsLargeFiles(@TempDir Path dir) throws IOException {
+            final StringBuilder padding = new StringBuilder();
+            while (padding.length() < Prefilter.MAPPING_THRESHOLD) {
+                padding.append("    // padding padding padding padding padding padding padding\n");
+            }
+            write(dir, "Large.java", "public class Large {\n" + padding + "    org.testng.annotations.Test t;\n}");
+
+            final Prefilter.Result result = Prefilter.scan(Files.list(dir).collect(Collectors.toList()));
+
+            assertEquals(1, result.getCandidates().size());
+            assertTrue(result.getCandidates().get(0).getSource(new InMemoryExecutionContext()).readFully().endsWith("t;\n}"));
+        }
+
+        @Test void feedsParser_withTypeAttribution(@TempDir Path dir) throws IOException {
+            write(dir, "MyTest.java",
+                "import org.testng.annotations.Test;\n" +
+                "public class MyTest extends BaseTest { @Test public void test() {} }"
+            );
+            write(dir, "BaseTest.java", "public class BaseTest {}");
+
+            final List<SourceFile> parsed = JavaParser.fromJavaVersion().classpath("testng").build()
+                .parseInputs(Prefilter.scan(Files.list(dir).collect(Collectors.toList())).inputs(), dir, new InMemoryExecutionContext())
+                .collect(Collectors.toList());
+
+            assertEquals(2, parsed.size());
+            final J.ClassDeclaration myTest = ((J.CompilationUnit) parsed.get(0)).getClasses().get(0);
+            final JavaType.FullyQualified supertype = TypeUtils.asFullyQualified(myTest.getType()).getSupertype();
+            assertNotNull(supertype);
+            assertEquals("BaseTest", supertype.getFullyQualifiedName());
+        }
+    }
+
+    private static ByteBuffer bytes(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Path write(Path dir, String name, String content) throws IOException {
+        return Files.write(dir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Path> paths(List<Parser.Input> inputs) {
+        return inputs.stream().map(Parser.Input::getPath).collect(Collectors.toList());
+    }
+}
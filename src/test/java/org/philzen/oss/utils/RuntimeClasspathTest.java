@@ -0,0 +1,85 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The templates are attributed against the recipe's runtime classpath, which under the build plugins contains the
+ * recipe's own runtime dependencies only (the test classpath of this project contains more). The build passes that
+ * classpath as the <code>runtime.classpath</code> system property.
+ */
+class RuntimeClasspathTest {
+
+    private static List<Path> runtimeClasspath() {
+        final String classpath = System.getProperty("runtime.classpath");
+        assumeTrue(classpath != null && !classpath.startsWith("${"), "runtime classpath is only passed by the build");
+        return Arrays.stream(classpath.split(File.pathSeparator)).map(Paths::get).collect(Collectors.toList());
+    }
+
+    @Test void containsArtifacts_resolvedByName() {
+        final List<String> jars = runtimeClasspath().stream()
+            .map(jar -> jar.getFileName().toString())
+            .collect(Collectors.toList());
+
+        // as looked up by Parser.jupiter() and the assertion templates
+        for (String artifact : List.of("junit-jupiter-api", "junit-jupiter-params", "testng")) {
+            assertTrue(jars.stream().anyMatch(jar -> jar.matches(artifact + "-\\d.*\\.jar")), artifact + " in " + jars);
+        }
+    }
+
+    @Test void attributesBothAssertionApis() {
+        // language=java
+        final J.CompilationUnit cu = JavaParser.fromJavaVersion().classpath(runtimeClasspath()).build()
+            .parse(new InMemoryExecutionContext(Throwable::printStackTrace), """
+                import org.junit.jupiter.api.Assertions;
+                import org.junit.jupiter.params.ParameterizedTest;
+                import org.testng.Assert;
+
+                class MyTest {
+                    @ParameterizedTest
+                    void test(int[] actual) {
+                        Assert.assertEquals(actual, new int[] {1});
+                        Assertions.assertArrayEquals(new int[] {1}, actual);
+                    }
+                }
+                """)
+            .map(J.CompilationUnit.class::cast)
+            .findFirst()
+            .orElseThrow();
+
+        final List<String> declaringTypes = new JavaIsoVisitor<List<String>>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, List<String> types) {
+                final JavaType.Method type = method.getMethodType();
+                assertNotNull(type, method::toString);
+                types.add(type.getDeclaringType().getFullyQualifiedName());
+                return method;
+            }
+        }.reduce(cu, new ArrayList<>());
+
+        assertEquals(List.of("org.testng.Assert", "org.junit.jupiter.api.Assertions"), declaringTypes);
+        assertTrue(TypeUtils.isOfClassType(
+            cu.getClasses().get(0).getBody().getStatements().stream()
+                .map(J.MethodDeclaration.class::cast)
+                .findFirst().orElseThrow()
+                .getLeadingAnnotations().get(0).getType(),
+            "org.junit.jupiter.params.ParameterizedTest"
+        ));
+    }
+}
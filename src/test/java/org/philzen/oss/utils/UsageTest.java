@@ -0,0 +1,109 @@
+package org.philzen.oss.utils;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.marker.SearchResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsageTest {
+
+    private static J.CompilationUnit parse(String source) {
+        return (J.CompilationUnit) JavaParser.fromJavaVersion().classpath("testng").build()
+            .parse(new InMemoryExecutionContext(), source)
+            .findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    @Nested class summarize {
+
+        @Test void collectsImportedReferencedAndCalledTypes() {
+            final J.CompilationUnit cu = parse(
+                "import org.testng.annotations.Test;\n" +
+                "import static org.testng.Assert.assertTrue;\n" +
+                "class MyTest {\n" +
+                "    @Test void test() { assertTrue(true); }\n" +
+                "    @org.testng.annotations.BeforeMethod void setUp() {}\n" +
+                "}"
+            );
+
+            final Usage.Summary summary = Usage.summarize(cu, new InMemoryExecutionContext());
+
+            assertEquals(new HashSet<>(Arrays.asList(
+                "org.testng.annotations.Test", "org.testng.Assert", "org.testng.annotations.BeforeMethod"
+            )), summary.getTypes());
+            assertTrue(summary.getPackages().isEmpty());
+        }
+
+        @Test void resolvesWildcardImports() {
+            final J.CompilationUnit cu = parse("import org.testng.annotations.*;\nclass MyTest {}");
+
+            final Usage.Summary summary = Usage.summarize(cu, new InMemoryExecutionContext());
+
+            assertEquals(Collections.singleton("org.testng.annotations"), summary.getPackages());
+            assertTrue(summary.uses("org.testng.annotations.Test"));
+            assertFalse(summary.uses("org.testng.Assert"));
+        }
+
+        @Test void isEmpty_withoutTestNg() {
+            final J.CompilationUnit cu = parse("import org.testngx.Foo;\nclass MyTest { String s; }");
+
+            assertTrue(Usage.summarize(cu, new InMemoryExecutionContext()).isEmpty());
+        }
+
+        @Test void isCachedPerCompilationUnit() {
+            final J.CompilationUnit cu = parse("import org.testng.annotations.Test;\nclass MyTest {}");
+            final ExecutionContext ctx = new InMemoryExecutionContext();
+
+            final Usage.Summary first = Usage.summarize(cu, ctx);
+
+            assertSame(first, Usage.summarize(cu, ctx));
+            assertNotSame(first, Usage.summarize(cu.withPrefix(Space.format("\n")), ctx));
+        }
+
+        @Test void purgesEntriesOfCollectedCompilationUnits() throws InterruptedException {
+            final J.CompilationUnit cu = parse("import org.testng.annotations.Test;\nclass MyTest {}");
+            final ExecutionContext ctx = new InMemoryExecutionContext();
+            final Usage.Summary summary = Usage.summarize(cu, ctx);
+            for (int i = 0; i < 1000; i++) {
+                Usage.summarize(cu.withId(Tree.randomId()), ctx);
+            }
+
+            final Usage.Cache cache = ctx.getMessage(Usage.CACHE_KEY);
+            for (int attempt = 0; attempt < 100 && cache.size() > 1; attempt++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            // only the entry of the compilation unit that is still referenced remains
+            assertEquals(1, cache.size());
+            assertSame(summary, Usage.summarize(cu, ctx));
+        }
+    }
+
+    @Nested class of {
+
+        @Test void marksUsingCompilationUnit() {
+            final J.CompilationUnit cu = parse("class MyTest { @org.testng.annotations.Test void test() {} }");
+
+            final J marked = (J) Usage.of("org.testng.annotations.Test").visit(cu, new InMemoryExecutionContext());
+
+            assertNotNull(marked);
+            assertTrue(marked.getMarkers().findFirst(SearchResult.class).isPresent());
+        }
+
+        @Test void leavesOtherCompilationUnitUntouched() {
+            final J.CompilationUnit cu = parse("import org.testng.Assert;\nclass MyTest {}");
+
+            assertSame(cu, Usage.of("org.testng.annotations.Test").visit(cu, new InMemoryExecutionContext()));
+        }
+    }
+}